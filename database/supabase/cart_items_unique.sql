@@ -0,0 +1,44 @@
+-- ============================================================
+-- One row per product per cart
+-- ============================================================
+-- Cart item writes are upserts (INSERT ... ON CONFLICT (cart_id,
+-- product_id)), which need the unique constraint to exist. Databases
+-- created by Hibernate (ddl-auto) instead of schema.sql may lack it,
+-- and may already hold duplicate rows from concurrent double-clicks.
+--
+-- Run this in Supabase SQL Editor before deploying the new backend.
+-- ============================================================
+
+-- Step 1: Fold duplicate lines into the oldest row
+UPDATE cart_items keep
+SET quantity = dup.total_quantity
+FROM (
+    SELECT MIN(id) AS keep_id, SUM(quantity) AS total_quantity
+    FROM cart_items
+    GROUP BY cart_id, product_id
+    HAVING COUNT(*) > 1
+) dup
+WHERE keep.id = dup.keep_id;
+
+DELETE FROM cart_items ci
+USING cart_items older
+WHERE ci.cart_id = older.cart_id
+  AND ci.product_id = older.product_id
+  AND ci.id > older.id;
+
+-- Step 2: Add the constraint if it is missing
+DO $$
+BEGIN
+    IF NOT EXISTS (
+        SELECT 1 FROM pg_constraint WHERE conname = 'cart_items_cart_id_product_id_key'
+    ) THEN
+        ALTER TABLE cart_items
+            ADD CONSTRAINT cart_items_cart_id_product_id_key UNIQUE (cart_id, product_id);
+    END IF;
+END $$;
+
+-- Verify: should return no rows
+SELECT cart_id, product_id, COUNT(*)
+FROM cart_items
+GROUP BY cart_id, product_id
+HAVING COUNT(*) > 1;
@@ -0,0 +1,23 @@
+-- ============================================================
+-- Abandoned cart purge
+-- ============================================================
+-- The backend now deletes carts whose contents have not been
+-- written for app.cart.purge.maxAgeDays (default 30), in small
+-- batches walked in (updated_at, id) order. This makes sure every
+-- cart has a last-modified timestamp and adds the index the job
+-- scans.
+--
+-- Run this in Supabase SQL Editor before deploying the new backend.
+-- ============================================================
+
+ALTER TABLE carts ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP;
+
+-- Carts without a timestamp get a full grace period from today
+UPDATE carts SET updated_at = CURRENT_TIMESTAMP WHERE updated_at IS NULL;
+
+CREATE INDEX IF NOT EXISTS idx_carts_updated_at_id ON carts(updated_at, id);
+
+-- Preview what the first run would delete
+SELECT COUNT(*) AS abandoned_carts
+FROM carts
+WHERE updated_at < CURRENT_TIMESTAMP - INTERVAL '30 days';
@@ -0,0 +1,29 @@
+-- ============================================================
+-- Running cart totals
+-- ============================================================
+-- Adds subtotal and item_count to carts. The backend keeps them
+-- up to date incrementally on every cart change, so cart views no
+-- longer read every product in the cart to compute the total.
+--
+-- Run this in Supabase SQL Editor before deploying the new backend.
+-- ============================================================
+
+ALTER TABLE carts ADD COLUMN IF NOT EXISTS subtotal DECIMAL(12, 2) NOT NULL DEFAULT 0;
+ALTER TABLE carts ADD COLUMN IF NOT EXISTS item_count INTEGER NOT NULL DEFAULT 0;
+
+-- Backfill existing carts with one aggregate pass
+UPDATE carts c
+SET subtotal = t.subtotal,
+    item_count = t.item_count
+FROM (
+    SELECT ci.cart_id,
+           SUM(ci.quantity * p.price) AS subtotal,
+           COUNT(*) AS item_count
+    FROM cart_items ci
+    JOIN products p ON p.id = ci.product_id
+    GROUP BY ci.cart_id
+) t
+WHERE c.id = t.cart_id;
+
+-- Verify
+SELECT id, user_id, subtotal, item_count FROM carts ORDER BY id LIMIT 20;
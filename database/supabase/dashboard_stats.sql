@@ -0,0 +1,29 @@
+-- ============================================================
+-- Admin dashboard statistics
+-- ============================================================
+-- The admin dashboard (/api/admin/dashboard) counts new users
+-- per day from users.created_at. Older databases created the
+-- users table without that column; existing users get the
+-- migration time as their creation time.
+--
+-- The other dashboard figures use existing tables and indexes
+-- (orders by status, inventory, sales_daily, reviews).
+--
+-- Run this in Supabase SQL Editor before deploying the new
+-- backend.
+-- ============================================================
+
+ALTER TABLE users ADD COLUMN IF NOT EXISTS created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP;
+
+CREATE INDEX IF NOT EXISTS idx_users_created ON users(created_at);
+
+-- Verify
+-- Expect: Index Scan / Bitmap Index Scan using idx_users_created
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT COUNT(*) FILTER (WHERE created_at >= CURRENT_DATE) AS today, COUNT(*) AS last_7_days
+FROM users WHERE created_at >= CURRENT_DATE - 6;
+
+-- Expect: Index Scan using sales_daily_pkey, one row
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT orders - cancelled_orders AS orders, revenue - cancelled_revenue AS revenue, updated_at
+FROM sales_daily WHERE sales_date = CURRENT_DATE;
@@ -0,0 +1,83 @@
+-- ============================================================
+-- Closed order archive
+-- ============================================================
+-- The backend now moves DELIVERED and CANCELLED orders older than
+-- app.order.archive.maxAgeDays (default 180), with their items,
+-- from orders / order_items to orders_archive /
+-- order_items_archive in small nightly batches. Customer order
+-- history, order details, review purchase checks and the finance
+-- export read both tables; admin search and status changes only
+-- see live orders.
+--
+-- Run this in Supabase SQL Editor before deploying the new backend.
+-- ============================================================
+
+CREATE TABLE IF NOT EXISTS orders_archive (
+    id BIGINT PRIMARY KEY,
+    user_id BIGINT NOT NULL REFERENCES users(id) ON DELETE RESTRICT,
+    shipping_address TEXT NOT NULL,
+    total_price DECIMAL(10, 2) NOT NULL,
+    status VARCHAR(20) NOT NULL CHECK (status IN ('DELIVERED', 'CANCELLED')),
+    created_at TIMESTAMP NOT NULL,
+    archived_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_orders_archive_user_created_desc
+    ON orders_archive(user_id, created_at DESC, id DESC);
+
+CREATE TABLE IF NOT EXISTS order_items_archive (
+    id BIGINT PRIMARY KEY,
+    order_id BIGINT NOT NULL REFERENCES orders_archive(id) ON DELETE CASCADE,
+    product_id BIGINT NOT NULL REFERENCES products(id) ON DELETE RESTRICT,
+    quantity INTEGER NOT NULL,
+    price_at_purchase DECIMAL(10, 2) NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_order_items_archive_order ON order_items_archive(order_id);
+
+-- Preview what the first run would move
+SELECT COUNT(*) AS closed_orders_to_archive
+FROM orders
+WHERE status IN ('DELIVERED', 'CANCELLED')
+  AND created_at < CURRENT_TIMESTAMP - INTERVAL '180 days';
+
+-- ============================================================
+-- Measuring the live tables
+-- ============================================================
+-- 1. Record index sizes BEFORE the first archive run:
+SELECT c.relname AS index_name,
+       t.relname AS table_name,
+       pg_size_pretty(pg_relation_size(c.oid)) AS size,
+       pg_relation_size(c.oid) AS bytes
+FROM pg_index i
+JOIN pg_class c ON c.oid = i.indexrelid
+JOIN pg_class t ON t.oid = i.indrelid
+WHERE t.relname IN ('orders', 'order_items')
+ORDER BY t.relname, c.relname;
+
+SELECT pg_size_pretty(pg_indexes_size('orders')) AS orders_indexes,
+       pg_size_pretty(pg_indexes_size('order_items')) AS order_items_indexes;
+
+-- 2. Let the job run until it logs a batch count below maxBatchesPerRun
+--    (each run logs "live order index size X -> Y bytes").
+--
+-- 3. Deleted index entries are only reused, not returned, so rebuild
+--    once after the initial backlog has been archived (one statement
+--    at a time; CONCURRENTLY cannot run inside a transaction block):
+REINDEX TABLE CONCURRENTLY orders;
+REINDEX TABLE CONCURRENTLY order_items;
+VACUUM ANALYZE orders;
+VACUUM ANALYZE order_items;
+
+-- 4. Re-run the two size queries above for the AFTER figures.
+
+-- Verify
+-- Expect: Limit -> Merge Append over idx_orders_user_created_desc
+-- and idx_orders_archive_user_created_desc (no Sort of all rows)
+EXPLAIN (ANALYZE, BUFFERS)
+(SELECT id, created_at, status, total_price, shipping_address FROM orders
+ WHERE user_id = 2 ORDER BY created_at DESC, id DESC LIMIT 10)
+UNION ALL
+(SELECT id, created_at, status, total_price, shipping_address FROM orders_archive
+ WHERE user_id = 2 ORDER BY created_at DESC, id DESC LIMIT 10)
+ORDER BY created_at DESC, id DESC LIMIT 10;
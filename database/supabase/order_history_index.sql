@@ -0,0 +1,38 @@
+-- ============================================================
+-- Customer order history index
+-- ============================================================
+-- GET /api/orders now reads a page of the user's orders with
+--   WHERE user_id = ? ORDER BY created_at DESC, id DESC LIMIT ?
+-- and then all items of that page with one batched query.
+-- An index in exactly that order returns the page without a
+-- sort step. It also serves the admin order search by customer,
+-- so it replaces idx_orders_user_created from
+-- order_search_indexes.sql.
+--
+-- Run this in Supabase SQL Editor, one statement at a time
+-- (CONCURRENTLY cannot run inside a transaction block).
+-- ============================================================
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_orders_user_created_desc
+    ON orders(user_id, created_at DESC, id DESC);
+
+DROP INDEX CONCURRENTLY IF EXISTS idx_orders_user_created;
+
+ANALYZE orders;
+
+-- Verify
+-- Expect: Limit -> Index Scan using idx_orders_user_created_desc (Index Cond: user_id = 2)
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT o.id, o.created_at, o.status, o.total_price, o.shipping_address
+FROM orders o
+WHERE o.user_id = 2
+ORDER BY o.created_at DESC, o.id DESC
+LIMIT 10;
+
+-- Expect: Index Scan using idx_order_items_order, joined to products_pkey
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT oi.id, oi.order_id, p.id, p.name, p.image_url, oi.quantity, oi.price_at_purchase
+FROM order_items oi
+JOIN products p ON p.id = oi.product_id
+WHERE oi.order_id IN (1, 2, 3)
+ORDER BY oi.order_id, oi.id;
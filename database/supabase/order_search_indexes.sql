@@ -0,0 +1,86 @@
+-- ============================================================
+-- Admin order search indexes
+-- ============================================================
+-- GET /api/admin/orders/search filters by status, date range,
+-- customer, product and total, always ordered newest first.
+-- The backend only emits the predicates that are set, so each
+-- filter combination can use one of these indexes:
+--
+--   status [+ dates]    -> idx_orders_status_created
+--   customer [+ dates]  -> idx_orders_user_created
+--   dates only          -> idx_orders_created
+--   product             -> idx_order_items_product_order
+--
+-- The composite indexes make the single-column idx_orders_user
+-- and idx_orders_status redundant, so they are dropped.
+--
+-- Run this in Supabase SQL Editor. CONCURRENTLY avoids blocking
+-- checkout while the indexes build (run statements one by one;
+-- CONCURRENTLY cannot run inside a transaction block).
+-- ============================================================
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_orders_status_created ON orders(status, created_at);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_orders_user_created ON orders(user_id, created_at);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_orders_created ON orders(created_at DESC);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_order_items_product_order ON order_items(product_id, order_id);
+
+DROP INDEX CONCURRENTLY IF EXISTS idx_orders_user;
+DROP INDEX CONCURRENTLY IF EXISTS idx_orders_status;
+
+ANALYZE orders;
+ANALYZE order_items;
+
+-- ============================================================
+-- Query plans
+-- ============================================================
+-- These are the statements Hibernate generates for the search
+-- (page of 20, rows + count). Run them with EXPLAIN to confirm
+-- index usage on real data; on a near-empty table Postgres may
+-- still prefer a Seq Scan, which is expected.
+
+-- 1. Status + date range
+--    Expect: Index Scan Backward using idx_orders_status_created
+--            (Index Cond: status = 'PENDING' AND created_at >= ... AND created_at < ...)
+--            under an Incremental Sort on (created_at DESC, id DESC)
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT o.id, o.created_at, o.status, o.total_price, u.id, u.username, u.email,
+       (SELECT COUNT(ci.id) FROM order_items ci WHERE ci.order_id = o.id),
+       (SELECT COALESCE(SUM(qi.quantity), 0) FROM order_items qi WHERE qi.order_id = o.id)
+FROM orders o
+JOIN users u ON u.id = o.user_id
+WHERE o.status = 'PENDING'
+  AND o.created_at >= DATE '2025-01-01'
+  AND o.created_at < DATE '2025-02-01'
+ORDER BY o.created_at DESC, o.id DESC
+LIMIT 20;
+
+-- 2. Customer (resolved to user_id) + date range
+--    Expect: Index Scan Backward using idx_orders_user_created
+--            (Index Cond: user_id = 2 AND created_at >= ...)
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT o.id, o.created_at, o.status, o.total_price, u.id, u.username, u.email,
+       (SELECT COUNT(ci.id) FROM order_items ci WHERE ci.order_id = o.id),
+       (SELECT COALESCE(SUM(qi.quantity), 0) FROM order_items qi WHERE qi.order_id = o.id)
+FROM orders o
+JOIN users u ON u.id = o.user_id
+WHERE o.user_id = 2
+  AND o.created_at >= DATE '2025-01-01'
+ORDER BY o.created_at DESC, o.id DESC
+LIMIT 20;
+
+-- 3. Product filter
+--    Expect: Index Only Scan using idx_order_items_product_order
+--            (Index Cond: product_id = 1) feeding a Semi Join / Nested Loop on orders_pkey
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT o.id, o.created_at, o.status, o.total_price
+FROM orders o
+WHERE EXISTS (SELECT 1 FROM order_items pi WHERE pi.order_id = o.id AND pi.product_id = 1)
+ORDER BY o.created_at DESC, o.id DESC
+LIMIT 20;
+
+-- 4. Count for status filter
+--    Expect: Index Only Scan using idx_orders_status_created
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT COUNT(o.id) FROM orders o WHERE o.status = 'SHIPPED';
+
+-- Per-row item counts use idx_order_items_order (two lookups per returned row).
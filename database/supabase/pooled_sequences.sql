@@ -0,0 +1,46 @@
+-- ============================================================
+-- Switch primary keys to pooled sequence allocation
+-- ============================================================
+-- The JPA entities now use GenerationType.SEQUENCE with
+-- allocationSize = 50 (Hibernate "pooled" optimizer) instead of
+-- GenerationType.IDENTITY. IDENTITY forces Hibernate to execute each
+-- INSERT immediately to read the generated key, which disables the
+-- configured hibernate.jdbc.batch_size / order_inserts settings.
+--
+-- With a pooled sequence, Hibernate fetches one sequence value per 50
+-- rows and sends the INSERTs as JDBC batches at flush time.
+--
+-- The BIGSERIAL columns keep their DEFAULT nextval(...), so manual
+-- inserts (seed.sql, SQL editor) keep working; they simply consume
+-- ids in steps of 50.
+--
+-- The roles table is left as-is: it holds three static rows.
+--
+-- Run this in Supabase SQL Editor before deploying the new backend.
+-- Hibernate validates the sequence increment at startup and refuses
+-- to start if it does not match allocationSize.
+-- ============================================================
+
+DO $$
+DECLARE
+    t TEXT;
+BEGIN
+    FOREACH t IN ARRAY ARRAY[
+        'users', 'categories', 'products', 'inventory', 'carts', 'cart_items',
+        'orders', 'order_items', 'reviews', 'vouchers', 'notifications', 'product_media'
+    ]
+    LOOP
+        -- Make sure the sequence is past every existing id before widening the step
+        EXECUTE format(
+            'SELECT setval(%L, GREATEST((SELECT COALESCE(MAX(id), 0) FROM %I), 1))',
+            t || '_id_seq', t);
+        EXECUTE format('ALTER SEQUENCE %I INCREMENT BY 50', t || '_id_seq');
+    END LOOP;
+END $$;
+
+-- Verify the new increments
+SELECT sequencename, increment_by, last_value
+FROM pg_sequences
+WHERE schemaname = 'public'
+  AND sequencename LIKE '%_id_seq'
+ORDER BY sequencename;
@@ -29,6 +29,9 @@ CREATE INDEX idx_product_media_product_id ON product_media(product_id);
 CREATE INDEX idx_product_media_order ON product_media(product_id, display_order);
 CREATE INDEX idx_product_media_type ON product_media(product_id, media_type);
 
+-- Pooled sequence allocation (matches allocationSize = 50 in ProductMedia)
+ALTER SEQUENCE product_media_id_seq INCREMENT BY 50;
+
 -- Add trigger for updated_at
 CREATE TRIGGER update_product_media_updated_at BEFORE UPDATE ON product_media
     FOR EACH ROW EXECUTE FUNCTION update_updated_at_column();
@@ -0,0 +1,61 @@
+-- ============================================================
+-- Product rating statistics
+-- ============================================================
+-- Product ratings (/api/reviews/product/{id}/rating) were an
+-- AVG over all of the product's reviews on every call. The
+-- backend now keeps each product's review count, rating sum
+-- and star histogram in product_rating_stats, updated with an
+-- atomic upsert whenever a review is created or deleted.
+-- Products without reviews have no row.
+--
+-- A nightly rebuild (also POST /api/admin/reviews/rating-stats/rebuild)
+-- recomputes the table from reviews and logs any drift.
+--
+-- Run this in Supabase SQL Editor before deploying the new
+-- backend. The backfill below is the same recomputation; the
+-- SHARE lock makes review writes wait until it commits.
+-- ============================================================
+
+CREATE TABLE IF NOT EXISTS product_rating_stats (
+    product_id BIGINT PRIMARY KEY REFERENCES products(id) ON DELETE CASCADE,
+    review_count BIGINT NOT NULL DEFAULT 0,
+    rating_sum BIGINT NOT NULL DEFAULT 0,
+    stars_1 BIGINT NOT NULL DEFAULT 0,
+    stars_2 BIGINT NOT NULL DEFAULT 0,
+    stars_3 BIGINT NOT NULL DEFAULT 0,
+    stars_4 BIGINT NOT NULL DEFAULT 0,
+    stars_5 BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Backfill
+BEGIN;
+LOCK TABLE reviews IN SHARE MODE;
+INSERT INTO product_rating_stats AS s
+    (product_id, review_count, rating_sum, stars_1, stars_2, stars_3, stars_4, stars_5, updated_at)
+SELECT product_id, COUNT(*), SUM(rating),
+       COUNT(*) FILTER (WHERE rating = 1),
+       COUNT(*) FILTER (WHERE rating = 2),
+       COUNT(*) FILTER (WHERE rating = 3),
+       COUNT(*) FILTER (WHERE rating = 4),
+       COUNT(*) FILTER (WHERE rating = 5),
+       CURRENT_TIMESTAMP
+FROM reviews
+GROUP BY product_id
+ON CONFLICT (product_id) DO UPDATE SET
+    review_count = EXCLUDED.review_count, rating_sum = EXCLUDED.rating_sum,
+    stars_1 = EXCLUDED.stars_1, stars_2 = EXCLUDED.stars_2, stars_3 = EXCLUDED.stars_3,
+    stars_4 = EXCLUDED.stars_4, stars_5 = EXCLUDED.stars_5, updated_at = EXCLUDED.updated_at;
+COMMIT;
+
+-- Verify
+-- Statistics match the reviews (expect 0 rows)
+SELECT s.product_id, s.review_count, r.review_count AS actual_count, s.rating_sum, r.rating_sum AS actual_sum
+FROM product_rating_stats s
+FULL JOIN (SELECT product_id, COUNT(*) AS review_count, SUM(rating) AS rating_sum
+           FROM reviews GROUP BY product_id) r ON r.product_id = s.product_id
+WHERE (s.review_count, s.rating_sum) IS DISTINCT FROM (r.review_count, r.rating_sum);
+
+-- Expect: Index Scan using product_rating_stats_pkey
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM product_rating_stats WHERE product_id = (SELECT MIN(id) FROM products);
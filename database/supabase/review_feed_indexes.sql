@@ -0,0 +1,41 @@
+-- ============================================================
+-- Product review feed indexes
+-- ============================================================
+-- GET /api/reviews/product/{id}/feed reads a page of a
+-- product's reviews with
+--   WHERE product_id = ? [AND rating = ?]
+--     AND (created_at, id) < (?, ?)
+--   ORDER BY created_at DESC, id DESC LIMIT ?
+-- joined to users for the author name. These indexes return
+-- each page without a sort step, with or without the star
+-- filter. The first one makes idx_reviews_product redundant.
+--
+-- Run this in Supabase SQL Editor, one statement at a time
+-- (CONCURRENTLY cannot run inside a transaction block).
+-- ============================================================
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_reviews_product_created_desc
+    ON reviews(product_id, created_at DESC, id DESC);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_reviews_product_rating_created_desc
+    ON reviews(product_id, rating, created_at DESC, id DESC);
+
+DROP INDEX CONCURRENTLY IF EXISTS idx_reviews_product;
+
+-- Verify
+-- Expect: Limit -> Nested Loop -> Index Scan using idx_reviews_product_created_desc, no Sort
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT r.id, r.product_id, r.user_id, u.username, r.rating, r.comment, r.is_verified_purchase, r.created_at
+FROM reviews r JOIN users u ON u.id = r.user_id
+WHERE r.product_id = (SELECT product_id FROM reviews GROUP BY product_id ORDER BY COUNT(*) DESC LIMIT 1)
+ORDER BY r.created_at DESC, r.id DESC
+LIMIT 11;
+
+-- Expect: Index Scan using idx_reviews_product_rating_created_desc, no Sort
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT r.id, r.product_id, r.user_id, u.username, r.rating, r.comment, r.is_verified_purchase, r.created_at
+FROM reviews r JOIN users u ON u.id = r.user_id
+WHERE r.product_id = (SELECT product_id FROM reviews GROUP BY product_id ORDER BY COUNT(*) DESC LIMIT 1)
+  AND r.rating = 5
+ORDER BY r.created_at DESC, r.id DESC
+LIMIT 11;
@@ -0,0 +1,57 @@
+-- ============================================================
+-- Review helpfulness votes
+-- ============================================================
+-- Customers can mark a review as helpful once
+-- (POST / DELETE /api/reviews/{id}/helpful). Votes are stored
+-- per user in review_helpful_votes. Instead of updating the
+-- review row on every vote, the backend adds +1 / -1 to one of
+-- a few counter rows per review (review_helpful_counter_shards,
+-- shard chosen at random) and merges those into
+-- reviews.helpful_count every few seconds, so popular reviews
+-- do not become a row lock hotspot.
+--
+-- The review feed's sort=HELPFUL reads helpful_count through
+-- idx_reviews_product_helpful_desc.
+--
+-- Run this in Supabase SQL Editor before deploying the new
+-- backend. The index is created CONCURRENTLY, so run that
+-- statement on its own (not inside a transaction block).
+-- ============================================================
+
+ALTER TABLE reviews ADD COLUMN IF NOT EXISTS helpful_count BIGINT NOT NULL DEFAULT 0;
+
+CREATE TABLE IF NOT EXISTS review_helpful_votes (
+    review_id BIGINT NOT NULL REFERENCES reviews(id) ON DELETE CASCADE,
+    user_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (review_id, user_id)
+);
+
+CREATE TABLE IF NOT EXISTS review_helpful_counter_shards (
+    review_id BIGINT NOT NULL REFERENCES reviews(id) ON DELETE CASCADE,
+    shard INTEGER NOT NULL,
+    delta BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (review_id, shard)
+);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_reviews_product_helpful_desc
+    ON reviews(product_id, helpful_count DESC, id DESC);
+
+-- Verify
+-- Expect: Limit -> Nested Loop -> Index Scan using idx_reviews_product_helpful_desc, no Sort
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT r.id, u.username, r.rating, r.helpful_count
+FROM reviews r JOIN users u ON u.id = r.user_id
+WHERE r.product_id = (SELECT product_id FROM reviews GROUP BY product_id ORDER BY COUNT(*) DESC LIMIT 1)
+ORDER BY r.helpful_count DESC, r.id DESC
+LIMIT 11;
+
+-- Counts match the votes once merged (expect 0 rows when no shards are pending)
+SELECT r.id, r.helpful_count, COUNT(v.user_id) AS votes
+FROM reviews r
+LEFT JOIN review_helpful_votes v ON v.review_id = r.id
+GROUP BY r.id, r.helpful_count
+HAVING r.helpful_count <> COUNT(v.user_id);
+
+-- Merge backlog: pending shard rows should stay small
+SELECT COUNT(*) AS pending_shards FROM review_helpful_counter_shards;
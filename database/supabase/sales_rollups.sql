@@ -0,0 +1,102 @@
+-- ============================================================
+-- Daily sales rollups
+-- ============================================================
+-- Revenue analytics (/api/admin/sales/*) read per-day rollups
+-- instead of aggregating orders, order_items and products:
+--   sales_daily           one row per day
+--   sales_daily_product   one row per day and product sold
+--   sales_daily_category  one row per day and category sold
+-- Days are the UTC date the order was placed. Placed figures
+-- count every order of the day; cancelled_* and delivered_*
+-- count the orders of that day that reached those statuses.
+--
+-- Checkout and status changes append to sales_rollup_events;
+-- the backend folds those into the rollups every few seconds.
+-- Rollup rows have no foreign keys so that they outlive
+-- deleted products and archived orders.
+--
+-- Run this in Supabase SQL Editor before deploying the new
+-- backend, then backfill history once (admin API):
+--   POST /api/admin/sales/rollup/rebuild?from=2024-01-01&to=<today>
+-- ============================================================
+
+CREATE TABLE IF NOT EXISTS sales_rollup_events (
+    id BIGSERIAL PRIMARY KEY,
+    order_id BIGINT NOT NULL,
+    type VARCHAR(20) NOT NULL CHECK (type IN ('PLACED', 'CANCELLED', 'DELIVERED')),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS sales_daily (
+    sales_date DATE PRIMARY KEY,
+    orders BIGINT NOT NULL DEFAULT 0,
+    units BIGINT NOT NULL DEFAULT 0,
+    revenue DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    discounts DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    cancelled_orders BIGINT NOT NULL DEFAULT 0,
+    cancelled_units BIGINT NOT NULL DEFAULT 0,
+    cancelled_revenue DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    cancelled_discounts DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    delivered_orders BIGINT NOT NULL DEFAULT 0,
+    delivered_units BIGINT NOT NULL DEFAULT 0,
+    delivered_revenue DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    delivered_discounts DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS sales_daily_product (
+    sales_date DATE NOT NULL,
+    product_id BIGINT NOT NULL,
+    category_id BIGINT NOT NULL,
+    orders BIGINT NOT NULL DEFAULT 0,
+    units BIGINT NOT NULL DEFAULT 0,
+    revenue DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    cancelled_orders BIGINT NOT NULL DEFAULT 0,
+    cancelled_units BIGINT NOT NULL DEFAULT 0,
+    cancelled_revenue DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    delivered_orders BIGINT NOT NULL DEFAULT 0,
+    delivered_units BIGINT NOT NULL DEFAULT 0,
+    delivered_revenue DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (sales_date, product_id)
+);
+
+CREATE TABLE IF NOT EXISTS sales_daily_category (
+    sales_date DATE NOT NULL,
+    category_id BIGINT NOT NULL,
+    orders BIGINT NOT NULL DEFAULT 0,
+    units BIGINT NOT NULL DEFAULT 0,
+    revenue DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    cancelled_orders BIGINT NOT NULL DEFAULT 0,
+    cancelled_units BIGINT NOT NULL DEFAULT 0,
+    cancelled_revenue DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    delivered_orders BIGINT NOT NULL DEFAULT 0,
+    delivered_units BIGINT NOT NULL DEFAULT 0,
+    delivered_revenue DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (sales_date, category_id)
+);
+
+-- Pooled sequence ids (allocationSize = 50), like the other tables
+ALTER SEQUENCE sales_rollup_events_id_seq INCREMENT BY 50;
+
+-- Verify
+-- Expect: Index Scan using sales_daily_pkey, about 30 rows
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM sales_daily
+WHERE sales_date BETWEEN CURRENT_DATE - 29 AND CURRENT_DATE
+ORDER BY sales_date;
+
+-- Expect: Index Scan using sales_daily_product_pkey -> HashAggregate -> Sort (top-N)
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT s.product_id, p.name, SUM(s.revenue) - SUM(s.cancelled_revenue) AS net_revenue
+FROM sales_daily_product s
+JOIN products p ON p.id = s.product_id
+WHERE s.sales_date BETWEEN CURRENT_DATE - 29 AND CURRENT_DATE
+GROUP BY s.product_id, p.name
+ORDER BY net_revenue DESC
+LIMIT 20;
+
+-- Rollup health: pending events should stay near zero
+SELECT COUNT(*) AS pending_events, MIN(created_at) AS oldest_pending
+FROM sales_rollup_events;
@@ -9,8 +9,18 @@
 -- ============================================================
 
 -- Drop tables if they exist (for clean reinstall)
+DROP TABLE IF EXISTS sales_rollup_events CASCADE;
+DROP TABLE IF EXISTS sales_daily_category CASCADE;
+DROP TABLE IF EXISTS sales_daily_product CASCADE;
+DROP TABLE IF EXISTS sales_daily CASCADE;
 DROP TABLE IF EXISTS notifications CASCADE;
+DROP TABLE IF EXISTS review_helpful_counter_shards CASCADE;
+DROP TABLE IF EXISTS review_helpful_votes CASCADE;
+DROP TABLE IF EXISTS product_rating_stats CASCADE;
+DROP TABLE IF EXISTS user_purchased_products CASCADE;
 DROP TABLE IF EXISTS reviews CASCADE;
+DROP TABLE IF EXISTS order_items_archive CASCADE;
+DROP TABLE IF EXISTS orders_archive CASCADE;
 DROP TABLE IF EXISTS order_items CASCADE;
 DROP TABLE IF EXISTS orders CASCADE;
 DROP TABLE IF EXISTS cart_items CASCADE;
@@ -41,6 +51,7 @@ CREATE TABLE users (
     username VARCHAR(50) NOT NULL UNIQUE,
     password VARCHAR(120) NOT NULL,  -- BCrypt hashed password
     email VARCHAR(100) NOT NULL UNIQUE,
+    token_version INTEGER NOT NULL DEFAULT 0,  -- bumped to revoke all of the user's JWTs
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
@@ -48,6 +59,7 @@ CREATE TABLE users (
 -- Index for faster lookups
 CREATE INDEX idx_users_username ON users(username);
 CREATE INDEX idx_users_email ON users(email);
+CREATE INDEX idx_users_created ON users(created_at);
 
 -- ============================================================
 -- Table: user_roles
@@ -107,6 +119,8 @@ CREATE TABLE inventory (
 CREATE TABLE carts (
     id BIGSERIAL PRIMARY KEY,
     user_id BIGINT NOT NULL UNIQUE REFERENCES users(id) ON DELETE CASCADE,
+    subtotal DECIMAL(12, 2) NOT NULL DEFAULT 0,   -- running total, maintained by the backend
+    item_count INTEGER NOT NULL DEFAULT 0,         -- number of distinct products
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
@@ -124,6 +138,9 @@ CREATE TABLE cart_items (
     UNIQUE(cart_id, product_id)  -- One product per cart (update quantity instead)
 );
 
+-- Abandoned cart purge walks carts in (updated_at, id) order
+CREATE INDEX idx_carts_updated_at_id ON carts(updated_at, id);
+
 -- ============================================================
 -- Table: orders
 -- Purpose: Store customer orders
@@ -140,8 +157,11 @@ CREATE TABLE orders (
 );
 
 -- Indexes for faster queries
-CREATE INDEX idx_orders_user ON orders(user_id);
-CREATE INDEX idx_orders_status ON orders(status);
+-- Composite indexes serve the admin order search (filter + newest-first order)
+-- and also cover plain lookups by user_id or status
+CREATE INDEX idx_orders_status_created ON orders(status, created_at);
+-- Also serves the customer order history (newest first, no sort step)
+CREATE INDEX idx_orders_user_created_desc ON orders(user_id, created_at DESC, id DESC);
 CREATE INDEX idx_orders_created ON orders(created_at DESC);
 
 -- ============================================================
@@ -159,6 +179,36 @@ CREATE TABLE order_items (
 
 -- Index for faster order item lookups
 CREATE INDEX idx_order_items_order ON order_items(order_id);
+-- Admin order search by product
+CREATE INDEX idx_order_items_product_order ON order_items(product_id, order_id);
+
+-- ============================================================
+-- Table: orders_archive / order_items_archive
+-- Purpose: Closed (DELIVERED / CANCELLED) orders moved out of
+-- orders / order_items by the backend archive job; ids are kept
+-- ============================================================
+CREATE TABLE orders_archive (
+    id BIGINT PRIMARY KEY,
+    user_id BIGINT NOT NULL REFERENCES users(id) ON DELETE RESTRICT,
+    shipping_address TEXT NOT NULL,
+    total_price DECIMAL(10, 2) NOT NULL,
+    status VARCHAR(20) NOT NULL CHECK (status IN ('DELIVERED', 'CANCELLED')),
+    created_at TIMESTAMP NOT NULL,
+    archived_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Customer order history over archived orders
+CREATE INDEX idx_orders_archive_user_created_desc ON orders_archive(user_id, created_at DESC, id DESC);
+
+CREATE TABLE order_items_archive (
+    id BIGINT PRIMARY KEY,
+    order_id BIGINT NOT NULL REFERENCES orders_archive(id) ON DELETE CASCADE,
+    product_id BIGINT NOT NULL REFERENCES products(id) ON DELETE RESTRICT,
+    quantity INTEGER NOT NULL,
+    price_at_purchase DECIMAL(10, 2) NOT NULL
+);
+
+CREATE INDEX idx_order_items_archive_order ON order_items_archive(order_id);
 
 -- ============================================================
 -- Table: reviews
@@ -171,13 +221,68 @@ CREATE TABLE reviews (
     rating INTEGER NOT NULL CHECK (rating BETWEEN 1 AND 5),
     comment TEXT,
     is_verified_purchase BOOLEAN NOT NULL DEFAULT FALSE,
+    helpful_count BIGINT NOT NULL DEFAULT 0,  -- merged from review_helpful_counter_shards
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     UNIQUE(product_id, user_id)  -- One review per user per product
 );
 
 -- Indexes for faster queries
-CREATE INDEX idx_reviews_product ON reviews(product_id);
 CREATE INDEX idx_reviews_rating ON reviews(rating);
+CREATE INDEX idx_reviews_product_created_desc ON reviews(product_id, created_at DESC, id DESC);
+CREATE INDEX idx_reviews_product_rating_created_desc ON reviews(product_id, rating, created_at DESC, id DESC);
+CREATE INDEX idx_reviews_product_helpful_desc ON reviews(product_id, helpful_count DESC, id DESC);
+
+-- ============================================================
+-- Table: review_helpful_votes
+-- Purpose: "Was this review helpful" votes, one per user
+-- ============================================================
+CREATE TABLE review_helpful_votes (
+    review_id BIGINT NOT NULL REFERENCES reviews(id) ON DELETE CASCADE,
+    user_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (review_id, user_id)
+);
+
+-- ============================================================
+-- Table: review_helpful_counter_shards
+-- Purpose: Pending helpful vote counts, spread over a few rows
+-- per review and merged into reviews.helpful_count
+-- ============================================================
+CREATE TABLE review_helpful_counter_shards (
+    review_id BIGINT NOT NULL REFERENCES reviews(id) ON DELETE CASCADE,
+    shard INTEGER NOT NULL,
+    delta BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (review_id, shard)
+);
+
+-- ============================================================
+-- Table: product_rating_stats
+-- Purpose: Review count, rating sum and star histogram per
+-- product, maintained with each review write
+-- ============================================================
+CREATE TABLE product_rating_stats (
+    product_id BIGINT PRIMARY KEY REFERENCES products(id) ON DELETE CASCADE,
+    review_count BIGINT NOT NULL DEFAULT 0,
+    rating_sum BIGINT NOT NULL DEFAULT 0,
+    stars_1 BIGINT NOT NULL DEFAULT 0,
+    stars_2 BIGINT NOT NULL DEFAULT 0,
+    stars_3 BIGINT NOT NULL DEFAULT 0,
+    stars_4 BIGINT NOT NULL DEFAULT 0,
+    stars_5 BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- ============================================================
+-- Table: user_purchased_products
+-- Purpose: Products each user has received (delivered orders),
+-- used to verify purchases for reviews
+-- ============================================================
+CREATE TABLE user_purchased_products (
+    user_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    product_id BIGINT NOT NULL REFERENCES products(id) ON DELETE CASCADE,
+    first_delivered_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (user_id, product_id)
+);
 
 -- ============================================================
 -- Table: vouchers
@@ -214,6 +319,86 @@ CREATE INDEX idx_notifications_user ON notifications(user_id);
 CREATE INDEX idx_notifications_read ON notifications(is_read);
 CREATE INDEX idx_notifications_created ON notifications(created_at DESC);
 
+-- ============================================================
+-- Tables: sales_daily / sales_daily_product / sales_daily_category
+-- Purpose: Daily revenue rollups (by UTC order date) maintained by
+-- the backend from sales_rollup_events; read by the admin analytics
+-- ============================================================
+CREATE TABLE sales_rollup_events (
+    id BIGSERIAL PRIMARY KEY,
+    order_id BIGINT NOT NULL,
+    type VARCHAR(20) NOT NULL CHECK (type IN ('PLACED', 'CANCELLED', 'DELIVERED')),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE sales_daily (
+    sales_date DATE PRIMARY KEY,
+    orders BIGINT NOT NULL DEFAULT 0,
+    units BIGINT NOT NULL DEFAULT 0,
+    revenue DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    discounts DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    cancelled_orders BIGINT NOT NULL DEFAULT 0,
+    cancelled_units BIGINT NOT NULL DEFAULT 0,
+    cancelled_revenue DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    cancelled_discounts DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    delivered_orders BIGINT NOT NULL DEFAULT 0,
+    delivered_units BIGINT NOT NULL DEFAULT 0,
+    delivered_revenue DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    delivered_discounts DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE sales_daily_product (
+    sales_date DATE NOT NULL,
+    product_id BIGINT NOT NULL,
+    category_id BIGINT NOT NULL,
+    orders BIGINT NOT NULL DEFAULT 0,
+    units BIGINT NOT NULL DEFAULT 0,
+    revenue DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    cancelled_orders BIGINT NOT NULL DEFAULT 0,
+    cancelled_units BIGINT NOT NULL DEFAULT 0,
+    cancelled_revenue DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    delivered_orders BIGINT NOT NULL DEFAULT 0,
+    delivered_units BIGINT NOT NULL DEFAULT 0,
+    delivered_revenue DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (sales_date, product_id)
+);
+
+CREATE TABLE sales_daily_category (
+    sales_date DATE NOT NULL,
+    category_id BIGINT NOT NULL,
+    orders BIGINT NOT NULL DEFAULT 0,
+    units BIGINT NOT NULL DEFAULT 0,
+    revenue DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    cancelled_orders BIGINT NOT NULL DEFAULT 0,
+    cancelled_units BIGINT NOT NULL DEFAULT 0,
+    cancelled_revenue DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    delivered_orders BIGINT NOT NULL DEFAULT 0,
+    delivered_units BIGINT NOT NULL DEFAULT 0,
+    delivered_revenue DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (sales_date, category_id)
+);
+
+-- ============================================================
+-- Sequence allocation
+-- ============================================================
+-- The backend uses pooled sequence ids (allocationSize = 50) so that
+-- Hibernate can batch INSERTs. Sequence increments must match.
+ALTER SEQUENCE users_id_seq INCREMENT BY 50;
+ALTER SEQUENCE categories_id_seq INCREMENT BY 50;
+ALTER SEQUENCE products_id_seq INCREMENT BY 50;
+ALTER SEQUENCE inventory_id_seq INCREMENT BY 50;
+ALTER SEQUENCE carts_id_seq INCREMENT BY 50;
+ALTER SEQUENCE cart_items_id_seq INCREMENT BY 50;
+ALTER SEQUENCE orders_id_seq INCREMENT BY 50;
+ALTER SEQUENCE order_items_id_seq INCREMENT BY 50;
+ALTER SEQUENCE reviews_id_seq INCREMENT BY 50;
+ALTER SEQUENCE vouchers_id_seq INCREMENT BY 50;
+ALTER SEQUENCE notifications_id_seq INCREMENT BY 50;
+ALTER SEQUENCE sales_rollup_events_id_seq INCREMENT BY 50;
+
 -- ============================================================
 -- Functions and Triggers
 -- ============================================================
@@ -0,0 +1,26 @@
+-- ============================================================
+-- Token versions (JWT revocation)
+-- ============================================================
+-- JWTs now carry the user ID, roles and the user's token
+-- version, and requests are authenticated from the token alone
+-- (no users / user_roles lookup). Bumping users.token_version
+-- revokes every token issued to that user before; this happens
+-- on logout (POST /api/auth/logout) and on
+-- POST /api/admin/users/{id}/revoke-tokens, which should be
+-- called after changing a user's roles.
+--
+-- The lookup is by primary key and only on a cache miss, so no
+-- new index is needed. Tokens issued before this change have no
+-- version and keep working (with a user lookup) until they
+-- expire.
+--
+-- Run this in Supabase SQL Editor before deploying the new
+-- backend.
+-- ============================================================
+
+ALTER TABLE users ADD COLUMN IF NOT EXISTS token_version INTEGER NOT NULL DEFAULT 0;
+
+-- Verify
+-- Expect: Index Scan using users_pkey
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT token_version FROM users WHERE id = 1;
@@ -0,0 +1,67 @@
+-- ============================================================
+-- Purchase verification for reviews
+-- ============================================================
+-- Creating a review checked the user's orders (live and
+-- archived) for one containing the product. The backend now
+-- records each user / product pair once, when an order
+-- containing it is marked DELIVERED, and review eligibility is
+-- a primary key lookup in user_purchased_products. Rows stay
+-- when orders are archived.
+--
+-- Orders have no delivery timestamp, so the backfill uses the
+-- earliest delivered order's creation time as
+-- first_delivered_at. Only DELIVERED orders count: a SHIPPED
+-- order's products become reviewable once it is delivered.
+--
+-- Run this in Supabase SQL Editor before deploying the new
+-- backend. The backfill is idempotent; re-run it after the
+-- deploy to pick up orders delivered in between.
+-- ============================================================
+
+CREATE TABLE IF NOT EXISTS user_purchased_products (
+    user_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    product_id BIGINT NOT NULL REFERENCES products(id) ON DELETE CASCADE,
+    first_delivered_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (user_id, product_id)
+);
+
+-- Backfill from live and archived delivered orders
+INSERT INTO user_purchased_products (user_id, product_id, first_delivered_at)
+SELECT o.user_id, oi.product_id, MIN(o.created_at)
+FROM (SELECT id, user_id, created_at FROM orders WHERE status = 'DELIVERED'
+      UNION ALL
+      SELECT id, user_id, created_at FROM orders_archive WHERE status = 'DELIVERED') o
+JOIN (SELECT order_id, product_id FROM order_items
+      UNION ALL
+      SELECT order_id, product_id FROM order_items_archive) oi ON oi.order_id = o.id
+JOIN products p ON p.id = oi.product_id
+GROUP BY o.user_id, oi.product_id
+ON CONFLICT (user_id, product_id) DO NOTHING;
+
+-- Verify
+-- Every delivered pair is recorded (expect 0)
+SELECT COUNT(*) AS missing
+FROM orders o
+JOIN order_items oi ON oi.order_id = o.id
+WHERE o.status = 'DELIVERED'
+  AND NOT EXISTS (SELECT 1 FROM user_purchased_products upp
+                  WHERE upp.user_id = o.user_id AND upp.product_id = oi.product_id);
+
+-- Benchmark: the user with the most orders, old check vs new lookup.
+-- With ~1,000 orders the old check scans all of the user's orders
+-- and their items; the new one reads one index page.
+-- Expect: Index Only Scan using user_purchased_products_pkey
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT EXISTS (SELECT 1 FROM user_purchased_products
+               WHERE user_id = (SELECT user_id FROM orders GROUP BY user_id ORDER BY COUNT(*) DESC LIMIT 1)
+                 AND product_id = (SELECT MIN(id) FROM products));
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT EXISTS (SELECT 1 FROM orders o JOIN order_items oi ON oi.order_id = o.id
+               WHERE o.user_id = (SELECT user_id FROM orders GROUP BY user_id ORDER BY COUNT(*) DESC LIMIT 1)
+                 AND oi.product_id = (SELECT MIN(id) FROM products)
+                 AND o.status IN ('SHIPPED', 'DELIVERED'))
+    OR EXISTS (SELECT 1 FROM orders_archive o JOIN order_items_archive oi ON oi.order_id = o.id
+               WHERE o.user_id = (SELECT user_id FROM orders GROUP BY user_id ORDER BY COUNT(*) DESC LIMIT 1)
+                 AND oi.product_id = (SELECT MIN(id) FROM products)
+                 AND o.status = 'DELIVERED');
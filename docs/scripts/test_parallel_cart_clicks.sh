@@ -0,0 +1,64 @@
+#!/bin/bash
+
+# Fires concurrent "add to cart" requests for the same product from a fresh
+# account and checks that they end up as ONE cart line with the summed quantity.
+# Before the upsert fix, parallel clicks could create duplicate cart_items rows
+# and the first cart creation could fail on the unique carts.user_id constraint.
+
+BASE_URL=${BASE_URL:-http://localhost:8080}
+CLICKS=${CLICKS:-20}
+PRODUCT_ID=${PRODUCT_ID:-1}
+USERNAME="parallel_$(date +%s)"
+
+echo "=== Testing Parallel Add-To-Cart Clicks ==="
+echo
+
+# Register and login a fresh user (no cart exists yet)
+echo "1. Registering $USERNAME..."
+curl -s -X POST "$BASE_URL/api/auth/register" \
+  -H "Content-Type: application/json" \
+  -d "{\"username\":\"$USERNAME\",\"email\":\"$USERNAME@test.com\",\"password\":\"password123\"}" > /dev/null
+
+TOKEN=$(curl -s -X POST "$BASE_URL/api/auth/login" \
+  -H "Content-Type: application/json" \
+  -d "{\"username\":\"$USERNAME\",\"password\":\"password123\"}" | python3 -c "import sys,json; print(json.load(sys.stdin)['token'])")
+
+if [ -z "$TOKEN" ]; then
+  echo "Login failed"
+  exit 1
+fi
+echo "   Token obtained: ${TOKEN:0:20}..."
+echo
+
+# Fire all clicks at once
+echo "2. Sending $CLICKS parallel add requests for product $PRODUCT_ID..."
+for i in $(seq 1 "$CLICKS"); do
+  curl -s -o /dev/null -w "%{http_code}\n" -X POST "$BASE_URL/api/cart/items" \
+    -H "Authorization: Bearer $TOKEN" \
+    -H "Content-Type: application/json" \
+    -d "{\"productId\":$PRODUCT_ID,\"quantity\":1}" &
+done | sort | uniq -c
+wait
+echo
+
+# Check the cart
+echo "3. Verifying cart..."
+RESULT=$(curl -s "$BASE_URL/api/cart" -H "Authorization: Bearer $TOKEN" | python3 -c "
+import sys, json
+cart = json.load(sys.stdin)
+lines = [i for i in cart['items'] if i['productId'] == $PRODUCT_ID]
+print(len(lines), sum(i['quantity'] for i in lines))
+")
+LINES=$(echo "$RESULT" | cut -d' ' -f1)
+QUANTITY=$(echo "$RESULT" | cut -d' ' -f2)
+
+echo "   Lines for product: $LINES"
+echo "   Total quantity:    $QUANTITY"
+echo
+
+if [ "$LINES" = "1" ] && [ "$QUANTITY" = "$CLICKS" ]; then
+  echo "✅ SUCCESS: $CLICKS parallel clicks produced one line with quantity $CLICKS"
+else
+  echo "❌ FAILED: expected 1 line with quantity $CLICKS"
+  exit 1
+fi
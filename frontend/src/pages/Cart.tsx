@@ -60,7 +60,7 @@ export default function Cart() {
   }
 
   const handleCheckout = () => {
-    if (!cart || cart.cart.items.length === 0) {
+    if (!cart || cart.items.length === 0) {
       alert('Your cart is empty')
       return
     }
@@ -95,7 +95,7 @@ export default function Cart() {
     )
   }
 
-  const isEmpty = !cart || cart.cart.items.length === 0
+  const isEmpty = !cart || cart.items.length === 0
 
   return (
     <div className="container mx-auto px-4 py-8">
@@ -119,16 +119,16 @@ export default function Cart() {
         <div className="grid lg:grid-cols-3 gap-8">
           {/* Cart Items */}
           <div className="lg:col-span-2 space-y-4">
-            {cart.cart.items.map((item) => (
-              <Card key={item.product.id}>
+            {cart.items.map((item) => (
+              <Card key={item.productId}>
                 <CardContent className="p-6">
                   <div className="flex gap-4">
                     {/* Product Image */}
                     <div className="w-24 h-24 flex-shrink-0 overflow-hidden rounded-md bg-muted">
-                      {item.product.imageUrl ? (
+                      {item.imageUrl ? (
                         <img
-                          src={item.product.imageUrl}
-                          alt={item.product.name}
+                          src={item.imageUrl}
+                          alt={item.productName}
                           className="h-full w-full object-cover"
                         />
                       ) : (
@@ -140,17 +140,22 @@ export default function Cart() {
 
                     {/* Product Info */}
                     <div className="flex-1 min-w-0">
-                      <Link to={`/products/${item.product.id}`}>
+                      <Link to={`/products/${item.productId}`}>
                         <h3 className="font-semibold hover:text-primary transition-colors">
-                          {item.product.name}
+                          {item.productName}
                         </h3>
                       </Link>
                       <p className="text-sm text-muted-foreground mt-1">
-                        {item.product.categoryName}
+                        {item.categoryName}
                       </p>
                       <p className="text-lg font-bold mt-2">
-                        ${item.product.price.toFixed(2)}
+                        ${item.unitPrice.toFixed(2)}
                       </p>
+                      {!item.available && (
+                        <p className="text-sm text-destructive mt-1">
+                          {item.inStock ? `Only ${item.availableStock} left in stock` : 'Out of stock'}
+                        </p>
+                      )}
                     </div>
 
                     {/* Quantity Controls */}
@@ -160,8 +165,8 @@ export default function Cart() {
                           variant="outline"
                           size="icon"
                           className="h-8 w-8"
-                          onClick={() => handleUpdateQuantity(item.product.id, item.quantity - 1)}
-                          disabled={updatingItem === item.product.id || item.quantity <= 1}
+                          onClick={() => handleUpdateQuantity(item.productId, item.quantity - 1)}
+                          disabled={updatingItem === item.productId || item.quantity <= 1}
                         >
                           -
                         </Button>
@@ -169,16 +174,16 @@ export default function Cart() {
                           type="number"
                           min="1"
                           value={item.quantity}
-                          onChange={(e) => handleUpdateQuantity(item.product.id, parseInt(e.target.value) || 1)}
+                          onChange={(e) => handleUpdateQuantity(item.productId, parseInt(e.target.value) || 1)}
                           className="w-16 h-8 text-center"
-                          disabled={updatingItem === item.product.id}
+                          disabled={updatingItem === item.productId}
                         />
                         <Button
                           variant="outline"
                           size="icon"
                           className="h-8 w-8"
-                          onClick={() => handleUpdateQuantity(item.product.id, item.quantity + 1)}
-                          disabled={updatingItem === item.product.id}
+                          onClick={() => handleUpdateQuantity(item.productId, item.quantity + 1)}
+                          disabled={updatingItem === item.productId}
                         >
                           +
                         </Button>
@@ -186,14 +191,14 @@ export default function Cart() {
 
                       <div className="flex items-center gap-4">
                         <p className="text-sm font-semibold">
-                          Subtotal: ${(item.product.price * item.quantity).toFixed(2)}
+                          Subtotal: ${item.lineTotal.toFixed(2)}
                         </p>
                         <Button
                           variant="ghost"
                           size="icon"
                           className="h-8 w-8 text-destructive hover:text-destructive"
-                          onClick={() => handleRemoveItem(item.product.id)}
-                          disabled={removingItem === item.product.id}
+                          onClick={() => handleRemoveItem(item.productId)}
+                          disabled={removingItem === item.productId}
                         >
                           <Trash2 className="h-4 w-4" />
                         </Button>
@@ -227,7 +232,7 @@ export default function Cart() {
               <CardContent className="space-y-4">
                 <div className="flex justify-between">
                   <span className="text-muted-foreground">Items ({cart.itemCount})</span>
-                  <span>${cart.total.toFixed(2)}</span>
+                  <span>${cart.subtotal.toFixed(2)}</span>
                 </div>
                 <div className="flex justify-between">
                   <span className="text-muted-foreground">Shipping</span>
@@ -236,7 +241,7 @@ export default function Cart() {
                 <div className="border-t pt-4">
                   <div className="flex justify-between text-lg font-bold">
                     <span>Total</span>
-                    <span>${cart.total.toFixed(2)}</span>
+                    <span>${cart.subtotal.toFixed(2)}</span>
                   </div>
                 </div>
               </CardContent>
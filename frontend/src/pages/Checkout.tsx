@@ -35,7 +35,7 @@ export default function Checkout() {
       return
     }
 
-    if (!cart || cart.cart.items.length === 0) {
+    if (!cart || cart.items.length === 0) {
       setError('Your cart is empty')
       return
     }
@@ -57,7 +57,7 @@ export default function Checkout() {
     return null
   }
 
-  if (!cart || cart.cart.items.length === 0) {
+  if (!cart || cart.items.length === 0) {
     return (
       <div className="container mx-auto px-4 py-8">
         <div className="text-center py-12">
@@ -152,14 +152,14 @@ export default function Checkout() {
             <CardContent className="space-y-4">
               {/* Cart Items */}
               <div className="space-y-3">
-                {cart.cart.items.map((item) => (
-                  <div key={item.product.id} className="flex justify-between text-sm">
+                {cart.items.map((item) => (
+                  <div key={item.productId} className="flex justify-between text-sm">
                     <div className="flex-1">
-                      <p className="font-medium">{item.product.name}</p>
+                      <p className="font-medium">{item.productName}</p>
                       <p className="text-muted-foreground">Qty: {item.quantity}</p>
                     </div>
                     <p className="font-medium">
-                      ${(item.product.price * item.quantity).toFixed(2)}
+                      ${item.lineTotal.toFixed(2)}
                     </p>
                   </div>
                 ))}
@@ -168,7 +168,7 @@ export default function Checkout() {
               <div className="border-t pt-4 space-y-2">
                 <div className="flex justify-between">
                   <span className="text-muted-foreground">Subtotal</span>
-                  <span>${cart.total.toFixed(2)}</span>
+                  <span>${cart.subtotal.toFixed(2)}</span>
                 </div>
                 <div className="flex justify-between">
                   <span className="text-muted-foreground">Shipping</span>
@@ -183,7 +183,7 @@ export default function Checkout() {
               <div className="border-t pt-4">
                 <div className="flex justify-between text-lg font-bold">
                   <span>Total</span>
-                  <span>${cart.total.toFixed(2)}</span>
+                  <span>${cart.subtotal.toFixed(2)}</span>
                 </div>
               </div>
             </CardContent>
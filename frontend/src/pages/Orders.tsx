@@ -6,13 +6,13 @@ import { Button } from '@/components/ui/button'
 import { Card, CardContent, CardHeader, CardTitle } from '@/components/ui/card'
 import { Badge } from '@/components/ui/badge'
 import { Package, ChevronLeft, ChevronRight } from 'lucide-react'
-import type { Order, PaginatedResponse } from '@/types'
+import type { OrderHistory, PaginatedResponse } from '@/types'
 
 export default function Orders() {
   const navigate = useNavigate()
   const { isAuthenticated } = useAuthStore()
 
-  const [orders, setOrders] = useState<Order[]>([])
+  const [orders, setOrders] = useState<OrderHistory[]>([])
   const [pagination, setPagination] = useState({
     currentPage: 0,
     totalPages: 0,
@@ -35,7 +35,7 @@ export default function Orders() {
     setIsLoading(true)
     setError(null)
     try {
-      const response: PaginatedResponse<Order> = await orderService.getMyOrders({ page, size })
+      const response: PaginatedResponse<OrderHistory> = await orderService.getMyOrders({ page, size })
       setOrders(response.content)
       setPagination({
         currentPage: response.number,
@@ -148,15 +148,15 @@ export default function Orders() {
                     <div className="space-y-2">
                       {(order.items || []).map((item) => (
                         <div
-                          key={item.product.id}
+                          key={item.id}
                           className="flex items-center justify-between py-2 px-3 bg-muted rounded"
                         >
                           <div className="flex items-center gap-3">
                             <div className="w-12 h-12 rounded bg-background flex items-center justify-center overflow-hidden">
-                              {item.product.imageUrl ? (
+                              {item.imageUrl ? (
                                 <img
-                                  src={item.product.imageUrl}
-                                  alt={item.product.name}
+                                  src={item.imageUrl}
+                                  alt={item.productName}
                                   className="w-full h-full object-cover"
                                 />
                               ) : (
@@ -164,14 +164,14 @@ export default function Orders() {
                               )}
                             </div>
                             <div>
-                              <p className="font-medium">{item.product.name}</p>
+                              <p className="font-medium">{item.productName}</p>
                               <p className="text-sm text-muted-foreground">
-                                Qty: {item.quantity} × ${item.price.toFixed(2)}
+                                Qty: {item.quantity} × ${item.priceAtPurchase.toFixed(2)}
                               </p>
                             </div>
                           </div>
                           <p className="font-semibold">
-                            ${(item.quantity * item.price).toFixed(2)}
+                            ${item.lineTotal.toFixed(2)}
                           </p>
                         </div>
                       ))}
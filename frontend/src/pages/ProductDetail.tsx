@@ -8,10 +8,10 @@ import { Button } from '@/components/ui/button'
 import { Input } from '@/components/ui/input'
 import { Card, CardContent, CardHeader, CardTitle } from '@/components/ui/card'
 import { Badge } from '@/components/ui/badge'
-import { ArrowLeft, ShoppingCart, Star } from 'lucide-react'
+import { ArrowLeft, ShoppingCart, Star, ThumbsUp } from 'lucide-react'
 import ReviewForm from '@/components/ReviewForm'
 import MediaGallery from '@/components/MediaGallery'
-import type { Review, ProductRating, ProductMedia } from '@/types'
+import type { ReviewListItem, ProductRating, ProductMedia } from '@/types'
 
 export default function ProductDetail() {
   const { id } = useParams<{ id: string }>()
@@ -21,7 +21,11 @@ export default function ProductDetail() {
   const { addToCart } = useCartStore()
 
   const [quantity, setQuantity] = useState(1)
-  const [reviews, setReviews] = useState<Review[]>([])
+  const [reviews, setReviews] = useState<ReviewListItem[]>([])
+  const [nextCursor, setNextCursor] = useState<string | null>(null)
+  const [ratingFilter, setRatingFilter] = useState<number | undefined>(undefined)
+  const [reviewSort, setReviewSort] = useState<'NEWEST' | 'HELPFUL'>('NEWEST')
+  const [helpfulVotes, setHelpfulVotes] = useState<Set<number>>(new Set())
   const [rating, setRating] = useState<ProductRating | null>(null)
   const [productMedia, setProductMedia] = useState<ProductMedia[]>([])
   const [addingToCart, setAddingToCart] = useState(false)
@@ -31,18 +35,30 @@ export default function ProductDetail() {
   useEffect(() => {
     if (id) {
       fetchProductById(Number(id))
-      loadReviews()
       loadRating()
       loadMedia()
     }
   }, [id, fetchProductById])
 
-  const loadReviews = async () => {
+  useEffect(() => {
+    if (id) {
+      loadReviews()
+    }
+  }, [id, ratingFilter, reviewSort])
+
+  // Loads the first page, or the next one when a cursor is given
+  const loadReviews = async (cursor?: string) => {
     if (!id) return
     setLoadingReviews(true)
     try {
-      const response = await reviewService.getProductReviews(Number(id))
-      setReviews(response.content)
+      const feed = await reviewService.getReviewFeed(Number(id), {
+        cursor,
+        size: 10,
+        rating: ratingFilter,
+        sort: reviewSort,
+      })
+      setReviews((previous) => (cursor ? [...previous, ...feed.reviews] : feed.reviews))
+      setNextCursor(feed.nextCursor)
     } catch (error) {
       console.error('Failed to load reviews:', error)
     } finally {
@@ -50,6 +66,28 @@ export default function ProductDetail() {
     }
   }
 
+  const toggleHelpful = async (reviewId: number) => {
+    try {
+      const result = helpfulVotes.has(reviewId)
+        ? await reviewService.withdrawHelpful(reviewId)
+        : await reviewService.voteHelpful(reviewId)
+      setHelpfulVotes((previous) => {
+        const next = new Set(previous)
+        if (result.voted) {
+          next.add(reviewId)
+        } else {
+          next.delete(reviewId)
+        }
+        return next
+      })
+      setReviews((previous) =>
+        previous.map((r) => (r.id === reviewId ? { ...r, helpfulCount: result.helpfulCount } : r))
+      )
+    } catch (error) {
+      console.error('Failed to vote on review:', error)
+    }
+  }
+
   const loadRating = async () => {
     if (!id) return
     try {
@@ -169,6 +207,24 @@ export default function ProductDetail() {
             </div>
           )}
 
+          {/* Star histogram */}
+          {rating && rating.totalReviews > 0 && (
+            <div className="space-y-1 mb-6 max-w-xs">
+              {([5, 4, 3, 2, 1] as const).map((stars) => (
+                <div key={stars} className="flex items-center gap-2 text-xs text-muted-foreground">
+                  <span className="w-6">{stars}★</span>
+                  <div className="flex-1 h-2 bg-gray-200 rounded">
+                    <div
+                      className="h-2 bg-yellow-400 rounded"
+                      style={{ width: `${(rating.histogram[stars] / rating.totalReviews) * 100}%` }}
+                    />
+                  </div>
+                  <span className="w-8 text-right">{rating.histogram[stars]}</span>
+                </div>
+              ))}
+            </div>
+          )}
+
           <p className="text-3xl font-bold mb-6">${currentProduct.price.toFixed(2)}</p>
 
           <p className="text-muted-foreground mb-6">{currentProduct.description}</p>
@@ -225,7 +281,7 @@ export default function ProductDetail() {
         <h2 className="text-2xl font-bold mb-6">Customer Reviews</h2>
 
         {/* Review Submission Form - Only show if authenticated and haven't reviewed */}
-        {isAuthenticated && user && currentProduct && !reviews.some(r => r.user.username === user.username) && (
+        {isAuthenticated && user && currentProduct && !reviews.some(r => r.authorName === user.username) && (
           <ReviewForm
             productId={currentProduct.id}
             productName={currentProduct.name}
@@ -238,7 +294,7 @@ export default function ProductDetail() {
         )}
 
         {/* Notice if user already reviewed */}
-        {isAuthenticated && user && reviews.some(r => r.user.username === user.username) && (
+        {isAuthenticated && user && reviews.some(r => r.authorName === user.username) && (
           <div className="bg-blue-50 text-blue-700 px-4 py-3 rounded mb-6">
             You have already reviewed this product. Thank you for your feedback!
           </div>
@@ -251,10 +307,34 @@ export default function ProductDetail() {
           </div>
         )}
 
-        {loadingReviews ? (
+        {/* Star filter */}
+        <div className="flex flex-wrap gap-2 mb-4">
+          {[undefined, 5, 4, 3, 2, 1].map((stars) => (
+            <Button
+              key={stars ?? 'all'}
+              size="sm"
+              variant={ratingFilter === stars ? 'default' : 'outline'}
+              onClick={() => setRatingFilter(stars)}
+            >
+              {stars ? `${stars}★` : 'All'}
+            </Button>
+          ))}
+          <select
+            className="ml-auto border rounded px-2 text-sm"
+            value={reviewSort}
+            onChange={(e) => setReviewSort(e.target.value as 'NEWEST' | 'HELPFUL')}
+          >
+            <option value="NEWEST">Newest</option>
+            <option value="HELPFUL">Most helpful</option>
+          </select>
+        </div>
+
+        {loadingReviews && reviews.length === 0 ? (
           <p className="text-muted-foreground">Loading reviews...</p>
         ) : reviews.length === 0 ? (
-          <p className="text-muted-foreground">No reviews yet. Be the first to review this product!</p>
+          <p className="text-muted-foreground">
+            {ratingFilter ? 'No reviews with this rating.' : 'No reviews yet. Be the first to review this product!'}
+          </p>
         ) : (
           <div className="space-y-4">
             {reviews.map((review) => (
@@ -262,7 +342,7 @@ export default function ProductDetail() {
                 <CardHeader>
                   <div className="flex items-center justify-between">
                     <div>
-                      <CardTitle className="text-lg">{review.user.username}</CardTitle>
+                      <CardTitle className="text-lg">{review.authorName}</CardTitle>
                       {review.isVerifiedPurchase && (
                         <Badge variant="secondary" className="mt-1">Verified Purchase</Badge>
                       )}
@@ -286,9 +366,32 @@ export default function ProductDetail() {
                 </CardHeader>
                 <CardContent>
                   <p>{review.comment}</p>
+                  <div className="flex items-center gap-2 mt-3 text-sm text-muted-foreground">
+                    {isAuthenticated && user?.username !== review.authorName && (
+                      <Button
+                        size="sm"
+                        variant={helpfulVotes.has(review.id) ? 'default' : 'outline'}
+                        onClick={() => toggleHelpful(review.id)}
+                      >
+                        <ThumbsUp className="h-4 w-4 mr-1" />
+                        Helpful
+                      </Button>
+                    )}
+                    {review.helpfulCount > 0 && <span>{review.helpfulCount} found this helpful</span>}
+                  </div>
                 </CardContent>
               </Card>
             ))}
+            {nextCursor && (
+              <Button
+                variant="outline"
+                className="w-full"
+                disabled={loadingReviews}
+                onClick={() => loadReviews(nextCursor)}
+              >
+                {loadingReviews ? 'Loading...' : 'Load more reviews'}
+              </Button>
+            )}
           </div>
         )}
       </div>
@@ -7,7 +7,7 @@ import { Button } from '@/components/ui/button'
 import { Input } from '@/components/ui/input'
 import { Card, CardContent, CardFooter, CardHeader, CardTitle } from '@/components/ui/card'
 import { Badge } from '@/components/ui/badge'
-import { Search, ShoppingCart, ChevronLeft, ChevronRight } from 'lucide-react'
+import { Search, ShoppingCart, ChevronLeft, ChevronRight, Star } from 'lucide-react'
 
 export default function Products() {
   const { isAuthenticated } = useAuthStore()
@@ -171,6 +171,12 @@ export default function Products() {
                 <CardFooter className="flex flex-col gap-2">
                   <div className="flex items-center justify-between w-full">
                     <span className="text-2xl font-bold">${product.price.toFixed(2)}</span>
+                    {!!product.reviewCount && (
+                      <span className="flex items-center gap-1 text-sm text-muted-foreground">
+                        <Star className="h-4 w-4 fill-yellow-400 text-yellow-400" />
+                        {product.averageRating?.toFixed(1)} ({product.reviewCount})
+                      </span>
+                    )}
                   </div>
                   <div className="flex gap-2 w-full">
                     <Link to={`/products/${product.id}`} className="flex-1">
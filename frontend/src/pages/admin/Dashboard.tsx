@@ -1,22 +1,20 @@
 import { useEffect, useState } from 'react'
 import { Link, useNavigate } from 'react-router-dom'
 import { useAuthStore } from '@/store/authStore'
-import { productService, orderService } from '@/services'
+import { dashboardService, salesService } from '@/services'
 import { Card, CardContent, CardHeader, CardTitle } from '@/components/ui/card'
 import { Button } from '@/components/ui/button'
-import { Package, ShoppingBag, ListOrdered, AlertTriangle } from 'lucide-react'
-import type { Product, Order } from '@/types'
+import { Package, ShoppingBag, ListOrdered, AlertTriangle, TrendingUp, DollarSign, Users, MessageSquare } from 'lucide-react'
+import type { DashboardFigure, DashboardStats, SalesDaily, SalesBreakdown } from '@/types'
 
 export default function AdminDashboard() {
   const navigate = useNavigate()
   const { user, isAuthenticated } = useAuthStore()
 
-  const [stats, setStats] = useState({
-    totalProducts: 0,
-    totalOrders: 0,
-    pendingOrders: 0,
-    lowStockProducts: 0,
-  })
+  const [stats, setStats] = useState<DashboardStats | null>(null)
+  const [dailySales, setDailySales] = useState<SalesDaily[]>([])
+  const [topProducts, setTopProducts] = useState<SalesBreakdown[]>([])
+  const [topCategories, setTopCategories] = useState<SalesBreakdown[]>([])
   const [isLoading, setIsLoading] = useState(true)
 
   useEffect(() => {
@@ -31,18 +29,17 @@ export default function AdminDashboard() {
   const loadDashboardStats = async () => {
     setIsLoading(true)
     try {
-      // Fetch products to get total count
-      const productsResponse = await productService.getProducts({ page: 0, size: 1 })
-
-      // Fetch orders to get total count
-      const ordersResponse = await orderService.getAllOrders({ page: 0, size: 1 })
-
-      setStats({
-        totalProducts: productsResponse.totalElements,
-        totalOrders: ordersResponse.totalElements,
-        pendingOrders: 0, // Would need a specific endpoint to count pending orders
-        lowStockProducts: 0, // Would need a specific endpoint for low stock
-      })
+      // Precomputed summary figures, and revenue for the last 30 days from the daily sales rollups
+      const [dashboard, daily, products, categories] = await Promise.all([
+        dashboardService.getDashboard(),
+        salesService.getDailySales(),
+        salesService.getProductSales({ limit: 5 }),
+        salesService.getCategorySales({ limit: 5 }),
+      ])
+      setStats(dashboard)
+      setDailySales(daily)
+      setTopProducts(products)
+      setTopCategories(categories)
     } catch (error) {
       console.error('Failed to load dashboard stats:', error)
     } finally {
@@ -54,6 +51,18 @@ export default function AdminDashboard() {
     return null
   }
 
+  const asOf = (figure?: DashboardFigure<unknown>) =>
+    figure?.asOf ? `as of ${new Date(figure.asOf).toLocaleTimeString()}` : ''
+
+  const ordersByStatus = stats?.ordersByStatus.value
+  const totalOrders = ordersByStatus
+    ? Object.values(ordersByStatus).reduce((sum, count) => sum + count, 0)
+    : 0
+
+  const netRevenue = dailySales.reduce((sum, day) => sum + day.revenue - day.cancelledRevenue, 0)
+  const netOrders = dailySales.reduce((sum, day) => sum + day.orders - day.cancelledOrders, 0)
+  const maxDayRevenue = Math.max(1, ...dailySales.map((day) => day.revenue - day.cancelledRevenue))
+
   return (
     <div className="container mx-auto px-4 py-8">
       <div className="mb-8">
@@ -77,9 +86,9 @@ export default function AdminDashboard() {
                 <Package className="h-4 w-4 text-muted-foreground" />
               </CardHeader>
               <CardContent>
-                <div className="text-2xl font-bold">{stats.totalProducts}</div>
+                <div className="text-2xl font-bold">{stats?.totalProducts.value ?? 0}</div>
                 <p className="text-xs text-muted-foreground mt-1">
-                  Active products in catalog
+                  Active products in catalog {asOf(stats?.totalProducts)}
                 </p>
               </CardContent>
             </Card>
@@ -90,9 +99,9 @@ export default function AdminDashboard() {
                 <ShoppingBag className="h-4 w-4 text-muted-foreground" />
               </CardHeader>
               <CardContent>
-                <div className="text-2xl font-bold">{stats.totalOrders}</div>
+                <div className="text-2xl font-bold">{totalOrders}</div>
                 <p className="text-xs text-muted-foreground mt-1">
-                  All time orders
+                  All time orders {asOf(stats?.ordersByStatus)}
                 </p>
               </CardContent>
             </Card>
@@ -103,9 +112,9 @@ export default function AdminDashboard() {
                 <ListOrdered className="h-4 w-4 text-muted-foreground" />
               </CardHeader>
               <CardContent>
-                <div className="text-2xl font-bold">{stats.pendingOrders}</div>
+                <div className="text-2xl font-bold">{ordersByStatus?.PENDING ?? 0}</div>
                 <p className="text-xs text-muted-foreground mt-1">
-                  Awaiting processing
+                  Awaiting processing {asOf(stats?.ordersByStatus)}
                 </p>
               </CardContent>
             </Card>
@@ -116,14 +125,104 @@ export default function AdminDashboard() {
                 <AlertTriangle className="h-4 w-4 text-muted-foreground" />
               </CardHeader>
               <CardContent>
-                <div className="text-2xl font-bold">{stats.lowStockProducts}</div>
+                <div className="text-2xl font-bold">{stats?.lowStockProducts.value ?? 0}</div>
+                <p className="text-xs text-muted-foreground mt-1">
+                  Products need restocking {asOf(stats?.lowStockProducts)}
+                </p>
+              </CardContent>
+            </Card>
+
+            <Card>
+              <CardHeader className="flex flex-row items-center justify-between pb-2">
+                <CardTitle className="text-sm font-medium">Today's Revenue</CardTitle>
+                <DollarSign className="h-4 w-4 text-muted-foreground" />
+              </CardHeader>
+              <CardContent>
+                <div className="text-2xl font-bold">${(stats?.revenueToday.value ?? 0).toFixed(2)}</div>
+                <p className="text-xs text-muted-foreground mt-1">
+                  {stats?.ordersToday.value ?? 0} orders today {asOf(stats?.revenueToday)}
+                </p>
+              </CardContent>
+            </Card>
+
+            <Card>
+              <CardHeader className="flex flex-row items-center justify-between pb-2">
+                <CardTitle className="text-sm font-medium">New Customers</CardTitle>
+                <Users className="h-4 w-4 text-muted-foreground" />
+              </CardHeader>
+              <CardContent>
+                <div className="text-2xl font-bold">{stats?.newUsersToday.value ?? 0}</div>
+                <p className="text-xs text-muted-foreground mt-1">
+                  Today, {stats?.newUsersLast7Days.value ?? 0} in the last 7 days {asOf(stats?.newUsersToday)}
+                </p>
+              </CardContent>
+            </Card>
+
+            <Card>
+              <CardHeader className="flex flex-row items-center justify-between pb-2">
+                <CardTitle className="text-sm font-medium">Pending Reviews</CardTitle>
+                <MessageSquare className="h-4 w-4 text-muted-foreground" />
+              </CardHeader>
+              <CardContent>
+                <div className="text-2xl font-bold">{stats?.pendingReviews.value ?? 0}</div>
                 <p className="text-xs text-muted-foreground mt-1">
-                  Products need restocking
+                  Delivered purchases not yet reviewed {asOf(stats?.pendingReviews)}
                 </p>
               </CardContent>
             </Card>
           </div>
 
+          {/* Revenue (last 30 days) */}
+          <div className="grid lg:grid-cols-3 gap-6 mb-8">
+            <Card className="lg:col-span-3">
+              <CardHeader className="flex flex-row items-center justify-between pb-2">
+                <CardTitle className="text-sm font-medium">Net Revenue (last 30 days)</CardTitle>
+                <TrendingUp className="h-4 w-4 text-muted-foreground" />
+              </CardHeader>
+              <CardContent>
+                <div className="text-2xl font-bold">${netRevenue.toFixed(2)}</div>
+                <p className="text-xs text-muted-foreground mt-1">
+                  {netOrders} orders, excluding cancellations
+                </p>
+                <div className="flex items-end gap-1 h-24 mt-4">
+                  {dailySales.map((day) => (
+                    <div
+                      key={day.salesDate}
+                      className="flex-1 bg-primary/70 rounded-t"
+                      style={{ height: `${((day.revenue - day.cancelledRevenue) / maxDayRevenue) * 100}%` }}
+                      title={`${day.salesDate}: $${(day.revenue - day.cancelledRevenue).toFixed(2)}`}
+                    />
+                  ))}
+                </div>
+              </CardContent>
+            </Card>
+
+            {[
+              { title: 'Top Products', rows: topProducts },
+              { title: 'Top Categories', rows: topCategories },
+            ].map(({ title, rows }) => (
+              <Card key={title}>
+                <CardHeader>
+                  <CardTitle className="text-sm font-medium">{title}</CardTitle>
+                </CardHeader>
+                <CardContent>
+                  {rows.length === 0 ? (
+                    <p className="text-sm text-muted-foreground">No sales in this period</p>
+                  ) : (
+                    <ul className="space-y-2">
+                      {rows.map((row) => (
+                        <li key={row.id} className="flex justify-between text-sm">
+                          <span className="truncate mr-2">{row.name ?? `#${row.id}`}</span>
+                          <span className="font-medium">${row.netRevenue.toFixed(2)}</span>
+                        </li>
+                      ))}
+                    </ul>
+                  )}
+                </CardContent>
+              </Card>
+            ))}
+          </div>
+
           {/* Quick Actions */}
           <div className="grid md:grid-cols-2 lg:grid-cols-3 gap-6">
             <Card>
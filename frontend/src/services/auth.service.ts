@@ -24,6 +24,13 @@ class AuthService {
   }
 
   logout(): void {
+    // Revoke the token server-side (all of the user's sessions); local state is cleared either way
+    const token = this.getToken()
+    if (token) {
+      api.post('/api/auth/logout', null, {
+        headers: { Authorization: `Bearer ${token}` },
+      }).catch(() => {})
+    }
     localStorage.removeItem('token')
     localStorage.removeItem('user')
   }
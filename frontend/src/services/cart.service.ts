@@ -1,5 +1,5 @@
 import api from './api'
-import type { CartResponse, AddToCartRequest, CartItem } from '@/types'
+import type { CartResponse, AddToCartRequest, CartOperation } from '@/types'
 
 class CartService {
   async getCart(): Promise<CartResponse> {
@@ -7,13 +7,13 @@ class CartService {
     return response.data
   }
 
-  async addToCart(data: AddToCartRequest): Promise<CartItem> {
-    const response = await api.post<CartItem>('/api/cart/items', data)
+  async addToCart(data: AddToCartRequest): Promise<CartResponse> {
+    const response = await api.post<CartResponse>('/api/cart/items', data)
     return response.data
   }
 
-  async updateCartItem(productId: number, quantity: number): Promise<CartItem> {
-    const response = await api.put<CartItem>(
+  async updateCartItem(productId: number, quantity: number): Promise<CartResponse> {
+    const response = await api.put<CartResponse>(
       `/api/cart/items/${productId}`,
       null,
       { params: { quantity } }
@@ -21,12 +21,19 @@ class CartService {
     return response.data
   }
 
-  async removeFromCart(productId: number): Promise<void> {
-    await api.delete(`/api/cart/items/${productId}`)
+  async applyBatch(operations: CartOperation[]): Promise<CartResponse> {
+    const response = await api.post<CartResponse>('/api/cart/items/batch', { operations })
+    return response.data
   }
 
-  async clearCart(): Promise<void> {
-    await api.delete('/api/cart')
+  async removeFromCart(productId: number): Promise<CartResponse> {
+    const response = await api.delete<CartResponse>(`/api/cart/items/${productId}`)
+    return response.data
+  }
+
+  async clearCart(): Promise<CartResponse> {
+    const response = await api.delete<CartResponse>('/api/cart')
+    return response.data
   }
 }
 
@@ -0,0 +1,12 @@
+import api from './api'
+import type { DashboardStats } from '@/types'
+
+class DashboardService {
+  // Admin endpoint (precomputed figures, refreshed in the background)
+  async getDashboard(): Promise<DashboardStats> {
+    const response = await api.get<DashboardStats>('/api/admin/dashboard')
+    return response.data
+  }
+}
+
+export default new DashboardService()
@@ -4,3 +4,5 @@ export { default as cartService } from './cart.service'
 export { default as orderService } from './order.service'
 export { default as reviewService } from './review.service'
 export { default as mediaService } from './media.service'
+export { default as salesService } from './sales.service'
+export { default as dashboardService } from './dashboard.service'
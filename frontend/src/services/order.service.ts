@@ -1,5 +1,5 @@
 import api from './api'
-import type { Order, CheckoutRequest, PaginatedResponse, OrderStatus } from '@/types'
+import type { Order, OrderHistory, CheckoutRequest, PaginatedResponse, OrderStatus, OrderSummary, OrderSearchParams, BulkOrderStatusResponse } from '@/types'
 
 class OrderService {
   async checkout(data: CheckoutRequest): Promise<Order> {
@@ -7,21 +7,21 @@ class OrderService {
     return response.data
   }
 
-  async getOrderHistory(page = 0, size = 10): Promise<PaginatedResponse<Order>> {
-    const response = await api.get<PaginatedResponse<Order>>('/api/orders', {
+  async getOrderHistory(page = 0, size = 10): Promise<PaginatedResponse<OrderHistory>> {
+    const response = await api.get<PaginatedResponse<OrderHistory>>('/api/orders', {
       params: { page, size },
     })
     return response.data
   }
 
   // Alias for consistency
-  async getMyOrders(params: { page?: number; size?: number } = {}): Promise<PaginatedResponse<Order>> {
+  async getMyOrders(params: { page?: number; size?: number } = {}): Promise<PaginatedResponse<OrderHistory>> {
     const { page = 0, size = 10 } = params
     return this.getOrderHistory(page, size)
   }
 
-  async getOrderById(id: number): Promise<Order> {
-    const response = await api.get<Order>(`/api/orders/${id}`)
+  async getOrderById(id: number): Promise<OrderHistory> {
+    const response = await api.get<OrderHistory>(`/api/orders/${id}`)
     return response.data
   }
 
@@ -39,6 +39,14 @@ class OrderService {
     return response.data
   }
 
+  async searchOrders(params: OrderSearchParams = {}): Promise<PaginatedResponse<OrderSummary>> {
+    const { page = 0, size = 20, ...filters } = params
+    const response = await api.get<PaginatedResponse<OrderSummary>>('/api/admin/orders/search', {
+      params: { page, size, ...filters },
+    })
+    return response.data
+  }
+
   async updateOrderStatus(id: number, status: OrderStatus): Promise<Order> {
     const response = await api.put<Order>(
       `/api/admin/orders/${id}/status`,
@@ -47,6 +55,13 @@ class OrderService {
     )
     return response.data
   }
+
+  async bulkUpdateOrderStatus(
+    updates: { orderId: number; status: OrderStatus }[]
+  ): Promise<BulkOrderStatusResponse> {
+    const response = await api.post<BulkOrderStatusResponse>('/api/admin/orders/status/bulk', { updates })
+    return response.data
+  }
 }
 
 export default new OrderService()
@@ -1,15 +1,40 @@
 import api from './api'
-import type { Review, CreateReviewRequest, ProductRating, PaginatedResponse } from '@/types'
+import type {
+  Review,
+  ReviewListItem,
+  ReviewFeed,
+  ReviewFeedParams,
+  ReviewHelpfulResult,
+  CreateReviewRequest,
+  ProductRating,
+  PaginatedResponse,
+} from '@/types'
 
 class ReviewService {
-  async getProductReviews(productId: number, page = 0, size = 10): Promise<PaginatedResponse<Review>> {
-    const response = await api.get<PaginatedResponse<Review>>(
+  async getProductReviews(productId: number, page = 0, size = 10): Promise<PaginatedResponse<ReviewListItem>> {
+    const response = await api.get<PaginatedResponse<ReviewListItem>>(
       `/api/reviews/product/${productId}`,
       { params: { page, size } }
     )
     return response.data
   }
 
+  // Newest first; pass the previous page's nextCursor to continue
+  async getReviewFeed(productId: number, params: ReviewFeedParams = {}): Promise<ReviewFeed> {
+    const response = await api.get<ReviewFeed>(`/api/reviews/product/${productId}/feed`, { params })
+    return response.data
+  }
+
+  async voteHelpful(reviewId: number): Promise<ReviewHelpfulResult> {
+    const response = await api.post<ReviewHelpfulResult>(`/api/reviews/${reviewId}/helpful`)
+    return response.data
+  }
+
+  async withdrawHelpful(reviewId: number): Promise<ReviewHelpfulResult> {
+    const response = await api.delete<ReviewHelpfulResult>(`/api/reviews/${reviewId}/helpful`)
+    return response.data
+  }
+
   async getProductRating(productId: number): Promise<ProductRating> {
     const response = await api.get<ProductRating>(`/api/reviews/product/${productId}/rating`)
     return response.data
@@ -0,0 +1,25 @@
+import api from './api'
+import type { SalesDaily, SalesBreakdown, SalesRangeParams } from '@/types'
+
+class SalesService {
+  // Admin endpoints (daily rollups; default range is the last 30 days)
+  async getDailySales(params: SalesRangeParams = {}): Promise<SalesDaily[]> {
+    const { from, to } = params
+    const response = await api.get<SalesDaily[]>('/api/admin/sales/daily', {
+      params: { from, to },
+    })
+    return response.data
+  }
+
+  async getProductSales(params: SalesRangeParams = {}): Promise<SalesBreakdown[]> {
+    const response = await api.get<SalesBreakdown[]>('/api/admin/sales/products', { params })
+    return response.data
+  }
+
+  async getCategorySales(params: SalesRangeParams = {}): Promise<SalesBreakdown[]> {
+    const response = await api.get<SalesBreakdown[]>('/api/admin/sales/categories', { params })
+    return response.data
+  }
+}
+
+export default new SalesService()
@@ -16,7 +16,7 @@ interface CartState {
   clearError: () => void
 }
 
-export const useCartStore = create<CartState>((set, get) => ({
+export const useCartStore = create<CartState>((set) => ({
   cart: null,
   isLoading: false,
   error: null,
@@ -37,9 +37,8 @@ export const useCartStore = create<CartState>((set, get) => ({
   addToCart: async (data: AddToCartRequest) => {
     set({ isLoading: true, error: null })
     try {
-      await cartService.addToCart(data)
-      // Refresh cart after adding
-      await get().fetchCart()
+      const cart = await cartService.addToCart(data)
+      set({ cart, isLoading: false })
     } catch (error: any) {
       set({
         error: error.response?.data?.message || 'Failed to add to cart',
@@ -52,8 +51,8 @@ export const useCartStore = create<CartState>((set, get) => ({
   updateQuantity: async (productId: number, quantity: number) => {
     set({ isLoading: true, error: null })
     try {
-      await cartService.updateCartItem(productId, quantity)
-      await get().fetchCart()
+      const cart = await cartService.updateCartItem(productId, quantity)
+      set({ cart, isLoading: false })
     } catch (error: any) {
       set({
         error: error.response?.data?.message || 'Failed to update quantity',
@@ -66,8 +65,8 @@ export const useCartStore = create<CartState>((set, get) => ({
   removeItem: async (productId: number) => {
     set({ isLoading: true, error: null })
     try {
-      await cartService.removeFromCart(productId)
-      await get().fetchCart()
+      const cart = await cartService.removeFromCart(productId)
+      set({ cart, isLoading: false })
     } catch (error: any) {
       set({
         error: error.response?.data?.message || 'Failed to remove item',
@@ -80,8 +79,8 @@ export const useCartStore = create<CartState>((set, get) => ({
   clearCart: async () => {
     set({ isLoading: true, error: null })
     try {
-      await cartService.clearCart()
-      set({ cart: null, isLoading: false })
+      const cart = await cartService.clearCart()
+      set({ cart, isLoading: false })
     } catch (error: any) {
       set({
         error: error.response?.data?.message || 'Failed to clear cart',
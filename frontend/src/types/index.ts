@@ -41,6 +41,8 @@ export type Product = {
   categoryName: string
   imageUrl?: string
   createdAt?: string
+  averageRating?: number // 0 when there are no reviews
+  reviewCount?: number
 }
 
 export type MediaType = 'IMAGE' | 'VIDEO'
@@ -103,21 +105,25 @@ export type PaginatedResponse<T> = {
 
 // Cart Types
 export type CartItem = {
-  id: number
-  product: Product
+  productId: number
+  productName: string
+  imageUrl?: string
+  categoryId?: number
+  categoryName?: string
+  unitPrice: number
+  availableStock: number
   quantity: number
-  subtotal: number
+  lineTotal: number
+  inStock: boolean
+  available: boolean
 }
 
-export type Cart = {
+export type CartResponse = {
   id: number
   items: CartItem[]
-}
-
-export type CartResponse = {
-  cart: Cart
+  subtotal: number
   itemCount: number
-  total: number
+  allAvailable: boolean
 }
 
 export type AddToCartRequest = {
@@ -125,6 +131,12 @@ export type AddToCartRequest = {
   quantity: number
 }
 
+export type CartOperation = {
+  type: 'ADD' | 'SET' | 'REMOVE'
+  productId: number
+  quantity?: number
+}
+
 // Order Types
 export type OrderStatus = 'PENDING' | 'PROCESSING' | 'SHIPPED' | 'DELIVERED' | 'CANCELLED'
 
@@ -146,6 +158,63 @@ export type Order = {
   items: OrderItem[]
 }
 
+// Customer order history (GET /api/orders)
+export type OrderHistoryItem = {
+  id: number
+  orderId: number
+  productId: number
+  productName: string
+  imageUrl?: string
+  quantity: number
+  priceAtPurchase: number
+  lineTotal: number
+}
+
+export type OrderHistory = {
+  id: number
+  createdAt: string
+  status: OrderStatus
+  totalPrice: number
+  shippingAddress: string
+  items: OrderHistoryItem[]
+}
+
+export type OrderSummary = {
+  id: number
+  createdAt: string
+  status: OrderStatus
+  totalPrice: number
+  userId: number
+  username: string
+  email: string
+  itemCount: number
+  totalQuantity: number
+}
+
+export type OrderSearchParams = {
+  status?: OrderStatus
+  from?: string
+  to?: string
+  customer?: string
+  productId?: number
+  minTotal?: number
+  maxTotal?: number
+  page?: number
+  size?: number
+}
+
+export type BulkOrderStatusResponse = {
+  updated: number
+  failed: number
+  results: {
+    orderId: number
+    requestedStatus: OrderStatus
+    success: boolean
+    currentStatus?: OrderStatus
+    message?: string
+  }[]
+}
+
 export type CheckoutRequest = {
   shippingAddress: string
   voucherCode?: string
@@ -163,6 +232,37 @@ export type Review = {
   updatedAt?: string
 }
 
+// Product review listing row (author name instead of nested user / product)
+export type ReviewListItem = {
+  id: number
+  productId: number
+  userId: number
+  authorName: string
+  rating: number // 1-5
+  comment?: string
+  isVerifiedPurchase: boolean
+  createdAt: string
+  helpfulCount: number // as of the last counter merge (a few seconds behind)
+}
+
+export type ReviewFeed = {
+  reviews: ReviewListItem[]
+  nextCursor: string | null
+}
+
+export type ReviewFeedParams = {
+  cursor?: string
+  size?: number
+  rating?: number // 1-5
+  sort?: 'NEWEST' | 'HELPFUL'
+}
+
+export type ReviewHelpfulResult = {
+  reviewId: number
+  helpfulCount: number
+  voted: boolean
+}
+
 export type CreateReviewRequest = {
   productId: number
   rating: number
@@ -170,8 +270,67 @@ export type CreateReviewRequest = {
 }
 
 export type ProductRating = {
+  productId: number
   averageRating: number
   totalReviews: number
+  histogram: Record<1 | 2 | 3 | 4 | 5, number>
+}
+
+// Sales Analytics Types
+export type SalesDaily = {
+  salesDate: string
+  orders: number
+  units: number
+  revenue: number
+  discounts: number
+  cancelledOrders: number
+  cancelledUnits: number
+  cancelledRevenue: number
+  cancelledDiscounts: number
+  deliveredOrders: number
+  deliveredUnits: number
+  deliveredRevenue: number
+  deliveredDiscounts: number
+  updatedAt: string
+}
+
+export type SalesBreakdown = {
+  id: number
+  name?: string
+  orders: number
+  units: number
+  revenue: number
+  cancelledOrders: number
+  cancelledUnits: number
+  cancelledRevenue: number
+  deliveredOrders: number
+  deliveredUnits: number
+  deliveredRevenue: number
+  netUnits: number
+  netRevenue: number
+}
+
+export type SalesRangeParams = {
+  from?: string // YYYY-MM-DD
+  to?: string
+  limit?: number
+}
+
+// Admin dashboard: every figure carries the time it was computed
+export type DashboardFigure<T> = {
+  value: T
+  asOf: string
+}
+
+export type DashboardStats = {
+  ordersByStatus: DashboardFigure<Record<OrderStatus, number>>
+  ordersToday: DashboardFigure<number>
+  revenueToday: DashboardFigure<number>
+  totalProducts: DashboardFigure<number>
+  lowStockProducts: DashboardFigure<number>
+  newUsersToday: DashboardFigure<number>
+  newUsersLast7Days: DashboardFigure<number>
+  pendingReviews: DashboardFigure<number>
 }
 
 // Inventory Types
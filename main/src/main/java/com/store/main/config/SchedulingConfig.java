@@ -0,0 +1,12 @@
+package com.store.main.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables @Scheduled background jobs (cart flushing, cleanup tasks).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -4,15 +4,18 @@ import com.store.main.dto.request.LoginRequest;
 import com.store.main.dto.request.RegisterRequest;
 import com.store.main.dto.response.JwtResponse;
 import com.store.main.dto.response.MessageResponse;
+import com.store.main.security.CurrentUser;
+import com.store.main.security.UserDetailsImpl;
 import com.store.main.service.AuthService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 /**
  * REST controller for authentication endpoints.
- * Handles user registration and login.
+ * Handles user registration, login and logout.
  */
 @RestController
 @RequestMapping("/api/auth")
@@ -47,4 +50,18 @@ public class AuthController {
         MessageResponse response = authService.register(registerRequest);
         return ResponseEntity.ok(response);
     }
+
+    /**
+     * User logout endpoint. Revokes all of the user's tokens, on every device.
+     * POST /api/auth/logout
+     *
+     * @param principal the authenticated user
+     * @return success message
+     */
+    @PostMapping("/logout")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<MessageResponse> logout(@CurrentUser UserDetailsImpl principal) {
+        MessageResponse response = authService.logout(principal.getId());
+        return ResponseEntity.ok(response);
+    }
 }
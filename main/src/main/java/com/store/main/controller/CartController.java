@@ -1,23 +1,21 @@
 package com.store.main.controller;
 
+import com.store.main.dto.request.CartBatchRequest;
 import com.store.main.dto.request.CartItemRequest;
-import com.store.main.dto.response.MessageResponse;
-import com.store.main.model.Cart;
+import com.store.main.dto.response.CartResponse;
+import com.store.main.security.CurrentUser;
+import com.store.main.security.UserDetailsImpl;
 import com.store.main.service.CartService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
-import java.math.BigDecimal;
-import java.util.HashMap;
-import java.util.Map;
-
 /**
  * Controller for managing shopping cart.
  * Only accessible to authenticated customers.
+ * Every endpoint returns the full cart as a CartResponse.
  */
 @RestController
 @RequestMapping("/api/cart")
@@ -31,28 +29,31 @@ public class CartController {
      * Get the current user's cart.
      */
     @GetMapping
-    public ResponseEntity<Map<String, Object>> getCart(Authentication authentication) {
-        String username = authentication.getName();
-        Cart cart = cartService.getOrCreateCart(username);
-        BigDecimal total = cartService.calculateCartTotal(cart);
-
-        Map<String, Object> response = new HashMap<>();
-        response.put("cart", cart);
-        response.put("total", total);
-        response.put("itemCount", cart.getItems().size());
-
-        return ResponseEntity.ok(response);
+    public ResponseEntity<CartResponse> getCart(@CurrentUser UserDetailsImpl user) {
+        CartResponse cart = cartService.getOrCreateCart(user.getId());
+        return ResponseEntity.ok(cart);
     }
 
     /**
      * Add an item to the cart.
      */
     @PostMapping("/items")
-    public ResponseEntity<Cart> addItemToCart(
+    public ResponseEntity<CartResponse> addItemToCart(
             @Valid @RequestBody CartItemRequest request,
-            Authentication authentication) {
-        String username = authentication.getName();
-        Cart cart = cartService.addItemToCart(username, request);
+            @CurrentUser UserDetailsImpl user) {
+        CartResponse cart = cartService.addItemToCart(user.getId(), request);
+        return ResponseEntity.ok(cart);
+    }
+
+    /**
+     * Apply several add / set-quantity / remove operations in one request.
+     * Either all operations are applied or none.
+     */
+    @PostMapping("/items/batch")
+    public ResponseEntity<CartResponse> applyBatch(
+            @Valid @RequestBody CartBatchRequest request,
+            @CurrentUser UserDetailsImpl user) {
+        CartResponse cart = cartService.applyBatch(user.getId(), request);
         return ResponseEntity.ok(cart);
     }
 
@@ -60,12 +61,11 @@ public class CartController {
      * Update the quantity of a cart item.
      */
     @PutMapping("/items/{productId}")
-    public ResponseEntity<Cart> updateCartItem(
+    public ResponseEntity<CartResponse> updateCartItem(
             @PathVariable Long productId,
             @RequestParam Integer quantity,
-            Authentication authentication) {
-        String username = authentication.getName();
-        Cart cart = cartService.updateCartItemQuantity(username, productId, quantity);
+            @CurrentUser UserDetailsImpl user) {
+        CartResponse cart = cartService.updateCartItemQuantity(user.getId(), productId, quantity);
         return ResponseEntity.ok(cart);
     }
 
@@ -73,11 +73,10 @@ public class CartController {
      * Remove an item from the cart.
      */
     @DeleteMapping("/items/{productId}")
-    public ResponseEntity<Cart> removeItemFromCart(
+    public ResponseEntity<CartResponse> removeItemFromCart(
             @PathVariable Long productId,
-            Authentication authentication) {
-        String username = authentication.getName();
-        Cart cart = cartService.removeItemFromCart(username, productId);
+            @CurrentUser UserDetailsImpl user) {
+        CartResponse cart = cartService.removeItemFromCart(user.getId(), productId);
         return ResponseEntity.ok(cart);
     }
 
@@ -85,9 +84,8 @@ public class CartController {
      * Clear all items from the cart.
      */
     @DeleteMapping
-    public ResponseEntity<MessageResponse> clearCart(Authentication authentication) {
-        String username = authentication.getName();
-        cartService.clearCart(username);
-        return ResponseEntity.ok(new MessageResponse("Cart cleared successfully!"));
+    public ResponseEntity<CartResponse> clearCart(@CurrentUser UserDetailsImpl user) {
+        cartService.clearCart(user.getId());
+        return ResponseEntity.ok(cartService.getCart(user.getId()));
     }
 }
@@ -0,0 +1,44 @@
+package com.store.main.controller;
+
+import com.store.main.dto.request.CartBatchRequest;
+import com.store.main.dto.response.GuestCartResponse;
+import com.store.main.service.GuestCartService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Controller for anonymous visitors' carts.
+ * Accessible without authentication; the cart travels in the X-Guest-Cart token
+ * and nothing is stored on the server until the visitor logs in or registers.
+ */
+@RestController
+@RequestMapping("/api/guest-cart")
+@RequiredArgsConstructor
+public class GuestCartController {
+
+    private static final String TOKEN_HEADER = "X-Guest-Cart";
+
+    private final GuestCartService guestCartService;
+
+    /**
+     * Get the guest cart priced with current product prices.
+     */
+    @GetMapping
+    public ResponseEntity<GuestCartResponse> getCart(
+            @RequestHeader(value = TOKEN_HEADER, required = false) String token) {
+        return ResponseEntity.ok(guestCartService.getCart(token));
+    }
+
+    /**
+     * Apply add / set-quantity / remove operations.
+     * The response carries the new token to send with the next request.
+     */
+    @PostMapping("/items")
+    public ResponseEntity<GuestCartResponse> applyBatch(
+            @RequestHeader(value = TOKEN_HEADER, required = false) String token,
+            @Valid @RequestBody CartBatchRequest request) {
+        return ResponseEntity.ok(guestCartService.applyBatch(token, request));
+    }
+}
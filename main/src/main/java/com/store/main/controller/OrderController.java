@@ -1,7 +1,12 @@
 package com.store.main.controller;
 
 import com.store.main.dto.request.CheckoutRequest;
+import com.store.main.dto.response.OrderResponse;
 import com.store.main.model.Order;
+import com.store.main.security.CurrentUser;
+import com.store.main.security.UserDetailsImpl;
+import com.store.main.service.CartService;
+import com.store.main.service.CheckoutAdmissionService;
 import com.store.main.service.OrderService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -10,9 +15,10 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Map;
+
 /**
  * Controller for customer order operations.
  * Handles checkout, viewing orders, and cancellations.
@@ -24,28 +30,38 @@ import org.springframework.web.bind.annotation.*;
 public class OrderController {
 
     private final OrderService orderService;
+    private final CartService cartService;
+    private final CheckoutAdmissionService checkoutAdmissionService;
 
     /**
      * Checkout - create an order from the cart.
+     * Passes through the admission queue before the checkout transaction is opened.
      */
     @PostMapping("/checkout")
     public ResponseEntity<Order> checkout(
             @Valid @RequestBody CheckoutRequest request,
-            Authentication authentication) {
-        String username = authentication.getName();
-        Order order = orderService.checkout(username, request);
+            @CurrentUser UserDetailsImpl user) {
+        Map<Long, Integer> lines = cartService.getCartQuantities(user.getId());
+        Order order = checkoutAdmissionService.admit(lines, () -> orderService.checkout(user.getId(), request));
         return ResponseEntity.status(HttpStatus.CREATED).body(order);
     }
 
+    /**
+     * Get the checkout waiting room state for a product.
+     */
+    @GetMapping("/checkout/queue/{productId}")
+    public ResponseEntity<Map<String, Object>> getCheckoutQueue(@PathVariable Long productId) {
+        return ResponseEntity.ok(checkoutAdmissionService.getStatus(productId));
+    }
+
     /**
      * Get all orders for the current user.
      */
     @GetMapping
-    public ResponseEntity<Page<Order>> getUserOrders(
+    public ResponseEntity<Page<OrderResponse>> getUserOrders(
             Pageable pageable,
-            Authentication authentication) {
-        String username = authentication.getName();
-        Page<Order> orders = orderService.getUserOrders(username, pageable);
+            @CurrentUser UserDetailsImpl user) {
+        Page<OrderResponse> orders = orderService.getUserOrders(user.getId(), pageable);
         return ResponseEntity.ok(orders);
     }
 
@@ -53,11 +69,10 @@ public class OrderController {
      * Get a specific order by ID.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Order> getOrderById(
+    public ResponseEntity<OrderResponse> getOrderById(
             @PathVariable Long id,
-            Authentication authentication) {
-        String username = authentication.getName();
-        Order order = orderService.getOrderById(username, id);
+            @CurrentUser UserDetailsImpl user) {
+        OrderResponse order = orderService.getOrderById(user.getId(), id);
         return ResponseEntity.ok(order);
     }
 
@@ -67,9 +82,8 @@ public class OrderController {
     @PostMapping("/{id}/cancel")
     public ResponseEntity<Order> cancelOrder(
             @PathVariable Long id,
-            Authentication authentication) {
-        String username = authentication.getName();
-        Order order = orderService.cancelOrder(username, id);
+            @CurrentUser UserDetailsImpl user) {
+        Order order = orderService.cancelOrder(user.getId(), id);
         return ResponseEntity.ok(order);
     }
 }
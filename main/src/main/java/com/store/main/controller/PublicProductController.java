@@ -57,7 +57,7 @@ public class PublicProductController {
     @GetMapping("/products")
     public ResponseEntity<Page<ProductResponse>> getAllProducts(Pageable pageable) {
         Page<Product> products = productService.getAllProducts(pageable);
-        Page<ProductResponse> response = products.map(ProductResponse::fromProduct);
+        Page<ProductResponse> response = productService.toResponses(products);
         return ResponseEntity.ok(response);
     }
 
@@ -66,8 +66,7 @@ public class PublicProductController {
      */
     @GetMapping("/products/{id}")
     public ResponseEntity<ProductResponse> getProductById(@PathVariable Long id) {
-        Product product = productService.getProductById(id);
-        ProductResponse response = ProductResponse.fromProduct(product);
+        ProductResponse response = productService.getProductResponse(id);
         return ResponseEntity.ok(response);
     }
 
@@ -79,7 +78,7 @@ public class PublicProductController {
             @PathVariable Long categoryId,
             Pageable pageable) {
         Page<Product> products = productService.getProductsByCategory(categoryId, pageable);
-        Page<ProductResponse> response = products.map(ProductResponse::fromProduct);
+        Page<ProductResponse> response = productService.toResponses(products);
         return ResponseEntity.ok(response);
     }
 
@@ -95,7 +94,7 @@ public class PublicProductController {
             Pageable pageable) {
         Page<Product> products = productService.searchProducts(
                 name, categoryId, minPrice, maxPrice, pageable);
-        Page<ProductResponse> response = products.map(ProductResponse::fromProduct);
+        Page<ProductResponse> response = productService.toResponses(products);
         return ResponseEntity.ok(response);
     }
 
@@ -1,7 +1,15 @@
 package com.store.main.controller;
 
 import com.store.main.dto.request.ReviewRequest;
+import com.store.main.dto.response.ProductRatingResponse;
+import com.store.main.dto.response.ReviewFeedResponse;
+import com.store.main.dto.response.ReviewHelpfulResponse;
+import com.store.main.dto.response.ReviewResponse;
 import com.store.main.model.Review;
+import com.store.main.repository.ReviewFeedRepository;
+import com.store.main.security.CurrentUser;
+import com.store.main.security.UserDetailsImpl;
+import com.store.main.service.ReviewHelpfulnessService;
 import com.store.main.service.ReviewService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -10,7 +18,6 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 /**
@@ -23,6 +30,7 @@ import org.springframework.web.bind.annotation.*;
 public class ReviewController {
 
     private final ReviewService reviewService;
+    private final ReviewHelpfulnessService reviewHelpfulnessService;
 
     /**
      * Create a review for a product (requires verified purchase).
@@ -31,9 +39,8 @@ public class ReviewController {
     @PreAuthorize("hasRole('CUSTOMER')")
     public ResponseEntity<Review> createReview(
             @Valid @RequestBody ReviewRequest request,
-            Authentication authentication) {
-        String username = authentication.getName();
-        Review review = reviewService.createReview(username, request);
+            @CurrentUser UserDetailsImpl user) {
+        Review review = reviewService.createReview(user.getId(), request);
         return ResponseEntity.status(HttpStatus.CREATED).body(review);
     }
 
@@ -41,20 +48,34 @@ public class ReviewController {
      * Get all reviews for a specific product (public endpoint).
      */
     @GetMapping("/product/{productId}")
-    public ResponseEntity<Page<Review>> getProductReviews(
+    public ResponseEntity<Page<ReviewResponse>> getProductReviews(
             @PathVariable Long productId,
             Pageable pageable) {
-        Page<Review> reviews = reviewService.getProductReviews(productId, pageable);
+        Page<ReviewResponse> reviews = reviewService.getProductReviews(productId, pageable);
         return ResponseEntity.ok(reviews);
     }
 
     /**
-     * Get average rating for a product (public endpoint).
+     * Get a product's review feed with cursor paging (public endpoint).
+     * Pass the returned nextCursor to get the following page; filter by star rating with rating=1..5;
+     * sort=NEWEST (default) or HELPFUL.
+     */
+    @GetMapping("/product/{productId}/feed")
+    public ResponseEntity<ReviewFeedResponse> getReviewFeed(
+            @PathVariable Long productId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) Integer rating,
+            @RequestParam(defaultValue = "NEWEST") ReviewFeedRepository.Sort sort) {
+        return ResponseEntity.ok(reviewService.getReviewFeed(productId, cursor, size, rating, sort));
+    }
+
+    /**
+     * Get average rating, review count and star histogram for a product (public endpoint).
      */
     @GetMapping("/product/{productId}/rating")
-    public ResponseEntity<Double> getAverageRating(@PathVariable Long productId) {
-        Double avgRating = reviewService.getAverageRating(productId);
-        return ResponseEntity.ok(avgRating != null ? avgRating : 0.0);
+    public ResponseEntity<ProductRatingResponse> getRating(@PathVariable Long productId) {
+        return ResponseEntity.ok(reviewService.getRating(productId));
     }
 
     /**
@@ -64,12 +85,33 @@ public class ReviewController {
     @PreAuthorize("hasRole('CUSTOMER')")
     public ResponseEntity<Page<Review>> getUserReviews(
             Pageable pageable,
-            Authentication authentication) {
-        String username = authentication.getName();
-        Page<Review> reviews = reviewService.getUserReviews(username, pageable);
+            @CurrentUser UserDetailsImpl user) {
+        Page<Review> reviews = reviewService.getUserReviews(user.getId(), pageable);
         return ResponseEntity.ok(reviews);
     }
 
+    /**
+     * Mark a review as helpful (once per user).
+     */
+    @PostMapping("/{id}/helpful")
+    @PreAuthorize("hasRole('CUSTOMER')")
+    public ResponseEntity<ReviewHelpfulResponse> voteHelpful(
+            @PathVariable Long id,
+            @CurrentUser UserDetailsImpl user) {
+        return ResponseEntity.ok(reviewHelpfulnessService.vote(user.getId(), id));
+    }
+
+    /**
+     * Withdraw a helpful vote.
+     */
+    @DeleteMapping("/{id}/helpful")
+    @PreAuthorize("hasRole('CUSTOMER')")
+    public ResponseEntity<ReviewHelpfulResponse> withdrawHelpful(
+            @PathVariable Long id,
+            @CurrentUser UserDetailsImpl user) {
+        return ResponseEntity.ok(reviewHelpfulnessService.unvote(user.getId(), id));
+    }
+
     /**
      * Delete a review.
      */
@@ -77,9 +119,8 @@ public class ReviewController {
     @PreAuthorize("hasRole('CUSTOMER')")
     public ResponseEntity<Void> deleteReview(
             @PathVariable Long id,
-            Authentication authentication) {
-        String username = authentication.getName();
-        reviewService.deleteReview(username, id);
+            @CurrentUser UserDetailsImpl user) {
+        reviewService.deleteReview(user.getId(), id);
         return ResponseEntity.noContent().build();
     }
 }
@@ -0,0 +1,30 @@
+package com.store.main.controller.admin;
+
+import com.store.main.dto.response.DashboardResponse;
+import com.store.main.service.DashboardService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Admin controller for the dashboard summary figures.
+ */
+@RestController
+@RequestMapping("/api/admin/dashboard")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminDashboardController {
+
+    private final DashboardService dashboardService;
+
+    /**
+     * Get the latest precomputed dashboard figures, each with the time it was computed.
+     */
+    @GetMapping
+    public ResponseEntity<DashboardResponse> getDashboard() {
+        return ResponseEntity.ok(dashboardService.getDashboard());
+    }
+}
@@ -1,14 +1,32 @@
 package com.store.main.controller.admin;
 
+import com.store.main.dto.request.BulkOrderStatusRequest;
+import com.store.main.dto.request.OrderSearchCriteria;
+import com.store.main.dto.response.BulkOrderStatusResponse;
+import com.store.main.dto.response.OrderSummaryResponse;
 import com.store.main.model.Order;
 import com.store.main.model.enums.OrderStatus;
+import com.store.main.service.OrderExportService;
 import com.store.main.service.OrderService;
+import com.store.main.service.OrderStatusService;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+import java.util.concurrent.Callable;
 
 /**
  * Admin controller for order management.
@@ -21,6 +39,8 @@ import org.springframework.web.bind.annotation.*;
 public class AdminOrderController {
 
     private final OrderService orderService;
+    private final OrderExportService orderExportService;
+    private final OrderStatusService orderStatusService;
 
     /**
      * Get all orders with pagination.
@@ -31,6 +51,18 @@ public class AdminOrderController {
         return ResponseEntity.ok(orders);
     }
 
+    /**
+     * Search orders by status, date range, customer (username or email), product
+     * and total range. Returns lightweight rows with item counts, newest first.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<Page<OrderSummaryResponse>> searchOrders(
+            OrderSearchCriteria criteria,
+            Pageable pageable) {
+        Page<OrderSummaryResponse> orders = orderService.searchOrders(criteria, pageable);
+        return ResponseEntity.ok(orders);
+    }
+
     /**
      * Update order status.
      */
@@ -41,4 +73,70 @@ public class AdminOrderController {
         Order order = orderService.updateOrderStatus(id, status);
         return ResponseEntity.ok(order);
     }
+
+    /**
+     * Move many orders to new statuses in one request.
+     * Invalid transitions are reported per order and do not block the others.
+     */
+    @PostMapping("/status/bulk")
+    public ResponseEntity<BulkOrderStatusResponse> bulkUpdateOrderStatus(
+            @Valid @RequestBody BulkOrderStatusRequest request) {
+        BulkOrderStatusResponse response = orderStatusService.bulkUpdateStatus(request);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Export orders as CSV, one line per order item.
+     * Streams from a database cursor; pass gzip=true for a .csv.gz download.
+     */
+    @GetMapping("/export/csv")
+    public ResponseEntity<StreamingResponseBody> exportCsv(
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            WebRequest webRequest) {
+        return export(OrderExportService.Format.CSV, "orders.csv", MediaType.parseMediaType("text/csv"),
+                status, from, to, gzip, webRequest);
+    }
+
+    /**
+     * Export orders as newline-delimited JSON, one order (with its items) per line.
+     * Streams from a database cursor; pass gzip=true for a .ndjson.gz download.
+     */
+    @GetMapping("/export/ndjson")
+    public ResponseEntity<StreamingResponseBody> exportNdjson(
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            WebRequest webRequest) {
+        return export(OrderExportService.Format.NDJSON, "orders.ndjson", MediaType.parseMediaType("application/x-ndjson"),
+                status, from, to, gzip, webRequest);
+    }
+
+    private ResponseEntity<StreamingResponseBody> export(OrderExportService.Format format, String filename,
+                                                         MediaType mediaType, OrderStatus status,
+                                                         LocalDate from, LocalDate to, boolean gzip,
+                                                         WebRequest webRequest) {
+        orderExportService.validate(from, to);
+        OrderExportService.ExportSlot slot = orderExportService.acquireSlot();
+
+        // export() releases the slot when it finishes; this also covers a body that never
+        // runs (task rejected, async timeout, client gone before dispatch)
+        WebAsyncUtils.getAsyncManager(webRequest).registerCallableInterceptor(slot,
+                new CallableProcessingInterceptor() {
+                    @Override
+                    public <T> void afterCompletion(NativeWebRequest request, Callable<T> task) {
+                        slot.release();
+                    }
+                });
+
+        StreamingResponseBody body = out -> orderExportService.export(slot, format, status, from, to, gzip, out);
+        return ResponseEntity.ok()
+                .contentType(gzip ? MediaType.parseMediaType("application/gzip") : mediaType)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"" + filename + (gzip ? ".gz" : "") + "\"")
+                .body(body);
+    }
 }
@@ -0,0 +1,29 @@
+package com.store.main.controller.admin;
+
+import com.store.main.service.ProductRatingService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Admin controller for review maintenance.
+ */
+@RestController
+@RequestMapping("/api/admin/reviews")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminReviewController {
+
+    private final ProductRatingService productRatingService;
+
+    /**
+     * Recompute all product rating statistics from the reviews.
+     */
+    @PostMapping("/rating-stats/rebuild")
+    public ResponseEntity<ProductRatingService.RebuildResult> rebuildRatingStats() {
+        return ResponseEntity.ok(productRatingService.rebuild());
+    }
+}
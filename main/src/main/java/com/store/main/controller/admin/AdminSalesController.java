@@ -0,0 +1,81 @@
+package com.store.main.controller.admin;
+
+import com.store.main.dto.response.SalesBreakdownResponse;
+import com.store.main.model.SalesDaily;
+import com.store.main.service.SalesReportService;
+import com.store.main.service.SalesRollupService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Admin controller for revenue analytics.
+ * Reads the daily sales rollups and exposes their backfill and consistency check.
+ */
+@RestController
+@RequestMapping("/api/admin/sales")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminSalesController {
+
+    private final SalesReportService salesReportService;
+    private final SalesRollupService salesRollupService;
+
+    /**
+     * Get orders, units, revenue and discounts per day (default: last 30 days).
+     */
+    @GetMapping("/daily")
+    public ResponseEntity<List<SalesDaily>> getDailySales(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(salesReportService.getDailySales(from, to));
+    }
+
+    /**
+     * Get the best-selling products of a date range.
+     */
+    @GetMapping("/products")
+    public ResponseEntity<List<SalesBreakdownResponse>> getProductSales(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(salesReportService.getProductSales(from, to, limit));
+    }
+
+    /**
+     * Get sales per category of a date range.
+     */
+    @GetMapping("/categories")
+    public ResponseEntity<List<SalesBreakdownResponse>> getCategorySales(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(salesReportService.getCategorySales(from, to, limit));
+    }
+
+    /**
+     * Recompute the rollups of a date range from the orders (backfill / repair).
+     */
+    @PostMapping("/rollup/rebuild")
+    public ResponseEntity<SalesRollupService.RebuildResult> rebuildRollups(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(salesRollupService.rebuild(from, to));
+    }
+
+    /**
+     * Compare the rollups of a date range with the orders, optionally rebuilding differing days.
+     */
+    @PostMapping("/rollup/check")
+    public ResponseEntity<SalesRollupService.ConsistencyReport> checkRollups(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "false") boolean repair) {
+        return ResponseEntity.ok(salesRollupService.check(from, to, repair));
+    }
+}
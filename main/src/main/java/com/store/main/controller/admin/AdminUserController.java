@@ -0,0 +1,33 @@
+package com.store.main.controller.admin;
+
+import com.store.main.dto.response.MessageResponse;
+import com.store.main.service.AuthService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Admin controller for user account maintenance.
+ */
+@RestController
+@RequestMapping("/api/admin/users")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminUserController {
+
+    private final AuthService authService;
+
+    /**
+     * Revoke all of a user's tokens, e.g. after changing their roles, so the next
+     * login picks up the new roles.
+     */
+    @PostMapping("/{id}/revoke-tokens")
+    public ResponseEntity<MessageResponse> revokeTokens(@PathVariable Long id) {
+        authService.revokeTokens(id);
+        return ResponseEntity.ok(new MessageResponse("Tokens revoked for user " + id));
+    }
+}
@@ -0,0 +1,41 @@
+package com.store.main.dto.request;
+
+import com.store.main.model.enums.OrderStatus;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for moving many orders to new statuses in one request.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkOrderStatusRequest {
+
+    @NotEmpty(message = "At least one update is required")
+    @Size(max = 1000, message = "At most 1000 orders per request")
+    @Valid
+    private List<Update> updates;
+
+    /**
+     * Target status for one order.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Update {
+
+        @NotNull(message = "Order ID is required")
+        private Long orderId;
+
+        @NotNull(message = "Status is required")
+        private OrderStatus status;
+    }
+}
@@ -0,0 +1,54 @@
+package com.store.main.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for applying several cart changes in one request
+ * (e.g. merging a guest cart or restoring a saved cart).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartBatchRequest {
+
+    @NotEmpty(message = "At least one operation is required")
+    @Size(max = 100, message = "At most 100 operations per request")
+    private List<@Valid Operation> operations;
+
+    /**
+     * Kind of change applied to a cart line.
+     * - ADD: add quantity to the line (creating it if needed)
+     * - SET: set the line to exactly quantity
+     * - REMOVE: remove the line
+     */
+    public enum OperationType {
+        ADD,
+        SET,
+        REMOVE
+    }
+
+    /**
+     * A single cart change. quantity is ignored for REMOVE.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Operation {
+
+        @NotNull(message = "Operation type is required")
+        private OperationType type;
+
+        @NotNull(message = "Product ID is required")
+        private Long productId;
+
+        private Integer quantity;
+    }
+}
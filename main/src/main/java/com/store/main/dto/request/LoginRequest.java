@@ -18,4 +18,9 @@ public class LoginRequest {
 
     @NotBlank(message = "Password is required")
     private String password;
+
+    /**
+     * Optional signed guest cart token to merge into the user's cart.
+     */
+    private String guestCart;
 }
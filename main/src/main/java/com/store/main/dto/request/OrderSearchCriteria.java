@@ -0,0 +1,44 @@
+package com.store.main.dto.request;
+
+import com.store.main.model.enums.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Filters for the admin order search. Every field is optional.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderSearchCriteria {
+
+    private OrderStatus status;
+
+    /**
+     * First day included (order date).
+     */
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate from;
+
+    /**
+     * Last day included (order date).
+     */
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate to;
+
+    /**
+     * Exact username, or email if it contains '@'.
+     */
+    private String customer;
+
+    private Long productId;
+
+    private BigDecimal minTotal;
+
+    private BigDecimal maxTotal;
+}
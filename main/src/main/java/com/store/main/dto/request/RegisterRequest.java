@@ -35,4 +35,9 @@ public class RegisterRequest {
      * If empty, defaults to ROLE_CUSTOMER.
      */
     private Set<String> roles;
+
+    /**
+     * Optional signed guest cart token to merge into the new user's cart.
+     */
+    private String guestCart;
 }
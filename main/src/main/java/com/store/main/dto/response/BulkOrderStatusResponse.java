@@ -0,0 +1,35 @@
+package com.store.main.dto.response;
+
+import com.store.main.model.enums.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO with the outcome of a bulk order status change, one result per requested order.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkOrderStatusResponse {
+    private int updated;
+    private int failed;
+    private List<Result> results;
+
+    /**
+     * Outcome for one order. currentStatus is the status after the request
+     * (the new status on success, the unchanged one on failure, null if not found).
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Result {
+        private Long orderId;
+        private OrderStatus requestedStatus;
+        private boolean success;
+        private OrderStatus currentStatus;
+        private String message;
+    }
+}
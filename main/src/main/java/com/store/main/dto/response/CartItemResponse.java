@@ -0,0 +1,55 @@
+package com.store.main.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO for one cart line with its product, category and stock already resolved.
+ * Product details are filled by a single projection query; quantity and the
+ * derived totals and flags are applied from the cart afterwards.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartItemResponse {
+    private Long productId;
+    private String productName;
+    private String imageUrl;
+    private Long categoryId;
+    private String categoryName;
+    private BigDecimal unitPrice;
+    private Integer availableStock;
+    private Integer quantity;
+    private BigDecimal lineTotal;
+    private Boolean inStock;
+    private Boolean available;
+
+    /**
+     * Constructor used by the JPQL projection in ProductRepository.findCartLineDetails.
+     */
+    public CartItemResponse(Long productId, String productName, String imageUrl,
+                            Long categoryId, String categoryName,
+                            BigDecimal unitPrice, Integer availableStock) {
+        this.productId = productId;
+        this.productName = productName;
+        this.imageUrl = imageUrl;
+        this.categoryId = categoryId;
+        this.categoryName = categoryName;
+        this.unitPrice = unitPrice;
+        this.availableStock = availableStock != null ? availableStock : 0;
+    }
+
+    /**
+     * Set the cart quantity and derive the line total and availability flags.
+     */
+    public CartItemResponse withQuantity(int quantity) {
+        this.quantity = quantity;
+        this.lineTotal = unitPrice.multiply(BigDecimal.valueOf(quantity));
+        this.inStock = availableStock > 0;
+        this.available = availableStock >= quantity;
+        return this;
+    }
+}
@@ -0,0 +1,27 @@
+package com.store.main.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * DTO for a customer's cart, returned by every cart endpoint.
+ * Avoids serializing the Cart entity and its lazy product references.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartResponse {
+    private Long id;
+    private List<CartItemResponse> items;
+    private BigDecimal subtotal;
+    private Integer itemCount;
+
+    /**
+     * False if any line asks for more than is currently in stock.
+     */
+    private Boolean allAvailable;
+}
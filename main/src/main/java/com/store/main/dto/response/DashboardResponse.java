@@ -0,0 +1,40 @@
+package com.store.main.dto.response;
+
+import com.store.main.model.enums.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * DTO for the admin dashboard figures.
+ * Each figure carries the time it was computed; figures are refreshed in the background,
+ * so they may be up to app.dashboard.refreshMs old (today's sales follow the sales rollups).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DashboardResponse {
+    private Figure<Map<OrderStatus, Long>> ordersByStatus;
+    private Figure<Long> ordersToday;
+    private Figure<BigDecimal> revenueToday;
+    private Figure<Long> totalProducts;
+    private Figure<Long> lowStockProducts;
+    private Figure<Long> newUsersToday;
+    private Figure<Long> newUsersLast7Days;
+    private Figure<Long> pendingReviews;
+
+    /**
+     * A value and the time it was computed.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Figure<T> {
+        private T value;
+        private LocalDateTime asOf;
+    }
+}
@@ -0,0 +1,38 @@
+package com.store.main.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * DTO for an anonymous visitor's cart.
+ * The token carries the cart contents; the client sends it back with the next request.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GuestCartResponse {
+
+    private String token;
+    private List<Line> items;
+    private BigDecimal total;
+    private Integer itemCount;
+
+    /**
+     * A priced cart line.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Line {
+        private Long productId;
+        private String name;
+        private String imageUrl;
+        private BigDecimal price;
+        private Integer quantity;
+        private BigDecimal lineTotal;
+    }
+}
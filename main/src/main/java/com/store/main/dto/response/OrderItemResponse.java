@@ -0,0 +1,33 @@
+package com.store.main.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO for an order line with a summary of its product.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderItemResponse {
+    private Long id;
+    private Long orderId;
+    private Long productId;
+    private String productName;
+    private String imageUrl;
+    private Integer quantity;
+    private BigDecimal priceAtPurchase;
+    private BigDecimal lineTotal;
+
+    /**
+     * Constructor used by OrderHistoryRepositoryImpl.findHistoryItemsByOrderIds.
+     */
+    public OrderItemResponse(Long id, Long orderId, Long productId, String productName, String imageUrl,
+                             Integer quantity, BigDecimal priceAtPurchase) {
+        this(id, orderId, productId, productName, imageUrl, quantity, priceAtPurchase,
+                priceAtPurchase.multiply(BigDecimal.valueOf(quantity)));
+    }
+}
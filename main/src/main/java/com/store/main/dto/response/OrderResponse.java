@@ -0,0 +1,38 @@
+package com.store.main.dto.response;
+
+import com.store.main.model.enums.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO for a customer's order with its items, used by the order history endpoints.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderResponse {
+    private Long id;
+    private LocalDateTime createdAt;
+    private OrderStatus status;
+    private BigDecimal totalPrice;
+    private String shippingAddress;
+    private List<OrderItemResponse> items = new ArrayList<>();
+
+    /**
+     * Constructor used by OrderHistoryRepositoryImpl; items are attached afterwards.
+     */
+    public OrderResponse(Long id, LocalDateTime createdAt, OrderStatus status,
+                         BigDecimal totalPrice, String shippingAddress) {
+        this.id = id;
+        this.createdAt = createdAt;
+        this.status = status;
+        this.totalPrice = totalPrice;
+        this.shippingAddress = shippingAddress;
+    }
+}
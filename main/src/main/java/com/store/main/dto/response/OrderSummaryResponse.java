@@ -0,0 +1,36 @@
+package com.store.main.dto.response;
+
+import com.store.main.model.enums.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * DTO for one row of an order listing.
+ * Filled by a JPQL projection, so no Order, User or OrderItem entities are loaded.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderSummaryResponse {
+    private Long id;
+    private LocalDateTime createdAt;
+    private OrderStatus status;
+    private BigDecimal totalPrice;
+    private Long userId;
+    private String username;
+    private String email;
+
+    /**
+     * Number of distinct order lines.
+     */
+    private Long itemCount;
+
+    /**
+     * Sum of quantities over all lines.
+     */
+    private Long totalQuantity;
+}
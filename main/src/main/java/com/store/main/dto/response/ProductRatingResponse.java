@@ -0,0 +1,52 @@
+package com.store.main.dto.response;
+
+import com.store.main.model.ProductRatingStats;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * DTO for a product's rating summary: average, number of reviews and star histogram.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductRatingResponse {
+    private Long productId;
+
+    /**
+     * Average rating (1-5), or 0 if the product has no reviews.
+     */
+    private Double averageRating;
+
+    private Long totalReviews;
+
+    /**
+     * Number of reviews per star rating, keyed 1 to 5.
+     */
+    private Map<Integer, Long> histogram;
+
+    /**
+     * Create ProductRatingResponse from the product's statistics row (null if it has no reviews).
+     */
+    public static ProductRatingResponse fromStats(Long productId, ProductRatingStats stats) {
+        Map<Integer, Long> histogram = new LinkedHashMap<>();
+        if (stats == null || stats.getReviewCount() <= 0) {
+            for (int stars = 1; stars <= 5; stars++) {
+                histogram.put(stars, 0L);
+            }
+            return new ProductRatingResponse(productId, 0.0, 0L, histogram);
+        }
+
+        histogram.put(1, stats.getStars1());
+        histogram.put(2, stats.getStars2());
+        histogram.put(3, stats.getStars3());
+        histogram.put(4, stats.getStars4());
+        histogram.put(5, stats.getStars5());
+        double average = (double) stats.getRatingSum() / stats.getReviewCount();
+        return new ProductRatingResponse(productId, average, stats.getReviewCount(), histogram);
+    }
+}
@@ -1,6 +1,7 @@
 package com.store.main.dto.response;
 
 import com.store.main.model.Product;
+import com.store.main.model.ProductRatingStats;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -22,6 +23,25 @@ public class ProductResponse {
     private Long categoryId;
     private String categoryName;
 
+    /**
+     * Average rating (1-5), or 0 if the product has no reviews.
+     */
+    private Double averageRating = 0.0;
+
+    private Long reviewCount = 0L;
+
+    /**
+     * Create ProductResponse from Product entity and its rating statistics (null if it has no reviews).
+     */
+    public static ProductResponse fromProduct(Product product, ProductRatingStats ratingStats) {
+        ProductResponse response = fromProduct(product);
+        if (ratingStats != null && ratingStats.getReviewCount() > 0) {
+            response.setAverageRating((double) ratingStats.getRatingSum() / ratingStats.getReviewCount());
+            response.setReviewCount(ratingStats.getReviewCount());
+        }
+        return response;
+    }
+
     /**
      * Create ProductResponse from Product entity.
      */
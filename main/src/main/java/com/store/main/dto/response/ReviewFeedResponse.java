@@ -0,0 +1,22 @@
+package com.store.main.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for one page of a product's review feed.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewFeedResponse {
+    private List<ReviewResponse> reviews;
+
+    /**
+     * Opaque cursor for the next page, or null if this is the last page.
+     */
+    private String nextCursor;
+}
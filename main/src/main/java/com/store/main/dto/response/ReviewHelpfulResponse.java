@@ -0,0 +1,25 @@
+package com.store.main.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for the result of a helpful vote: the caller's vote and the review's current count.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewHelpfulResponse {
+    private Long reviewId;
+
+    /**
+     * Number of users who found the review helpful, including votes not yet merged.
+     */
+    private Long helpfulCount;
+
+    /**
+     * Whether the caller's vote is now recorded.
+     */
+    private Boolean voted;
+}
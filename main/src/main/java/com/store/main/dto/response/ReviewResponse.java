@@ -0,0 +1,35 @@
+package com.store.main.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO for one review in a product's review listing.
+ * Filled by a projection joined to the author, so no Review, User or Product entities are loaded.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewResponse {
+    private Long id;
+    private Long productId;
+    private Long userId;
+
+    /**
+     * Author display name (username).
+     */
+    private String authorName;
+
+    private Integer rating;
+    private String comment;
+    private Boolean isVerifiedPurchase;
+    private LocalDateTime createdAt;
+
+    /**
+     * Helpful votes as of the last counter merge.
+     */
+    private Long helpfulCount;
+}
@@ -0,0 +1,41 @@
+package com.store.main.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO for the sales of one product or category over a date range, read from the daily rollups.
+ * Net figures are placed minus cancelled.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesBreakdownResponse {
+    private Long id;
+    private String name;
+    private Long orders;
+    private Long units;
+    private BigDecimal revenue;
+    private Long cancelledOrders;
+    private Long cancelledUnits;
+    private BigDecimal cancelledRevenue;
+    private Long deliveredOrders;
+    private Long deliveredUnits;
+    private BigDecimal deliveredRevenue;
+    private Long netUnits;
+    private BigDecimal netRevenue;
+
+    /**
+     * Constructor used by the JPQL projections in the sales rollup repositories.
+     */
+    public SalesBreakdownResponse(Long id, String name, Long orders, Long units, BigDecimal revenue,
+                                  Long cancelledOrders, Long cancelledUnits, BigDecimal cancelledRevenue,
+                                  Long deliveredOrders, Long deliveredUnits, BigDecimal deliveredRevenue) {
+        this(id, name, orders, units, revenue, cancelledOrders, cancelledUnits, cancelledRevenue,
+                deliveredOrders, deliveredUnits, deliveredRevenue,
+                units - cancelledUnits, revenue.subtract(cancelledRevenue));
+    }
+}
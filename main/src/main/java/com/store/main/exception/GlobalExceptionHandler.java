@@ -74,6 +74,16 @@ public class GlobalExceptionHandler {
         return buildErrorResponse(ex.getMessage(), HttpStatus.CONFLICT, request);
     }
 
+    /**
+     * Handle TooManyRequestsException (429).
+     */
+    @ExceptionHandler(TooManyRequestsException.class)
+    @ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+    public Map<String, Object> handleTooManyRequestsException(
+            TooManyRequestsException ex, WebRequest request) {
+        return buildErrorResponse(ex.getMessage(), HttpStatus.TOO_MANY_REQUESTS, request);
+    }
+
     /**
      * Handle validation errors from @Valid annotations (400).
      */
@@ -0,0 +1,12 @@
+package com.store.main.exception;
+
+/**
+ * Exception thrown when a request is shed because a resource is saturated.
+ * Results in HTTP 429 Too Many Requests response.
+ */
+public class TooManyRequestsException extends RuntimeException {
+
+    public TooManyRequestsException(String message) {
+        super(message);
+    }
+}
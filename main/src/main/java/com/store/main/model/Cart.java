@@ -2,7 +2,10 @@ package com.store.main.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.UpdateTimestamp;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -21,7 +24,8 @@ import java.util.Set;
 public class Cart {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "carts_seq")
+    @SequenceGenerator(name = "carts_seq", sequenceName = "carts_id_seq", allocationSize = 50)
     private Long id;
 
     @OneToOne(fetch = FetchType.LAZY)
@@ -31,6 +35,27 @@ public class Cart {
     @OneToMany(mappedBy = "cart", cascade = CascadeType.ALL, orphanRemoval = true)
     private Set<CartItem> items = new HashSet<>();
 
+    /**
+     * Running total of quantity * unit price over all items.
+     * Maintained incrementally on every cart change instead of re-reading products.
+     */
+    @Column(nullable = false, precision = 12, scale = 2)
+    private BigDecimal subtotal = BigDecimal.ZERO;
+
+    /**
+     * Number of distinct products in the cart.
+     */
+    @Column(name = "item_count", nullable = false)
+    private Integer itemCount = 0;
+
+    /**
+     * Last time the cart contents were written. Carts untouched for longer than
+     * app.cart.purge.maxAgeDays are deleted by CartPurgeService.
+     */
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
     public Cart(User user) {
         this.user = user;
     }
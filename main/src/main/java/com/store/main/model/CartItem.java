@@ -10,18 +10,21 @@ import lombok.*;
  * Links a cart to products with specified quantities.
  */
 @Entity
-@Table(name = "cart_items")
+@Table(name = "cart_items",
+    uniqueConstraints = @UniqueConstraint(
+        name = "cart_items_cart_id_product_id_key",
+        columnNames = {"cart_id", "product_id"}))
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @ToString(exclude = {"cart", "product"})
-@EqualsAndHashCode(exclude = {"cart", "product"})
 @JsonIgnoreProperties({"cart"})
 public class CartItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cart_items_seq")
+    @SequenceGenerator(name = "cart_items_seq", sequenceName = "cart_items_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -26,7 +26,8 @@ import java.time.LocalDateTime;
 public class ProductMedia {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_media_seq")
+    @SequenceGenerator(name = "product_media_seq", sequenceName = "product_media_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
@@ -0,0 +1,50 @@
+package com.store.main.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity holding the review count, rating sum and star histogram of one product.
+ * Updated with atomic increments when reviews are created or deleted, and
+ * recomputed from the reviews table by ProductRatingService.rebuild().
+ * Products without reviews have no row.
+ */
+@Entity
+@Table(name = "product_rating_stats")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductRatingStats {
+
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(name = "review_count", nullable = false)
+    private Long reviewCount = 0L;
+
+    @Column(name = "rating_sum", nullable = false)
+    private Long ratingSum = 0L;
+
+    @Column(name = "stars_1", nullable = false)
+    private Long stars1 = 0L;
+
+    @Column(name = "stars_2", nullable = false)
+    private Long stars2 = 0L;
+
+    @Column(name = "stars_3", nullable = false)
+    private Long stars3 = 0L;
+
+    @Column(name = "stars_4", nullable = false)
+    private Long stars4 = 0L;
+
+    @Column(name = "stars_5", nullable = false)
+    private Long stars5 = 0L;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
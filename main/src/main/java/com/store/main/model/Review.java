@@ -17,14 +17,19 @@ import java.time.LocalDateTime;
  * isVerifiedPurchase indicates if the reviewer actually bought the product.
  */
 @Entity
-@Table(name = "reviews")
+@Table(name = "reviews", indexes = {
+    @Index(name = "idx_reviews_product_created_desc", columnList = "product_id,created_at DESC,id DESC"),
+    @Index(name = "idx_reviews_product_rating_created_desc", columnList = "product_id,rating,created_at DESC,id DESC"),
+    @Index(name = "idx_reviews_product_helpful_desc", columnList = "product_id,helpful_count DESC,id DESC")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Review {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reviews_seq")
+    @SequenceGenerator(name = "reviews_seq", sequenceName = "reviews_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -45,11 +50,20 @@ public class Review {
 
     /**
      * Indicates if this review is from a verified purchaser.
-     * Set to true if the user has a SHIPPED order containing this product.
+     * Set to true if the user has received this product in a DELIVERED order
+     * (recorded in user_purchased_products).
      */
     @Column(name = "is_verified_purchase", nullable = false)
     private Boolean isVerifiedPurchase = false;
 
+    /**
+     * Number of users who found this review helpful, as of the last counter merge
+     * (see ReviewHelpfulnessService). Only written by the merge, never by entity updates.
+     */
+    @Column(name = "helpful_count", nullable = false, updatable = false,
+            columnDefinition = "bigint not null default 0")
+    private Long helpfulCount = 0L;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -0,0 +1,48 @@
+package com.store.main.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Entity holding one shard of a review's pending helpful vote count.
+ * Votes add to a random shard, so concurrent votes on a popular review rarely
+ * contend for the same row; ReviewHelpfulnessService periodically adds the
+ * shards into Review.helpfulCount and deletes them.
+ */
+@Entity
+@Table(name = "review_helpful_counter_shards")
+@IdClass(ReviewHelpfulCounterShard.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewHelpfulCounterShard {
+
+    @Id
+    @Column(name = "review_id")
+    private Long reviewId;
+
+    @Id
+    @Column(name = "shard")
+    private Integer shard;
+
+    /**
+     * Votes added minus votes withdrawn since the last merge.
+     */
+    @Column(nullable = false)
+    private Long delta = 0L;
+
+    /**
+     * Composite primary key (review_id, shard).
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long reviewId;
+        private Integer shard;
+    }
+}
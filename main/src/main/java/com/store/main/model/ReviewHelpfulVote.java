@@ -0,0 +1,45 @@
+package com.store.main.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Entity recording that a user found a review helpful.
+ * The primary key allows one vote per user and review.
+ * Written by ReviewHelpfulnessService.
+ */
+@Entity
+@Table(name = "review_helpful_votes")
+@IdClass(ReviewHelpfulVote.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewHelpfulVote {
+
+    @Id
+    @Column(name = "review_id")
+    private Long reviewId;
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * Composite primary key (review_id, user_id).
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long reviewId;
+        private Long userId;
+    }
+}
@@ -0,0 +1,67 @@
+package com.store.main.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Entity representing the store-wide sales of one day (by order date).
+ * Revenue is the sum of order totals; discounts are item prices minus order totals.
+ * Cancelled and delivered figures count orders of that day that reached those statuses.
+ * Maintained by SalesRollupService.
+ */
+@Entity
+@Table(name = "sales_daily")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesDaily {
+
+    @Id
+    @Column(name = "sales_date")
+    private LocalDate salesDate;
+
+    @Column(nullable = false)
+    private Long orders = 0L;
+
+    @Column(nullable = false)
+    private Long units = 0L;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal revenue = BigDecimal.ZERO;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal discounts = BigDecimal.ZERO;
+
+    @Column(name = "cancelled_orders", nullable = false)
+    private Long cancelledOrders = 0L;
+
+    @Column(name = "cancelled_units", nullable = false)
+    private Long cancelledUnits = 0L;
+
+    @Column(name = "cancelled_revenue", nullable = false, precision = 14, scale = 2)
+    private BigDecimal cancelledRevenue = BigDecimal.ZERO;
+
+    @Column(name = "cancelled_discounts", nullable = false, precision = 14, scale = 2)
+    private BigDecimal cancelledDiscounts = BigDecimal.ZERO;
+
+    @Column(name = "delivered_orders", nullable = false)
+    private Long deliveredOrders = 0L;
+
+    @Column(name = "delivered_units", nullable = false)
+    private Long deliveredUnits = 0L;
+
+    @Column(name = "delivered_revenue", nullable = false, precision = 14, scale = 2)
+    private BigDecimal deliveredRevenue = BigDecimal.ZERO;
+
+    @Column(name = "delivered_discounts", nullable = false, precision = 14, scale = 2)
+    private BigDecimal deliveredDiscounts = BigDecimal.ZERO;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,80 @@
+package com.store.main.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Entity representing the sales of one product on one day (by order date).
+ * Revenue is quantity times price at purchase, before order-level discounts.
+ * Maintained by SalesRollupService.
+ */
+@Entity
+@Table(name = "sales_daily_product")
+@IdClass(SalesDailyProduct.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesDailyProduct {
+
+    @Id
+    @Column(name = "sales_date")
+    private LocalDate salesDate;
+
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    /**
+     * Category the product was in when its first sale of the day was recorded.
+     */
+    @Column(name = "category_id", nullable = false)
+    private Long categoryId;
+
+    @Column(nullable = false)
+    private Long orders = 0L;
+
+    @Column(nullable = false)
+    private Long units = 0L;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal revenue = BigDecimal.ZERO;
+
+    @Column(name = "cancelled_orders", nullable = false)
+    private Long cancelledOrders = 0L;
+
+    @Column(name = "cancelled_units", nullable = false)
+    private Long cancelledUnits = 0L;
+
+    @Column(name = "cancelled_revenue", nullable = false, precision = 14, scale = 2)
+    private BigDecimal cancelledRevenue = BigDecimal.ZERO;
+
+    @Column(name = "delivered_orders", nullable = false)
+    private Long deliveredOrders = 0L;
+
+    @Column(name = "delivered_units", nullable = false)
+    private Long deliveredUnits = 0L;
+
+    @Column(name = "delivered_revenue", nullable = false, precision = 14, scale = 2)
+    private BigDecimal deliveredRevenue = BigDecimal.ZERO;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    /**
+     * Composite primary key (sales_date, product_id).
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private LocalDate salesDate;
+        private Long productId;
+    }
+}
@@ -0,0 +1,47 @@
+package com.store.main.model;
+
+import com.store.main.model.enums.SalesEventType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity representing an order event waiting to be folded into the sales rollups.
+ * Events are inserted in the same transaction as the order change and consumed
+ * by SalesRollupService, so checkouts never contend on the rollup rows.
+ */
+@Entity
+@Table(name = "sales_rollup_events")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesRollupEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sales_rollup_events_seq")
+    @SequenceGenerator(name = "sales_rollup_events_seq", sequenceName = "sales_rollup_events_id_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private SalesEventType type;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    public SalesRollupEvent(Long orderId, SalesEventType type) {
+        this.orderId = orderId;
+        this.type = type;
+    }
+}
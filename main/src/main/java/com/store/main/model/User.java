@@ -8,6 +8,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -20,6 +21,9 @@ import java.util.Set;
     uniqueConstraints = {
         @UniqueConstraint(columnNames = "username"),
         @UniqueConstraint(columnNames = "email")
+    },
+    indexes = {
+        @Index(name = "idx_users_created", columnList = "created_at")
     })
 @Data
 @NoArgsConstructor
@@ -27,7 +31,8 @@ import java.util.Set;
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_id_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank
@@ -54,6 +59,21 @@ public class User {
     )
     private Set<Role> roles = new HashSet<>();
 
+    /**
+     * Bumped to revoke every token issued to the user (logout, role change).
+     * Tokens carry the version they were issued with; see TokenVersionService.
+     */
+    @Column(name = "token_version", nullable = false, columnDefinition = "integer not null default 0")
+    private Integer tokenVersion = 0;
+
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
     public User(String username, String password, String email) {
         this.username = username;
         this.password = password;
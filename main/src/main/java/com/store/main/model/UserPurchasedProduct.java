@@ -0,0 +1,46 @@
+package com.store.main.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Entity recording that a user has received a product (one of their orders containing it
+ * was delivered). Used for review purchase verification with one primary key lookup.
+ * Rows are added by OrderStatusService on DELIVERED transitions and never change, since
+ * DELIVERED is terminal; they are kept when the order is archived.
+ */
+@Entity
+@Table(name = "user_purchased_products")
+@IdClass(UserPurchasedProduct.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserPurchasedProduct {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(name = "first_delivered_at", nullable = false)
+    private LocalDateTime firstDeliveredAt;
+
+    /**
+     * Composite primary key (user_id, product_id).
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long userId;
+        private Long productId;
+    }
+}
@@ -25,7 +25,8 @@ import java.time.LocalDate;
 public class Voucher {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "vouchers_seq")
+    @SequenceGenerator(name = "vouchers_seq", sequenceName = "vouchers_id_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank
@@ -1,5 +1,8 @@
 package com.store.main.model.enums;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 /**
  * Enum representing the lifecycle status of an order.
  * - PENDING: Order has been created but not yet processed
@@ -7,11 +10,34 @@ package com.store.main.model.enums;
  * - SHIPPED: Order has been dispatched for delivery
  * - DELIVERED: Order has been successfully delivered to customer
  * - CANCELLED: Order has been cancelled by customer or admin
+ *
+ * Allowed transitions: PENDING -> PROCESSING -> SHIPPED -> DELIVERED,
+ * and PENDING/PROCESSING -> CANCELLED.
  */
 public enum OrderStatus {
     PENDING,
     PROCESSING,
     SHIPPED,
     DELIVERED,
-    CANCELLED
+    CANCELLED;
+
+    /**
+     * Statuses an order may move to this status from.
+     */
+    public Set<OrderStatus> allowedPrevious() {
+        return switch (this) {
+            case PENDING -> EnumSet.noneOf(OrderStatus.class);
+            case PROCESSING -> EnumSet.of(PENDING);
+            case SHIPPED -> EnumSet.of(PROCESSING);
+            case DELIVERED -> EnumSet.of(SHIPPED);
+            case CANCELLED -> EnumSet.of(PENDING, PROCESSING);
+        };
+    }
+
+    /**
+     * Whether an order in this status may move to the target status.
+     */
+    public boolean canTransitionTo(OrderStatus target) {
+        return target.allowedPrevious().contains(this);
+    }
 }
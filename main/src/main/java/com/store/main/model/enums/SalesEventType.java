@@ -0,0 +1,29 @@
+package com.store.main.model.enums;
+
+/**
+ * Enum representing an order event that changes the sales rollups.
+ * - PLACED: Order was created at checkout
+ * - CANCELLED: Order moved to CANCELLED
+ * - DELIVERED: Order moved to DELIVERED
+ *
+ * Each event adds to its own set of rollup columns (no prefix, cancelled_, delivered_),
+ * always on the day the order was placed.
+ */
+public enum SalesEventType {
+    PLACED(""),
+    CANCELLED("cancelled_"),
+    DELIVERED("delivered_");
+
+    private final String columnPrefix;
+
+    SalesEventType(String columnPrefix) {
+        this.columnPrefix = columnPrefix;
+    }
+
+    /**
+     * Prefix of the rollup columns this event adds to.
+     */
+    public String columnPrefix() {
+        return columnPrefix;
+    }
+}
@@ -4,6 +4,9 @@ import com.store.main.model.Cart;
 import com.store.main.model.CartItem;
 import com.store.main.model.Product;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -28,4 +31,12 @@ public interface CartItemRepository extends JpaRepository<CartItem, Long> {
      * @param cart the cart entity
      */
     void deleteByCart(Cart cart);
+
+    /**
+     * Delete all cart items for a cart with a single bulk statement.
+     * @param cartId the cart ID
+     */
+    @Modifying
+    @Query("DELETE FROM CartItem ci WHERE ci.cart.id = :cartId")
+    void deleteAllByCartId(@Param("cartId") Long cartId);
 }
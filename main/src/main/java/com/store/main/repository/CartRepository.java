@@ -3,6 +3,7 @@ package com.store.main.repository;
 import com.store.main.model.Cart;
 import com.store.main.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -37,6 +38,14 @@ public interface CartRepository extends JpaRepository<Cart, Long> {
     @Query("SELECT c FROM Cart c LEFT JOIN FETCH c.items WHERE c.user = :user")
     Optional<Cart> findByUserWithItems(@Param("user") User user);
 
+    /**
+     * Find a cart by user ID with items and their products eagerly loaded.
+     * @param userId the user ID
+     * @return Optional containing the cart with items and products loaded
+     */
+    @Query("SELECT c FROM Cart c LEFT JOIN FETCH c.items i LEFT JOIN FETCH i.product WHERE c.user.id = :userId")
+    Optional<Cart> findByUserIdWithItems(@Param("userId") Long userId);
+
     /**
      * Find a cart by ID with items eagerly loaded.
      * @param id the cart ID
@@ -44,4 +53,42 @@ public interface CartRepository extends JpaRepository<Cart, Long> {
      */
     @Query("SELECT c FROM Cart c LEFT JOIN FETCH c.items WHERE c.id = :id")
     Optional<Cart> findByIdWithItems(@Param("id") Long id);
+
+    /**
+     * Create the user's cart unless it already exists, in one statement.
+     * Concurrent first requests for the same user cannot race into the
+     * unique carts.user_id constraint.
+     * Every column without a default in a Hibernate-generated schema is set explicitly.
+     * @param userId the user ID
+     */
+    @Modifying
+    @Query(value = "INSERT INTO carts (id, user_id, subtotal, item_count, updated_at) " +
+                   "VALUES (nextval('carts_id_seq'), :userId, 0, 0, CURRENT_TIMESTAMP) " +
+                   "ON CONFLICT (user_id) DO NOTHING",
+           nativeQuery = true)
+    void insertIfAbsent(@Param("userId") Long userId);
+
+    /**
+     * Reset the running totals of a cart (after its items were deleted).
+     * @param cartId the cart ID
+     */
+    @Modifying
+    @Query("UPDATE Cart c SET c.subtotal = 0, c.itemCount = 0, c.updatedAt = CURRENT_TIMESTAMP WHERE c.id = :cartId")
+    void resetTotals(@Param("cartId") Long cartId);
+
+    /**
+     * Recompute subtotal and item count, with one aggregate statement, for every
+     * cart containing the given product. Used when a product price changes.
+     * @param productId the product whose price changed
+     * @return number of carts updated
+     */
+    @Modifying
+    @Query(value = "UPDATE carts c SET subtotal = t.subtotal, item_count = t.item_count " +
+                   "FROM (SELECT ci.cart_id, SUM(ci.quantity * p.price) AS subtotal, COUNT(*) AS item_count " +
+                   "      FROM cart_items ci JOIN products p ON p.id = ci.product_id " +
+                   "      WHERE ci.cart_id IN (SELECT cart_id FROM cart_items WHERE product_id = :productId) " +
+                   "      GROUP BY ci.cart_id) t " +
+                   "WHERE c.id = t.cart_id",
+           nativeQuery = true)
+    int recalculateTotalsForProduct(@Param("productId") Long productId);
 }
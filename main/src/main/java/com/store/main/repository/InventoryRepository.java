@@ -3,8 +3,13 @@ package com.store.main.repository;
 import com.store.main.model.Inventory;
 import com.store.main.model.Product;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -26,4 +31,25 @@ public interface InventoryRepository extends JpaRepository<Inventory, Long> {
      * @return Optional containing the inventory if found
      */
     Optional<Inventory> findByProductId(Long productId);
+
+    /**
+     * Find inventory records for several products in one query.
+     * @param productIds the product IDs
+     * @return inventory records for the products that have one
+     */
+    List<Inventory> findByProductIdIn(Collection<Long> productIds);
+
+    /**
+     * Return the items of the given orders to stock with one aggregate statement.
+     * Used when orders are cancelled in bulk.
+     * @param orderIds the cancelled orders
+     * @return number of inventory rows updated
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE inventory i SET stock_quantity = i.stock_quantity + t.quantity " +
+                   "FROM (SELECT product_id, SUM(quantity) AS quantity FROM order_items " +
+                   "      WHERE order_id IN (:orderIds) GROUP BY product_id) t " +
+                   "WHERE i.product_id = t.product_id",
+           nativeQuery = true)
+    int restockForOrders(@Param("orderIds") Collection<Long> orderIds);
 }
@@ -0,0 +1,41 @@
+package com.store.main.repository;
+
+import com.store.main.dto.response.OrderItemResponse;
+import com.store.main.dto.response.OrderResponse;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Custom repository fragment for reads that must see both live and archived orders.
+ * Closed orders are moved to orders_archive / order_items_archive by OrderArchiveService;
+ * these queries read both tables so callers do not need to know where an order lives.
+ */
+public interface OrderHistoryRepository {
+
+    /**
+     * Page of a user's orders, newest first, as rows without items.
+     * @param userId the user ID
+     * @param pageable page number and size; sort is always created_at DESC, id DESC
+     * @return page of order rows
+     */
+    Page<OrderResponse> findHistoryByUserId(Long userId, Pageable pageable);
+
+    /**
+     * Find one of a user's orders as a row without items.
+     * @param id the order ID
+     * @param userId the owner's user ID
+     * @return the order row, or empty if missing or owned by someone else
+     */
+    Optional<OrderResponse> findHistoryByIdAndUserId(Long id, Long userId);
+
+    /**
+     * Load the items of several orders, with product summaries, in one query.
+     * @param orderIds the order IDs
+     * @return item rows ordered by order and item ID
+     */
+    List<OrderItemResponse> findHistoryItemsByOrderIds(Collection<Long> orderIds);
+}
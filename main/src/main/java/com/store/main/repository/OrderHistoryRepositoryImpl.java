@@ -0,0 +1,107 @@
+package com.store.main.repository;
+
+import com.store.main.dto.response.OrderItemResponse;
+import com.store.main.dto.response.OrderResponse;
+import com.store.main.model.enums.OrderStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * SQL implementation of OrderHistoryRepository.
+ *
+ * Each query is a UNION ALL of the live and the archive table. For the history page,
+ * each branch is limited to offset + size rows and read in index order
+ * (idx_orders_user_created_desc / idx_orders_archive_user_created_desc), so the merge
+ * touches at most two short index ranges.
+ */
+public class OrderHistoryRepositoryImpl implements OrderHistoryRepository {
+
+    private static final String ORDER_COLUMNS =
+            "id, created_at, status, total_price, shipping_address";
+
+    private static final String HISTORY_PAGE_SQL =
+            "(SELECT " + ORDER_COLUMNS + " FROM orders WHERE user_id = :userId " +
+            " ORDER BY created_at DESC, id DESC LIMIT :branchLimit) " +
+            "UNION ALL " +
+            "(SELECT " + ORDER_COLUMNS + " FROM orders_archive WHERE user_id = :userId " +
+            " ORDER BY created_at DESC, id DESC LIMIT :branchLimit) " +
+            "ORDER BY created_at DESC, id DESC LIMIT :limit OFFSET :offset";
+
+    private static final String HISTORY_COUNT_SQL =
+            "SELECT (SELECT COUNT(*) FROM orders WHERE user_id = :userId) + " +
+            "(SELECT COUNT(*) FROM orders_archive WHERE user_id = :userId)";
+
+    private static final String HISTORY_ONE_SQL =
+            "SELECT " + ORDER_COLUMNS + " FROM orders WHERE id = :id AND user_id = :userId " +
+            "UNION ALL " +
+            "SELECT " + ORDER_COLUMNS + " FROM orders_archive WHERE id = :id AND user_id = :userId";
+
+    private static final String HISTORY_ITEMS_SQL =
+            "SELECT oi.id, oi.order_id, p.id AS product_id, p.name, p.image_url, oi.quantity, oi.price_at_purchase " +
+            "FROM (SELECT id, order_id, product_id, quantity, price_at_purchase " +
+            "      FROM order_items WHERE order_id IN (:orderIds) " +
+            "      UNION ALL " +
+            "      SELECT id, order_id, product_id, quantity, price_at_purchase " +
+            "      FROM order_items_archive WHERE order_id IN (:orderIds)) oi " +
+            "JOIN products p ON p.id = oi.product_id " +
+            "ORDER BY oi.order_id, oi.id";
+
+    private static final RowMapper<OrderResponse> ORDER_ROW = (rs, rowNum) -> new OrderResponse(
+            rs.getLong("id"),
+            rs.getTimestamp("created_at").toLocalDateTime(),
+            OrderStatus.valueOf(rs.getString("status")),
+            rs.getBigDecimal("total_price"),
+            rs.getString("shipping_address"));
+
+    private static final RowMapper<OrderItemResponse> ITEM_ROW = (rs, rowNum) -> new OrderItemResponse(
+            rs.getLong("id"),
+            rs.getLong("order_id"),
+            rs.getLong("product_id"),
+            rs.getString("name"),
+            rs.getString("image_url"),
+            rs.getInt("quantity"),
+            rs.getBigDecimal("price_at_purchase"));
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public OrderHistoryRepositoryImpl(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public Page<OrderResponse> findHistoryByUserId(Long userId, Pageable pageable) {
+        MapSqlParameterSource params = new MapSqlParameterSource("userId", userId)
+                .addValue("branchLimit", pageable.getOffset() + pageable.getPageSize())
+                .addValue("limit", pageable.getPageSize())
+                .addValue("offset", pageable.getOffset());
+        List<OrderResponse> rows = jdbcTemplate.query(HISTORY_PAGE_SQL, params, ORDER_ROW);
+
+        // Skip the count when the first page is already short
+        long total = pageable.getOffset() == 0 && rows.size() < pageable.getPageSize()
+                ? rows.size()
+                : jdbcTemplate.queryForObject(HISTORY_COUNT_SQL, params, Long.class);
+        return new PageImpl<>(rows, pageable, total);
+    }
+
+    @Override
+    public Optional<OrderResponse> findHistoryByIdAndUserId(Long id, Long userId) {
+        MapSqlParameterSource params = new MapSqlParameterSource("id", id).addValue("userId", userId);
+        return jdbcTemplate.query(HISTORY_ONE_SQL, params, ORDER_ROW).stream().findFirst();
+    }
+
+    @Override
+    public List<OrderItemResponse> findHistoryItemsByOrderIds(Collection<Long> orderIds) {
+        if (orderIds.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(HISTORY_ITEMS_SQL, new MapSqlParameterSource("orderIds", orderIds), ITEM_ROW);
+    }
+}
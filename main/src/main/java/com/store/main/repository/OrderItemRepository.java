@@ -9,6 +9,4 @@ import org.springframework.stereotype.Repository;
  */
 @Repository
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
-    // Basic CRUD operations are inherited from JpaRepository
-    // Additional custom methods can be added here if needed
 }
@@ -6,17 +6,20 @@ import com.store.main.model.enums.OrderStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.Optional;
 
 /**
  * Repository interface for Order entity operations.
  */
 @Repository
-public interface OrderRepository extends JpaRepository<Order, Long> {
+public interface OrderRepository extends JpaRepository<Order, Long>, OrderSearchRepository,
+        OrderHistoryRepository {
 
     /**
      * Find all orders for a specific user.
@@ -50,23 +53,6 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
      */
     Page<Order> findByStatus(OrderStatus status, Pageable pageable);
 
-    /**
-     * Check if a user has any shipped orders containing a specific product.
-     * Used for verified purchase validation in reviews.
-     * @param userId the user ID
-     * @param productId the product ID
-     * @return true if the user has purchased the product, false otherwise
-     */
-    @Query("SELECT CASE WHEN COUNT(o) > 0 THEN true ELSE false END " +
-           "FROM Order o JOIN o.items oi " +
-           "WHERE o.user.id = :userId " +
-           "AND oi.product.id = :productId " +
-           "AND o.status = 'SHIPPED'")
-    Boolean existsByUserIdAndProductIdAndStatusShipped(
-        @Param("userId") Long userId,
-        @Param("productId") Long productId
-    );
-
     /**
      * Find order by ID with items eagerly loaded.
      * Used for operations that need to access order items (like cancellation).
@@ -75,4 +61,37 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
      */
     @Query("SELECT o FROM Order o LEFT JOIN FETCH o.items WHERE o.id = :id")
     Optional<Order> findByIdWithItems(@Param("id") Long id);
+
+    /**
+     * Compare-and-set the status of an order in one statement.
+     * @param id the order ID
+     * @param target the new status
+     * @param expected statuses the order must currently be in
+     * @return 1 if the status was changed, 0 if the order is missing or in another status
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Order o SET o.status = :target WHERE o.id = :id AND o.status IN :expected")
+    int compareAndSetStatus(
+        @Param("id") Long id,
+        @Param("target") OrderStatus target,
+        @Param("expected") Collection<OrderStatus> expected
+    );
+
+    /**
+     * Compare-and-set the status of an order that must belong to the given user.
+     * @param id the order ID
+     * @param userId the owner's user ID
+     * @param target the new status
+     * @param expected statuses the order must currently be in
+     * @return 1 if the status was changed, 0 otherwise
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Order o SET o.status = :target " +
+           "WHERE o.id = :id AND o.user.id = :userId AND o.status IN :expected")
+    int compareAndSetStatusForUser(
+        @Param("id") Long id,
+        @Param("userId") Long userId,
+        @Param("target") OrderStatus target,
+        @Param("expected") Collection<OrderStatus> expected
+    );
 }
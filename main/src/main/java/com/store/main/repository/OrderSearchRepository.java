@@ -0,0 +1,23 @@
+package com.store.main.repository;
+
+import com.store.main.dto.request.OrderSearchCriteria;
+import com.store.main.dto.response.OrderSummaryResponse;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Custom repository fragment for the filtered admin order search.
+ */
+public interface OrderSearchRepository {
+
+    /**
+     * Search orders, newest first, returning projection rows with item counts.
+     * Only the filters that are set become predicates, so each combination gets
+     * a plan that can use the matching composite index.
+     * @param criteria the filters (customer is ignored; pass the resolved userId)
+     * @param userId optional user ID the customer filter resolved to
+     * @param pageable page number and size; sort is always created_at DESC, id DESC
+     * @return page of order summaries
+     */
+    Page<OrderSummaryResponse> searchOrders(OrderSearchCriteria criteria, Long userId, Pageable pageable);
+}
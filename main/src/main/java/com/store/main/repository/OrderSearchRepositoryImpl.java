@@ -0,0 +1,93 @@
+package com.store.main.repository;
+
+import com.store.main.dto.request.OrderSearchCriteria;
+import com.store.main.dto.response.OrderSummaryResponse;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JPQL implementation of OrderSearchRepository.
+ *
+ * Index usage (see database/supabase/order_search_indexes.sql for the plans):
+ * - status (+ dates): idx_orders_status_created
+ * - customer (+ dates): idx_orders_user_created_desc
+ * - dates only: idx_orders_created
+ * - product: idx_order_items_product_order drives a semi-join on order_items
+ */
+public class OrderSearchRepositoryImpl implements OrderSearchRepository {
+
+    private static final String SELECT_ROWS =
+            "SELECT new com.store.main.dto.response.OrderSummaryResponse(" +
+            "o.id, o.createdAt, o.status, o.totalPrice, u.id, u.username, u.email, " +
+            "(SELECT COUNT(ci) FROM OrderItem ci WHERE ci.order = o), " +
+            "(SELECT COALESCE(SUM(qi.quantity), 0) FROM OrderItem qi WHERE qi.order = o)) " +
+            "FROM Order o JOIN o.user u";
+
+    private static final String SELECT_COUNT = "SELECT COUNT(o) FROM Order o";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<OrderSummaryResponse> searchOrders(OrderSearchCriteria criteria, Long userId, Pageable pageable) {
+        StringBuilder where = new StringBuilder(" WHERE 1 = 1");
+        Map<String, Object> params = new HashMap<>();
+
+        if (criteria.getStatus() != null) {
+            where.append(" AND o.status = :status");
+            params.put("status", criteria.getStatus());
+        }
+        if (userId != null) {
+            where.append(" AND o.user.id = :userId");
+            params.put("userId", userId);
+        }
+        if (criteria.getFrom() != null) {
+            where.append(" AND o.createdAt >= :from");
+            params.put("from", criteria.getFrom().atStartOfDay());
+        }
+        if (criteria.getTo() != null) {
+            where.append(" AND o.createdAt < :to");
+            params.put("to", criteria.getTo().plusDays(1).atStartOfDay());
+        }
+        if (criteria.getProductId() != null) {
+            where.append(" AND EXISTS (SELECT 1 FROM OrderItem pi WHERE pi.order = o AND pi.product.id = :productId)");
+            params.put("productId", criteria.getProductId());
+        }
+        if (criteria.getMinTotal() != null) {
+            where.append(" AND o.totalPrice >= :minTotal");
+            params.put("minTotal", criteria.getMinTotal());
+        }
+        if (criteria.getMaxTotal() != null) {
+            where.append(" AND o.totalPrice <= :maxTotal");
+            params.put("maxTotal", criteria.getMaxTotal());
+        }
+
+        TypedQuery<OrderSummaryResponse> rowsQuery = entityManager.createQuery(
+                SELECT_ROWS + where + " ORDER BY o.createdAt DESC, o.id DESC", OrderSummaryResponse.class);
+        TypedQuery<Long> countQuery = entityManager.createQuery(SELECT_COUNT + where, Long.class);
+        params.forEach((name, value) -> {
+            rowsQuery.setParameter(name, value);
+            countQuery.setParameter(name, value);
+        });
+
+        if (pageable.isPaged()) {
+            rowsQuery.setFirstResult((int) pageable.getOffset());
+            rowsQuery.setMaxResults(pageable.getPageSize());
+        }
+        List<OrderSummaryResponse> rows = rowsQuery.getResultList();
+
+        // Skip the count when the first page is already short
+        long total = pageable.isPaged() && pageable.getOffset() == 0 && rows.size() < pageable.getPageSize()
+                ? rows.size()
+                : countQuery.getSingleResult();
+        return new PageImpl<>(rows, pageable, total);
+    }
+}
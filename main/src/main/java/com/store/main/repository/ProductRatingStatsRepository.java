@@ -0,0 +1,55 @@
+package com.store.main.repository;
+
+import com.store.main.model.ProductRatingStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository interface for per-product rating statistics.
+ */
+@Repository
+public interface ProductRatingStatsRepository extends JpaRepository<ProductRatingStats, Long> {
+
+    /**
+     * Find the statistics of several products with one query.
+     * @param productIds the product IDs
+     * @return rows for the products that have reviews
+     */
+    List<ProductRatingStats> findByProductIdIn(Collection<Long> productIds);
+
+    /**
+     * Add (delta = 1) or remove (delta = -1) one review's rating in a single atomic upsert,
+     * so concurrent reviews of the same product never lose an update.
+     * @param productId the reviewed product
+     * @param rating the review's rating (1-5)
+     * @param delta 1 for a new review, -1 for a deleted one
+     */
+    @Modifying
+    @Query(value = "INSERT INTO product_rating_stats AS s " +
+                   "(product_id, review_count, rating_sum, stars_1, stars_2, stars_3, stars_4, stars_5, updated_at) " +
+                   "VALUES (:productId, :delta, :delta * :rating, " +
+                   "        CASE WHEN :rating = 1 THEN :delta ELSE 0 END, " +
+                   "        CASE WHEN :rating = 2 THEN :delta ELSE 0 END, " +
+                   "        CASE WHEN :rating = 3 THEN :delta ELSE 0 END, " +
+                   "        CASE WHEN :rating = 4 THEN :delta ELSE 0 END, " +
+                   "        CASE WHEN :rating = 5 THEN :delta ELSE 0 END, CURRENT_TIMESTAMP) " +
+                   "ON CONFLICT (product_id) DO UPDATE SET " +
+                   "review_count = s.review_count + EXCLUDED.review_count, " +
+                   "rating_sum = s.rating_sum + EXCLUDED.rating_sum, " +
+                   "stars_1 = s.stars_1 + EXCLUDED.stars_1, " +
+                   "stars_2 = s.stars_2 + EXCLUDED.stars_2, " +
+                   "stars_3 = s.stars_3 + EXCLUDED.stars_3, " +
+                   "stars_4 = s.stars_4 + EXCLUDED.stars_4, " +
+                   "stars_5 = s.stars_5 + EXCLUDED.stars_5, " +
+                   "updated_at = EXCLUDED.updated_at",
+           nativeQuery = true)
+    void applyRating(@Param("productId") Long productId,
+                     @Param("rating") int rating,
+                     @Param("delta") int delta);
+}
@@ -1,5 +1,6 @@
 package com.store.main.repository;
 
+import com.store.main.dto.response.CartItemResponse;
 import com.store.main.model.Category;
 import com.store.main.model.Product;
 import org.springframework.data.domain.Page;
@@ -10,6 +11,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -90,4 +92,15 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
         @Param("maxPrice") BigDecimal maxPrice,
         Pageable pageable
     );
+
+    /**
+     * Load product, category and stock details for cart lines with one query.
+     * @param productIds the products in the cart
+     * @return one row per existing product; quantity is applied by the caller
+     */
+    @Query("SELECT new com.store.main.dto.response.CartItemResponse(" +
+           "p.id, p.name, p.imageUrl, c.id, c.name, p.price, i.stockQuantity) " +
+           "FROM Product p LEFT JOIN p.category c LEFT JOIN Inventory i ON i.product = p " +
+           "WHERE p.id IN :productIds")
+    List<CartItemResponse> findCartLineDetails(@Param("productIds") Collection<Long> productIds);
 }
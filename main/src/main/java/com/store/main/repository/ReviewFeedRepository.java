@@ -0,0 +1,43 @@
+package com.store.main.repository;
+
+import com.store.main.dto.response.ReviewResponse;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Custom repository fragment for the product review feed.
+ */
+public interface ReviewFeedRepository {
+
+    /**
+     * Feed order.
+     */
+    enum Sort {
+        /**
+         * created_at DESC, id DESC
+         */
+        NEWEST,
+        /**
+         * helpful_count DESC, id DESC
+         */
+        HELPFUL
+    }
+
+    /**
+     * Position of the last review of the previous page.
+     */
+    record Position(LocalDateTime createdAt, Long helpfulCount, Long id) {
+    }
+
+    /**
+     * Page of a product's reviews with author names, using keyset paging.
+     * @param productId the product ID
+     * @param rating optional star rating filter (1-5)
+     * @param sort feed order
+     * @param after position of the last review of the previous page, or null for the first page
+     * @param limit maximum number of reviews returned
+     * @return review rows in feed order
+     */
+    List<ReviewResponse> findFeed(Long productId, Integer rating, Sort sort, Position after, int limit);
+}
@@ -0,0 +1,69 @@
+package com.store.main.repository;
+
+import com.store.main.dto.response.ReviewResponse;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * SQL implementation of ReviewFeedRepository.
+ *
+ * Newest-first pages are read in index order from idx_reviews_product_created_desc
+ * (or idx_reviews_product_rating_created_desc when filtering by rating), and
+ * most-helpful pages from idx_reviews_product_helpful_desc. Each page continues
+ * after the sort key and id of the previous page's last row, so every page costs
+ * the same however deep the reader scrolls. Author names come from the same query.
+ */
+public class ReviewFeedRepositoryImpl implements ReviewFeedRepository {
+
+    private static final String FEED_SQL =
+            "SELECT r.id, r.product_id, r.user_id, u.username, r.rating, r.comment, " +
+            "r.is_verified_purchase, r.created_at, r.helpful_count " +
+            "FROM reviews r JOIN users u ON u.id = r.user_id " +
+            "WHERE r.product_id = :productId";
+
+    private static final RowMapper<ReviewResponse> REVIEW_ROW = (rs, rowNum) -> new ReviewResponse(
+            rs.getLong("id"),
+            rs.getLong("product_id"),
+            rs.getLong("user_id"),
+            rs.getString("username"),
+            rs.getInt("rating"),
+            rs.getString("comment"),
+            rs.getBoolean("is_verified_purchase"),
+            rs.getTimestamp("created_at").toLocalDateTime(),
+            rs.getLong("helpful_count"));
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public ReviewFeedRepositoryImpl(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public List<ReviewResponse> findFeed(Long productId, Integer rating, Sort sort, Position after, int limit) {
+        StringBuilder sql = new StringBuilder(FEED_SQL);
+        MapSqlParameterSource params = new MapSqlParameterSource("productId", productId)
+                .addValue("limit", limit);
+        if (rating != null) {
+            sql.append(" AND r.rating = :rating");
+            params.addValue("rating", rating);
+        }
+        if (sort == Sort.HELPFUL) {
+            if (after != null) {
+                sql.append(" AND (r.helpful_count, r.id) < (:afterHelpfulCount, :afterId)");
+                params.addValue("afterHelpfulCount", after.helpfulCount()).addValue("afterId", after.id());
+            }
+            sql.append(" ORDER BY r.helpful_count DESC, r.id DESC LIMIT :limit");
+        } else {
+            if (after != null) {
+                sql.append(" AND (r.created_at, r.id) < (:afterCreatedAt, :afterId)");
+                params.addValue("afterCreatedAt", Timestamp.valueOf(after.createdAt())).addValue("afterId", after.id());
+            }
+            sql.append(" ORDER BY r.created_at DESC, r.id DESC LIMIT :limit");
+        }
+        return jdbcTemplate.query(sql.toString(), params, REVIEW_ROW);
+    }
+}
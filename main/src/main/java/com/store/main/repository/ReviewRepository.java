@@ -1,8 +1,8 @@
 package com.store.main.repository;
 
+import com.store.main.dto.response.ReviewResponse;
 import com.store.main.model.Product;
 import com.store.main.model.Review;
-import com.store.main.model.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -14,7 +14,7 @@ import org.springframework.stereotype.Repository;
  * Repository interface for Review entity operations.
  */
 @Repository
-public interface ReviewRepository extends JpaRepository<Review, Long> {
+public interface ReviewRepository extends JpaRepository<Review, Long>, ReviewFeedRepository {
 
     /**
      * Find all reviews for a specific product.
@@ -29,10 +29,28 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
      */
     Page<Review> findByProductOrderByCreatedAtDesc(Product product, Pageable pageable);
 
+    /**
+     * Page of a product's reviews, newest first, as DTOs with the author name from one join.
+     * @param productId the product ID
+     * @param pageable pagination parameters
+     * @return page of review rows
+     */
+    @Query(value = "SELECT new com.store.main.dto.response.ReviewResponse(" +
+                   "r.id, r.product.id, u.id, u.username, r.rating, r.comment, r.isVerifiedPurchase, r.createdAt, " +
+                   "r.helpfulCount) " +
+                   "FROM Review r JOIN r.user u " +
+                   "WHERE r.product.id = :productId " +
+                   "ORDER BY r.createdAt DESC, r.id DESC",
+           countQuery = "SELECT COUNT(r) FROM Review r WHERE r.product.id = :productId")
+    Page<ReviewResponse> findResponsesByProductId(@Param("productId") Long productId, Pageable pageable);
+
     /**
      * Find all reviews by a user ordered by creation date.
+     * @param userId the user ID
+     * @param pageable pagination parameters
+     * @return page of the user's reviews, newest first
      */
-    Page<Review> findByUserOrderByCreatedAtDesc(User user, Pageable pageable);
+    Page<Review> findByUserIdOrderByCreatedAtDesc(Long userId, Pageable pageable);
 
     /**
      * Find all reviews for a specific product ID.
@@ -42,20 +60,6 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
      */
     Page<Review> findByProductId(Long productId, Pageable pageable);
 
-    /**
-     * Calculate the average rating for a product.
-     * @param productId the product ID
-     * @return the average rating (1-5), or null if no reviews exist
-     */
-    @Query("SELECT AVG(r.rating) FROM Review r WHERE r.product.id = :productId")
-    Double getAverageRatingByProductId(@Param("productId") Long productId);
-
-    /**
-     * Alias for average rating method.
-     */
-    @Query("SELECT AVG(r.rating) FROM Review r WHERE r.product.id = :productId")
-    Double findAverageRatingByProductId(@Param("productId") Long productId);
-
     /**
      * Check if a user has already reviewed a product.
      * @param userId the user ID
@@ -63,9 +67,4 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
      * @return true if a review exists, false otherwise
      */
     Boolean existsByUserIdAndProductId(Long userId, Long productId);
-
-    /**
-     * Check if a user has already reviewed a product (entity-based).
-     */
-    Boolean existsByUserAndProduct(User user, Product product);
 }
@@ -0,0 +1,40 @@
+package com.store.main.repository;
+
+import com.store.main.dto.response.SalesBreakdownResponse;
+import com.store.main.model.SalesDailyCategory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Repository interface for daily per-category sales rollups.
+ */
+@Repository
+public interface SalesDailyCategoryRepository extends JpaRepository<SalesDailyCategory, SalesDailyCategory.Key> {
+
+    /**
+     * Sum the daily rows of a date range per category, highest net revenue first.
+     * @param from first day included
+     * @param to last day included
+     * @param pageable page size limits the number of categories returned
+     * @return one row per category sold in the range
+     */
+    @Query("SELECT new com.store.main.dto.response.SalesBreakdownResponse(" +
+           "s.categoryId, x.name, SUM(s.orders), SUM(s.units), SUM(s.revenue), " +
+           "SUM(s.cancelledOrders), SUM(s.cancelledUnits), SUM(s.cancelledRevenue), " +
+           "SUM(s.deliveredOrders), SUM(s.deliveredUnits), SUM(s.deliveredRevenue)) " +
+           "FROM SalesDailyCategory s LEFT JOIN Category x ON x.id = s.categoryId " +
+           "WHERE s.salesDate BETWEEN :from AND :to " +
+           "GROUP BY s.categoryId, x.name " +
+           "ORDER BY SUM(s.revenue) - SUM(s.cancelledRevenue) DESC, s.categoryId")
+    List<SalesBreakdownResponse> sumByCategory(
+        @Param("from") LocalDate from,
+        @Param("to") LocalDate to,
+        Pageable pageable
+    );
+}
@@ -0,0 +1,40 @@
+package com.store.main.repository;
+
+import com.store.main.dto.response.SalesBreakdownResponse;
+import com.store.main.model.SalesDailyProduct;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Repository interface for daily per-product sales rollups.
+ */
+@Repository
+public interface SalesDailyProductRepository extends JpaRepository<SalesDailyProduct, SalesDailyProduct.Key> {
+
+    /**
+     * Sum the daily rows of a date range per product, highest net revenue first.
+     * @param from first day included
+     * @param to last day included
+     * @param pageable page size limits the number of products returned
+     * @return one row per product sold in the range
+     */
+    @Query("SELECT new com.store.main.dto.response.SalesBreakdownResponse(" +
+           "s.productId, x.name, SUM(s.orders), SUM(s.units), SUM(s.revenue), " +
+           "SUM(s.cancelledOrders), SUM(s.cancelledUnits), SUM(s.cancelledRevenue), " +
+           "SUM(s.deliveredOrders), SUM(s.deliveredUnits), SUM(s.deliveredRevenue)) " +
+           "FROM SalesDailyProduct s LEFT JOIN Product x ON x.id = s.productId " +
+           "WHERE s.salesDate BETWEEN :from AND :to " +
+           "GROUP BY s.productId, x.name " +
+           "ORDER BY SUM(s.revenue) - SUM(s.cancelledRevenue) DESC, s.productId")
+    List<SalesBreakdownResponse> sumByProduct(
+        @Param("from") LocalDate from,
+        @Param("to") LocalDate to,
+        Pageable pageable
+    );
+}
@@ -0,0 +1,23 @@
+package com.store.main.repository;
+
+import com.store.main.model.SalesDaily;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Repository interface for daily store-wide sales rollups.
+ */
+@Repository
+public interface SalesDailyRepository extends JpaRepository<SalesDaily, LocalDate> {
+
+    /**
+     * Find the rollup rows of a date range; days without orders have no row.
+     * @param from first day included
+     * @param to last day included
+     * @return one row per day with orders, oldest first
+     */
+    List<SalesDaily> findBySalesDateBetweenOrderBySalesDate(LocalDate from, LocalDate to);
+}
@@ -0,0 +1,12 @@
+package com.store.main.repository;
+
+import com.store.main.model.SalesRollupEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository interface for pending sales rollup events.
+ */
+@Repository
+public interface SalesRollupEventRepository extends JpaRepository<SalesRollupEvent, Long> {
+}
@@ -0,0 +1,32 @@
+package com.store.main.repository;
+
+import com.store.main.model.UserPurchasedProduct;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+
+/**
+ * Repository interface for the products each user has received.
+ */
+@Repository
+public interface UserPurchasedProductRepository extends JpaRepository<UserPurchasedProduct, UserPurchasedProduct.Key> {
+
+    /**
+     * Record every product of the given orders as received by the order's user.
+     * Pairs already recorded keep their first delivery time.
+     * @param orderIds orders that were just delivered
+     * @return number of new user / product pairs
+     */
+    @Modifying
+    @Query(value = "INSERT INTO user_purchased_products (user_id, product_id, first_delivered_at) " +
+                   "SELECT DISTINCT o.user_id, oi.product_id, CURRENT_TIMESTAMP " +
+                   "FROM orders o JOIN order_items oi ON oi.order_id = o.id " +
+                   "WHERE o.id IN (:orderIds) " +
+                   "ON CONFLICT (user_id, product_id) DO NOTHING",
+           nativeQuery = true)
+    int recordDeliveredOrders(@Param("orderIds") Collection<Long> orderIds);
+}
@@ -2,6 +2,8 @@ package com.store.main.repository;
 
 import com.store.main.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -39,4 +41,22 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * @return true if the email exists, false otherwise
      */
     Boolean existsByEmail(String email);
+
+    /**
+     * Get a user's current token version.
+     * @param id the user ID
+     * @return Optional containing the version if the user exists
+     */
+    @Query("SELECT u.tokenVersion FROM User u WHERE u.id = :id")
+    Optional<Integer> findTokenVersionById(@Param("id") Long id);
+
+    /**
+     * Bump a user's token version, revoking all tokens issued before.
+     * Must run in a read-write transaction.
+     * @param id the user ID
+     * @return Optional containing the new version if the user exists
+     */
+    @Query(value = "UPDATE users SET token_version = token_version + 1 WHERE id = :id RETURNING token_version",
+           nativeQuery = true)
+    Optional<Integer> incrementTokenVersion(@Param("id") Long id);
 }
@@ -1,5 +1,6 @@
 package com.store.main.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -19,6 +20,11 @@ import java.io.IOException;
 /**
  * Filter to intercept requests and validate JWT tokens.
  * Executes once per request before reaching the controller.
+ * Each token is verified and parsed once (see JwtUtils.verify).
+ *
+ * The principal (user ID, username, roles) comes from the token's claims; the only
+ * per-request check is the user's token version, served from TokenVersionService's
+ * in-memory cache.
  */
 public class AuthTokenFilter extends OncePerRequestFilter {
 
@@ -30,6 +36,9 @@ public class AuthTokenFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsServiceImpl userDetailsService;
 
+    @Autowired
+    private TokenVersionService tokenVersionService;
+
     /**
      * Main filter logic to validate JWT and set authentication.
      */
@@ -38,10 +47,9 @@ public class AuthTokenFilter extends OncePerRequestFilter {
             throws ServletException, IOException {
         try {
             String jwt = parseJwt(request);
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUserNameFromJwtToken(jwt);
-
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            Claims claims = jwt != null ? jwtUtils.verify(jwt) : null;
+            UserDetails userDetails = claims != null ? loadPrincipal(claims) : null;
+            if (userDetails != null) {
                 UsernamePasswordAuthenticationToken authentication =
                         new UsernamePasswordAuthenticationToken(
                                 userDetails,
@@ -59,6 +67,24 @@ public class AuthTokenFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * Build the principal from the token's claims, rejecting revoked tokens.
+     * Tokens issued before user ID and roles were embedded fall back to a database
+     * lookup until they expire.
+     * @return the principal, or null if the token has been revoked
+     */
+    private UserDetails loadPrincipal(Claims claims) {
+        UserDetailsImpl principal = jwtUtils.getPrincipal(claims);
+        if (principal == null) {
+            return userDetailsService.loadUserByUsername(claims.getSubject());
+        }
+        if (!tokenVersionService.isCurrent(principal.getId(), principal.getTokenVersion())) {
+            logger.debug("Rejected revoked JWT for user {}", principal.getId());
+            return null;
+        }
+        return principal;
+    }
+
     /**
      * Parse JWT token from Authorization header.
      * Expected format: "Bearer <token>"
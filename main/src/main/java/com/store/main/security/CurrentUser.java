@@ -0,0 +1,23 @@
+package com.store.main.security;
+
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Injects the current user (UserDetailsImpl) into a controller method parameter.
+ *
+ * The principal is built once per request by AuthTokenFilter from the JWT claims and
+ * already carries the user ID, so services can be called by ID without looking the
+ * user up by username.
+ */
+@Target({ElementType.PARAMETER, ElementType.ANNOTATION_TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@AuthenticationPrincipal
+public @interface CurrentUser {
+}
@@ -3,94 +3,111 @@ package com.store.main.security;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.util.Date;
+import java.util.List;
 
 /**
  * Utility class for JWT token operations.
  * Handles token generation, parsing, and validation.
+ *
+ * The signing key and the (thread-safe) parser are built once at startup. verify()
+ * parses and checks a token once and returns its claims.
+ *
+ * Tokens embed the user ID, roles and token version, so the request principal is
+ * built from the claims (getPrincipal) rather than from the database.
  */
 @Component
 public class JwtUtils {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtUtils.class);
 
+    private static final String CLAIM_USER_ID = "uid";
+    private static final String CLAIM_EMAIL = "email";
+    private static final String CLAIM_ROLES = "roles";
+    private static final String CLAIM_TOKEN_VERSION = "ver";
+
     @Value("${app.jwtSecret}")
     private String jwtSecret;
 
     @Value("${app.jwtExpirationMs}")
     private int jwtExpirationMs;
 
+    private SecretKey signingKey;
+    private JwtParser parser;
+
     /**
-     * Get the signing key from the secret.
+     * Build the signing key and parser once.
      */
-    private SecretKey getSigningKey() {
+    @PostConstruct
+    void init() {
         byte[] keyBytes = Decoders.BASE64.decode(jwtSecret);
-        return Keys.hmacShaKeyFor(keyBytes);
+        signingKey = Keys.hmacShaKeyFor(keyBytes);
+        parser = Jwts.parser().verifyWith(signingKey).build();
     }
 
     /**
      * Generate JWT token from authentication.
+     * Besides the username (subject) the token carries the user ID, email, roles and
+     * token version, so requests can be authenticated without loading the user.
      * @param authentication Spring Security authentication object
      * @return JWT token string
      */
     public String generateJwtToken(Authentication authentication) {
         UserDetailsImpl userPrincipal = (UserDetailsImpl) authentication.getPrincipal();
+        List<String> roles = userPrincipal.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList();
 
         return Jwts.builder()
                 .subject(userPrincipal.getUsername())
+                .claim(CLAIM_USER_ID, userPrincipal.getId())
+                .claim(CLAIM_EMAIL, userPrincipal.getEmail())
+                .claim(CLAIM_ROLES, roles)
+                .claim(CLAIM_TOKEN_VERSION, userPrincipal.getTokenVersion())
                 .issuedAt(new Date())
                 .expiration(new Date((new Date()).getTime() + jwtExpirationMs))
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
     /**
-     * Generate JWT token from username.
-     * @param username the username
-     * @return JWT token string
+     * Build the request principal from verified token claims.
+     * @param claims claims returned by verify()
+     * @return the principal (without password), or null for tokens issued before
+     *         user ID and roles were embedded
      */
-    public String generateTokenFromUsername(String username) {
-        return Jwts.builder()
-                .subject(username)
-                .issuedAt(new Date())
-                .expiration(new Date((new Date()).getTime() + jwtExpirationMs))
-                .signWith(getSigningKey())
-                .compact();
-    }
-
-    /**
-     * Extract username from JWT token.
-     * @param token JWT token string
-     * @return username
-     */
-    public String getUserNameFromJwtToken(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .getSubject();
+    public UserDetailsImpl getPrincipal(Claims claims) {
+        Long userId = claims.get(CLAIM_USER_ID, Long.class);
+        Integer tokenVersion = claims.get(CLAIM_TOKEN_VERSION, Integer.class);
+        List<?> roles = claims.get(CLAIM_ROLES, List.class);
+        if (userId == null || tokenVersion == null || roles == null) {
+            return null;
+        }
+        List<GrantedAuthority> authorities = roles.stream()
+                .map(role -> (GrantedAuthority) new SimpleGrantedAuthority(String.valueOf(role)))
+                .toList();
+        return new UserDetailsImpl(userId, claims.getSubject(), claims.get(CLAIM_EMAIL, String.class),
+                null, authorities, tokenVersion);
     }
 
     /**
-     * Validate JWT token.
+     * Verify a JWT token and return its claims.
      * @param authToken JWT token string
-     * @return true if valid, false otherwise
+     * @return the token's claims, or null if it is invalid or expired
      */
-    public boolean validateJwtToken(String authToken) {
+    public Claims verify(String authToken) {
         try {
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(authToken);
-            return true;
+            return parser.parseSignedClaims(authToken).getPayload();
         } catch (MalformedJwtException e) {
             logger.error("Invalid JWT token: {}", e.getMessage());
         } catch (ExpiredJwtException e) {
@@ -99,7 +116,28 @@ public class JwtUtils {
             logger.error("JWT token is unsupported: {}", e.getMessage());
         } catch (IllegalArgumentException e) {
             logger.error("JWT claims string is empty: {}", e.getMessage());
+        } catch (JwtException e) {
+            logger.error("JWT token is invalid: {}", e.getMessage());
         }
-        return false;
+        return null;
+    }
+
+    /**
+     * Extract username from JWT token.
+     * @param token JWT token string
+     * @return username, or null if the token is invalid
+     */
+    public String getUserNameFromJwtToken(String token) {
+        Claims claims = verify(token);
+        return claims != null ? claims.getSubject() : null;
+    }
+
+    /**
+     * Validate JWT token.
+     * @param authToken JWT token string
+     * @return true if valid, false otherwise
+     */
+    public boolean validateJwtToken(String authToken) {
+        return verify(authToken) != null;
     }
 }
@@ -0,0 +1,132 @@
+package com.store.main.security;
+
+import com.store.main.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Per-user token versions, used to revoke JWTs without a database lookup per request.
+ *
+ * Every token carries the users.token_version it was issued with. A token is accepted
+ * only while that still matches the user's current version; revoke() bumps the version,
+ * which invalidates all of the user's earlier tokens (logout, role change).
+ *
+ * Current versions are kept in a concurrent map bounded by app.tokenVersion.maxEntries,
+ * so lookups never contend on a lock. An entry is reloaded after ttlMs, and also when a
+ * token shows a newer version than the cached one. Unknown users are cached too, so
+ * tokens of a deleted user do not hit the database on every request. A cache write
+ * never replaces a higher version with a lower one, so a request that read the old
+ * version just before a revoke committed cannot put it back. A revoke therefore applies
+ * on this instance as soon as it commits, and on other instances within ttlMs.
+ */
+@Service
+public class TokenVersionService {
+
+    // Cached version of a user that does not exist
+    private static final int NO_USER = -1;
+
+    private record Entry(int version, long loadedAtMs) {
+    }
+
+    private final UserRepository userRepository;
+    private final int maxEntries;
+    private final long ttlMs;
+    private final Map<Long, Entry> versions = new ConcurrentHashMap<>();
+    private final AtomicBoolean pruning = new AtomicBoolean();
+
+    public TokenVersionService(UserRepository userRepository,
+                               @Value("${app.tokenVersion.maxEntries:10000}") int maxEntries,
+                               @Value("${app.tokenVersion.ttlMs:30000}") long ttlMs) {
+        this.userRepository = userRepository;
+        this.maxEntries = maxEntries;
+        this.ttlMs = ttlMs;
+    }
+
+    /**
+     * Check whether a token issued with the given version is still valid for the user.
+     * @param userId the user ID from the token
+     * @param tokenVersion the version from the token
+     * @return false if the user was deleted or the token has been revoked
+     */
+    public boolean isCurrent(Long userId, int tokenVersion) {
+        long now = System.currentTimeMillis();
+        Entry entry = versions.get(userId);
+        if (entry != null && now - entry.loadedAtMs() < ttlMs
+                && (entry.version() == NO_USER || tokenVersion <= entry.version())) {
+            return tokenVersion == entry.version();
+        }
+        // Miss, stale entry, or a token newer than the cached version (revoked elsewhere)
+        Integer current = userRepository.findTokenVersionById(userId).orElse(null);
+        if (current == null) {
+            versions.put(userId, new Entry(NO_USER, now));
+            pruneIfFull(now);
+            return false;
+        }
+        return tokenVersion == remember(userId, current, now);
+    }
+
+    /**
+     * Revoke all tokens issued to the user so far.
+     * The new version is cached once the bump commits.
+     * @param userId the user ID
+     * @return false if there is no such user
+     */
+    @Transactional
+    public boolean revoke(Long userId) {
+        Integer newVersion = userRepository.incrementTokenVersion(userId).orElse(null);
+        if (newVersion == null) {
+            return false;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remember(userId, newVersion, System.currentTimeMillis());
+                }
+            });
+        } else {
+            remember(userId, newVersion, System.currentTimeMillis());
+        }
+        return true;
+    }
+
+    /**
+     * Cache a version read or written at the given time, keeping the higher version
+     * if the entry already holds one.
+     * @return the version now cached for the user
+     */
+    private int remember(Long userId, int version, long loadedAtMs) {
+        int cached = versions.merge(userId, new Entry(version, loadedAtMs),
+                (old, loaded) -> loaded.version() >= old.version() ? loaded : old).version();
+        pruneIfFull(loadedAtMs);
+        return cached;
+    }
+
+    /**
+     * Keep the map within maxEntries: drop expired entries first, then arbitrary ones.
+     * Only one caller prunes at a time; the others carry on.
+     */
+    private void pruneIfFull(long now) {
+        if (versions.size() <= maxEntries || !pruning.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            versions.values().removeIf(entry -> now - entry.loadedAtMs() >= ttlMs);
+            Iterator<Long> it = versions.keySet().iterator();
+            while (versions.size() > maxEntries && it.hasNext()) {
+                it.next();
+                it.remove();
+            }
+        } finally {
+            pruning.set(false);
+        }
+    }
+}
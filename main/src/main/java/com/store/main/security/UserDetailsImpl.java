@@ -14,6 +14,9 @@ import java.util.stream.Collectors;
 /**
  * Implementation of Spring Security's UserDetails interface.
  * Wraps our User entity to work with Spring Security.
+ *
+ * On authenticated requests it is rebuilt from the JWT claims (see JwtUtils.getPrincipal),
+ * so it has no password there.
  */
 public class UserDetailsImpl implements UserDetails {
 
@@ -28,13 +31,16 @@ public class UserDetailsImpl implements UserDetails {
 
     private final Collection<? extends GrantedAuthority> authorities;
 
+    private final int tokenVersion;
+
     public UserDetailsImpl(Long id, String username, String email, String password,
-                           Collection<? extends GrantedAuthority> authorities) {
+                           Collection<? extends GrantedAuthority> authorities, int tokenVersion) {
         this.id = id;
         this.username = username;
         this.email = email;
         this.password = password;
         this.authorities = authorities;
+        this.tokenVersion = tokenVersion;
     }
 
     /**
@@ -52,7 +58,8 @@ public class UserDetailsImpl implements UserDetails {
                 user.getUsername(),
                 user.getEmail(),
                 user.getPassword(),
-                authorities
+                authorities,
+                user.getTokenVersion() != null ? user.getTokenVersion() : 0
         );
     }
 
@@ -69,6 +76,10 @@ public class UserDetailsImpl implements UserDetails {
         return email;
     }
 
+    public int getTokenVersion() {
+        return tokenVersion;
+    }
+
     @Override
     public String getPassword() {
         return password;
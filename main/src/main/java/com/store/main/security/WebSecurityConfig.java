@@ -1,5 +1,6 @@
 package com.store.main.security;
 
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -92,10 +93,14 @@ public class WebSecurityConfig {
                 .authorizeHttpRequests(auth -> auth
                         // Allow all OPTIONS requests (CORS preflight)
                         .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
+                        // Async re-dispatch of streamed responses (order export) was authorized on the original request
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
 
                         // Public endpoints (no authentication required)
                         .requestMatchers("/api/auth/**").permitAll()
                         .requestMatchers("/api/public/**").permitAll()
+                        // Guest carts are carried in signed tokens, no account needed
+                        .requestMatchers("/api/guest-cart/**").permitAll()
                         .requestMatchers("/error").permitAll()
                         // Swagger/OpenAPI documentation endpoints
                         .requestMatchers("/swagger-ui/**", "/swagger-ui.html", "/v3/api-docs/**").permitAll()
@@ -5,12 +5,14 @@ import com.store.main.dto.request.RegisterRequest;
 import com.store.main.dto.response.JwtResponse;
 import com.store.main.dto.response.MessageResponse;
 import com.store.main.exception.DuplicateResourceException;
+import com.store.main.exception.ResourceNotFoundException;
 import com.store.main.model.Role;
 import com.store.main.model.User;
 import com.store.main.model.enums.ERole;
 import com.store.main.repository.RoleRepository;
 import com.store.main.repository.UserRepository;
 import com.store.main.security.JwtUtils;
+import com.store.main.security.TokenVersionService;
 import com.store.main.security.UserDetailsImpl;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -27,7 +29,7 @@ import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
- * Service for authentication operations (register, login).
+ * Service for authentication operations (register, login, logout).
  */
 @Service
 public class AuthService {
@@ -47,6 +49,12 @@ public class AuthService {
     @Autowired
     private JwtUtils jwtUtils;
 
+    @Autowired
+    private GuestCartService guestCartService;
+
+    @Autowired
+    private TokenVersionService tokenVersionService;
+
     /**
      * Authenticate user and generate JWT token.
      * @param loginRequest login credentials
@@ -69,6 +77,9 @@ public class AuthService {
 
         // Get user details
         UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+
+        // Carry over anything the visitor put in their cart before logging in
+        guestCartService.mergeIntoUserCart(userDetails.getId(), loginRequest.getGuestCart());
         List<String> roles = userDetails.getAuthorities().stream()
                 .map(item -> item.getAuthority())
                 .collect(Collectors.toList());
@@ -138,8 +149,32 @@ public class AuthService {
         }
 
         user.setRoles(roles);
-        userRepository.save(user);
+        // Flushed right away: the guest cart merge below writes rows referencing this user
+        User savedUser = userRepository.saveAndFlush(user);
+
+        // Carry over anything the visitor put in their cart before registering
+        guestCartService.mergeIntoUserCart(savedUser.getId(), registerRequest.getGuestCart());
 
         return new MessageResponse("User registered successfully!");
     }
+
+    /**
+     * Log a user out of all sessions by revoking every token issued to them.
+     * @param userId the user ID
+     * @return success message
+     */
+    public MessageResponse logout(Long userId) {
+        revokeTokens(userId);
+        return new MessageResponse("Logged out successfully!");
+    }
+
+    /**
+     * Revoke every token issued to a user, e.g. after changing their roles.
+     * @param userId the user ID
+     */
+    public void revokeTokens(Long userId) {
+        if (!tokenVersionService.revoke(userId)) {
+            throw new ResourceNotFoundException("User", "id", userId);
+        }
+    }
 }
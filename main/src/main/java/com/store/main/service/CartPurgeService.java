@@ -0,0 +1,190 @@
+package com.store.main.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Scheduled cleanup of abandoned carts.
+ *
+ * Carts whose contents have not been written for app.cart.purge.maxAgeDays are deleted,
+ * together with their items, in small batches. Each batch is its own short transaction
+ * that locks only the rows it deletes (FOR UPDATE SKIP LOCKED), so a run never blocks
+ * cart traffic for long. Candidates are walked in (updated_at, id) order with a keyset
+ * cursor over idx_carts_updated_at_id.
+ *
+ * Carts currently held in the CartStore are skipped; a purged user simply gets a new,
+ * empty cart on their next visit.
+ */
+@Service
+@Slf4j
+public class CartPurgeService {
+
+    /**
+     * Rows reclaimed by one purge run.
+     */
+    public record PurgeResult(int carts, int cartItems, int batches, long elapsedMs) {
+    }
+
+    private static final String CUTOFF_SQL =
+            "SELECT CURRENT_TIMESTAMP - make_interval(days => :days)";
+
+    private static final String FIRST_CANDIDATES_SQL =
+            "SELECT id, updated_at FROM carts WHERE updated_at < :cutoff " +
+            "ORDER BY updated_at, id LIMIT :limit FOR UPDATE SKIP LOCKED";
+
+    private static final String NEXT_CANDIDATES_SQL =
+            "SELECT id, updated_at FROM carts WHERE updated_at < :cutoff " +
+            "AND (updated_at, id) > (:lastUpdatedAt, :lastId) " +
+            "ORDER BY updated_at, id LIMIT :limit FOR UPDATE SKIP LOCKED";
+
+    private static final String DELETE_ITEMS_SQL =
+            "DELETE FROM cart_items WHERE cart_id IN (:ids)";
+
+    private static final String DELETE_CARTS_SQL =
+            "DELETE FROM carts WHERE id IN (:ids)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CartStore cartStore;
+
+    @Value("${app.cart.purge.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.cart.purge.maxAgeDays:30}")
+    private int maxAgeDays;
+
+    @Value("${app.cart.purge.batchSize:500}")
+    private int batchSize;
+
+    @Value("${app.cart.purge.maxBatchesPerRun:200}")
+    private int maxBatchesPerRun;
+
+    @Value("${app.cart.purge.pauseMs:50}")
+    private long pauseMs;
+
+    public CartPurgeService(NamedParameterJdbcTemplate jdbcTemplate,
+                            PlatformTransactionManager transactionManager,
+                            CartStore cartStore) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.cartStore = cartStore;
+    }
+
+    /**
+     * Scheduled entry point; runs off-peak by default.
+     */
+    @Scheduled(cron = "${app.cart.purge.cron:0 30 3 * * *}")
+    public void scheduledPurge() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            purgeAbandonedCarts();
+        } catch (RuntimeException e) {
+            log.error("Abandoned cart purge failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Delete carts untouched for longer than the configured age.
+     * @return number of cart and cart item rows deleted
+     */
+    public PurgeResult purgeAbandonedCarts() {
+        long started = System.currentTimeMillis();
+        Timestamp cutoff = jdbcTemplate.queryForObject(CUTOFF_SQL,
+                new MapSqlParameterSource("days", maxAgeDays), Timestamp.class);
+
+        int carts = 0;
+        int items = 0;
+        int batches = 0;
+        Timestamp lastUpdatedAt = null;
+        Long lastId = null;
+
+        while (batches < maxBatchesPerRun) {
+            Batch batch = deleteBatch(cutoff, lastUpdatedAt, lastId);
+            batches++;
+            carts += batch.carts();
+            items += batch.items();
+            if (!batch.deletedIds().isEmpty()) {
+                cartStore.evictCarts(batch.deletedIds());
+            }
+            if (batch.scanned() < batchSize) {
+                break;
+            }
+            lastUpdatedAt = batch.lastUpdatedAt();
+            lastId = batch.lastId();
+            pause();
+        }
+
+        PurgeResult result = new PurgeResult(carts, items, batches, System.currentTimeMillis() - started);
+        log.info("Purged {} abandoned carts and {} cart items older than {} days in {} batches ({} ms)",
+                result.carts(), result.cartItems(), maxAgeDays, result.batches(), result.elapsedMs());
+        return result;
+    }
+
+    private Batch deleteBatch(Timestamp cutoff, Timestamp lastUpdatedAt, Long lastId) {
+        return transactionTemplate.execute(status -> {
+            MapSqlParameterSource params = new MapSqlParameterSource()
+                    .addValue("cutoff", cutoff)
+                    .addValue("limit", batchSize);
+            String sql = FIRST_CANDIDATES_SQL;
+            if (lastId != null) {
+                params.addValue("lastUpdatedAt", lastUpdatedAt).addValue("lastId", lastId);
+                sql = NEXT_CANDIDATES_SQL;
+            }
+            List<Map<String, Object>> candidates = jdbcTemplate.queryForList(sql, params);
+            if (candidates.isEmpty()) {
+                return new Batch(List.of(), 0, 0, 0, lastUpdatedAt, lastId);
+            }
+
+            // Carts being used right now may have unflushed changes; leave them alone
+            Set<Long> resident = cartStore.residentCartIds();
+            List<Long> ids = new ArrayList<>();
+            for (Map<String, Object> row : candidates) {
+                Long id = ((Number) row.get("id")).longValue();
+                if (!resident.contains(id)) {
+                    ids.add(id);
+                }
+            }
+
+            Map<String, Object> last = candidates.get(candidates.size() - 1);
+            Timestamp nextUpdatedAt = (Timestamp) last.get("updated_at");
+            Long nextId = ((Number) last.get("id")).longValue();
+            if (ids.isEmpty()) {
+                return new Batch(ids, candidates.size(), 0, 0, nextUpdatedAt, nextId);
+            }
+
+            MapSqlParameterSource idParams = new MapSqlParameterSource("ids", ids);
+            int items = jdbcTemplate.update(DELETE_ITEMS_SQL, idParams);
+            int carts = jdbcTemplate.update(DELETE_CARTS_SQL, idParams);
+            return new Batch(ids, candidates.size(), carts, items, nextUpdatedAt, nextId);
+        });
+    }
+
+    private void pause() {
+        if (pauseMs <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(pauseMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record Batch(List<Long> deletedIds, int scanned, int carts, int items,
+                         Timestamp lastUpdatedAt, Long lastId) {
+    }
+}
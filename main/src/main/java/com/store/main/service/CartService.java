@@ -1,180 +1,234 @@
 package com.store.main.service;
 
+import com.store.main.dto.request.CartBatchRequest;
 import com.store.main.dto.request.CartItemRequest;
+import com.store.main.dto.response.CartItemResponse;
+import com.store.main.dto.response.CartResponse;
 import com.store.main.exception.BadRequestException;
 import com.store.main.exception.ResourceNotFoundException;
 import com.store.main.model.Cart;
 import com.store.main.model.CartItem;
 import com.store.main.model.Product;
-import com.store.main.model.User;
 import com.store.main.repository.CartItemRepository;
 import com.store.main.repository.CartRepository;
-import com.store.main.repository.UserRepository;
-import jakarta.persistence.EntityManager;
-import jakarta.persistence.PersistenceContext;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Service for managing shopping carts.
  * Handles adding, removing, and updating cart items.
+ *
+ * Cart contents live in the in-memory CartStore and are written to the database
+ * in the background; see CartStore for the durability trade-offs.
+ *
+ * Carts are addressed by user ID, taken from the authenticated principal (see CurrentUser).
  */
 @Service
 @RequiredArgsConstructor
 public class CartService {
 
+    private final CartStore cartStore;
     private final CartRepository cartRepository;
     private final CartItemRepository cartItemRepository;
-    private final UserRepository userRepository;
     private final ProductService productService;
     private final InventoryService inventoryService;
 
-    @PersistenceContext
-    private EntityManager entityManager;
-
     /**
      * Get or create a cart for the user.
      */
-    @Transactional
-    public Cart getOrCreateCart(String username) {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new ResourceNotFoundException("User", "username", username));
-
-        return cartRepository.findByUserWithItems(user)
-                .orElseGet(() -> {
-                    Cart cart = new Cart();
-                    cart.setUser(user);
-                    return cartRepository.save(cart);
-                });
+    public CartResponse getOrCreateCart(Long userId) {
+        return toResponse(cartStore.get(userId));
     }
 
     /**
      * Get the user's cart.
      */
-    public Cart getCart(String username) {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new ResourceNotFoundException("User", "username", username));
+    public CartResponse getCart(Long userId) {
+        return getOrCreateCart(userId);
+    }
 
-        return cartRepository.findByUserWithItems(user)
-                .orElseThrow(() -> new ResourceNotFoundException("Cart", "user", username));
+    /**
+     * Get product ID to quantity for the user's cart, without loading any products.
+     */
+    public Map<Long, Integer> getCartQuantities(Long userId) {
+        return cartStore.get(userId).quantities();
     }
 
     /**
-     * Add an item to the cart or update quantity if it already exists.
+     * Get the user's cart for checkout.
+     * Forces a synchronous flush so the database matches what the user sees,
+     * then returns the cart with products loaded in the caller's transaction.
      */
     @Transactional
-    public Cart addItemToCart(String username, CartItemRequest request) {
+    public Cart getCartForCheckout(Long userId) {
+        cartStore.flush(userId);
+        return toCart(cartStore.get(userId));
+    }
+
+    /**
+     * Add an item to the cart or update quantity if it already exists.
+     */
+    public CartResponse addItemToCart(Long userId, CartItemRequest request) {
         // Validate quantity
         if (request.getQuantity() <= 0) {
             throw new BadRequestException("Quantity must be positive");
         }
 
-        // Get or create cart
-        Cart cart = getOrCreateCart(username);
-
-        // Get product and check stock
         Product product = productService.getProductById(request.getProductId());
+        // Read before update(): the store holds the cart's lock while the mutation runs
+        int available = inventoryService.getAvailableStock(product.getId());
 
-        if (!inventoryService.hasStock(product.getId(), request.getQuantity())) {
-            throw new BadRequestException("Insufficient stock for product: " + product.getName());
-        }
-
-        // Check if item already exists in cart
-        CartItem existingItem = cartItemRepository.findByCartAndProduct(cart, product)
-                .orElse(null);
+        CartStore.Snapshot snapshot = cartStore.update(userId, items -> {
+            int newQuantity = items.quantity(product.getId()) + request.getQuantity();
+            ensureStock(product, newQuantity, available);
+            items.set(product.getId(), newQuantity, product.getPrice());
+        });
 
-        if (existingItem != null) {
-            // Update quantity
-            int newQuantity = existingItem.getQuantity() + request.getQuantity();
-
-            // Check stock for new quantity
-            if (!inventoryService.hasStock(product.getId(), newQuantity)) {
-                throw new BadRequestException("Insufficient stock. Available: " +
-                    inventoryService.getInventoryByProductId(product.getId()).getStockQuantity());
-            }
-
-            existingItem.setQuantity(newQuantity);
-            cartItemRepository.save(existingItem);
-        } else {
-            // Create new cart item and establish bidirectional relationship
-            CartItem cartItem = new CartItem();
-            cartItem.setCart(cart);
-            cartItem.setProduct(product);
-            cartItem.setQuantity(request.getQuantity());
-
-            // Add to cart's collection (maintain bidirectional relationship)
-            cart.getItems().add(cartItem);
-
-            // Save through cart (cascade will handle cart item)
-            cartRepository.save(cart);
-        }
-
-        // Return fresh cart with items
-        return cartRepository.findByIdWithItems(cart.getId()).orElseThrow(
-            () -> new ResourceNotFoundException("Cart", "id", cart.getId())
-        );
+        return toResponse(snapshot);
     }
 
     /**
      * Update the quantity of a cart item.
      */
-    @Transactional
-    public Cart updateCartItemQuantity(String username, Long productId, Integer quantity) {
+    public CartResponse updateCartItemQuantity(Long userId, Long productId, Integer quantity) {
         if (quantity <= 0) {
             throw new BadRequestException("Quantity must be positive");
         }
 
-        Cart cart = getCart(username);
         Product product = productService.getProductById(productId);
+        int available = inventoryService.getAvailableStock(productId);
 
-        CartItem cartItem = cartItemRepository.findByCartAndProduct(cart, product)
-                .orElseThrow(() -> new ResourceNotFoundException("CartItem", "productId", productId));
+        CartStore.Snapshot snapshot = cartStore.update(userId, items -> {
+            if (!items.contains(productId)) {
+                throw new ResourceNotFoundException("CartItem", "productId", productId);
+            }
+            ensureStock(product, quantity, available);
+            items.set(productId, quantity, product.getPrice());
+        });
 
-        // Check stock
-        if (!inventoryService.hasStock(productId, quantity)) {
-            throw new BadRequestException("Insufficient stock. Available: " +
-                inventoryService.getInventoryByProductId(productId).getStockQuantity());
-        }
+        return toResponse(snapshot);
+    }
 
-        cartItem.setQuantity(quantity);
-        cartItemRepository.save(cartItem);
+    /**
+     * Remove an item from the cart.
+     */
+    public CartResponse removeItemFromCart(Long userId, Long productId) {
+        CartStore.Snapshot snapshot = cartStore.update(userId, items -> {
+            if (!items.remove(productId)) {
+                throw new ResourceNotFoundException("CartItem", "productId", productId);
+            }
+        });
 
-        return cart;
+        return toResponse(snapshot);
     }
 
     /**
-     * Remove an item from the cart.
+     * Apply a list of add / set-quantity / remove operations atomically.
+     * Products and stock for every touched line are loaded with one query each;
+     * if any operation is invalid, none of them are applied.
      */
-    @Transactional
-    public Cart removeItemFromCart(String username, Long productId) {
-        Cart cart = getCart(username);
-        Product product = productService.getProductById(productId);
+    public CartResponse applyBatch(Long userId, CartBatchRequest request) {
+        // Only lines being added or set need their product and stock; removals work on deleted products too
+        Set<Long> productIds = request.getOperations().stream()
+                .filter(op -> op.getType() != CartBatchRequest.OperationType.REMOVE)
+                .map(CartBatchRequest.Operation::getProductId)
+                .collect(Collectors.toSet());
+        Map<Long, Product> products = productIds.isEmpty() ? Map.of()
+                : productService.getProductsByIds(productIds).stream()
+                        .collect(Collectors.toMap(Product::getId, Function.identity()));
+        Map<Long, Integer> stock = productIds.isEmpty() ? Map.of()
+                : inventoryService.getAvailableStock(productIds);
+
+        CartStore.Snapshot snapshot = cartStore.update(userId, items -> {
+            for (CartBatchRequest.Operation op : request.getOperations()) {
+                Long productId = op.getProductId();
+
+                switch (op.getType()) {
+                    case ADD, SET -> {
+                        Product product = products.get(productId);
+                        if (product == null) {
+                            throw new ResourceNotFoundException("Product", "id", productId);
+                        }
+                        if (op.getQuantity() == null || op.getQuantity() <= 0) {
+                            throw new BadRequestException("Quantity must be positive");
+                        }
+                        int newQuantity = op.getType() == CartBatchRequest.OperationType.ADD
+                                ? items.quantity(productId) + op.getQuantity()
+                                : op.getQuantity();
+                        int available = stock.getOrDefault(productId, 0);
+                        if (available < newQuantity) {
+                            throw new BadRequestException("Insufficient stock for product: " +
+                                product.getName() + ". Available: " + available);
+                        }
+                        items.set(productId, newQuantity, product.getPrice());
+                    }
+                    case REMOVE -> {
+                        if (!items.remove(productId)) {
+                            throw new ResourceNotFoundException("CartItem", "productId", productId);
+                        }
+                    }
+                }
+            }
+        });
+
+        return toResponse(snapshot);
+    }
 
-        CartItem cartItem = cartItemRepository.findByCartAndProduct(cart, product)
-                .orElseThrow(() -> new ResourceNotFoundException("CartItem", "productId", productId));
+    /**
+     * Merge guest cart lines into a user's cart in one bulk operation.
+     * Quantities are added to existing lines and capped at available stock;
+     * unknown products are skipped. The result is flushed immediately.
+     * @param userId the user ID
+     * @param lines product ID to quantity
+     */
+    public void mergeLines(Long userId, Map<Long, Integer> lines) {
+        if (lines.isEmpty()) {
+            return;
+        }
 
-        cart.getItems().remove(cartItem);
-        cartItemRepository.delete(cartItem);
+        Map<Long, Product> products = productService.getProductsByIds(lines.keySet()).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        Map<Long, Integer> stock = inventoryService.getAvailableStock(lines.keySet());
 
-        return cartRepository.save(cart);
+        cartStore.update(userId, items -> lines.forEach((productId, quantity) -> {
+            Product product = products.get(productId);
+            if (product == null) {
+                return;
+            }
+            int merged = Math.min(items.quantity(productId) + quantity, stock.getOrDefault(productId, 0));
+            if (merged > items.quantity(productId)) {
+                items.set(productId, merged, product.getPrice());
+            }
+        }));
+        cartStore.flush(userId);
     }
 
     /**
      * Clear all items from the cart.
+     * The rows are deleted in the caller's transaction (e.g. checkout) and the
+     * in-memory copy is dropped once it commits.
      */
     @Transactional
-    public void clearCart(String username) {
-        Cart cart = getCart(username);
-        cartItemRepository.deleteAll(cart.getItems());
-        cart.getItems().clear();
-        cartRepository.save(cart);
+    public void clearCart(Long userId) {
+        Long cartId = cartStore.get(userId).cartId();
+        cartItemRepository.deleteAllByCartId(cartId);
+        cartRepository.resetTotals(cartId);
+        cartStore.invalidateAfterCommit(userId);
     }
 
     /**
-     * Calculate the total price of the cart.
+     * Calculate the total price of the cart from its items' current product prices.
+     * Used at checkout, where the products are loaded anyway; cart views use the
+     * incrementally maintained Cart.subtotal instead.
      */
     public BigDecimal calculateCartTotal(Cart cart) {
         return cart.getItems().stream()
@@ -182,4 +236,53 @@ public class CartService {
                         .multiply(BigDecimal.valueOf(item.getQuantity())))
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
     }
+
+    private void ensureStock(Product product, int quantity, int available) {
+        if (available < quantity) {
+            throw new BadRequestException("Insufficient stock for product: " + product.getName() +
+                ". Available: " + available);
+        }
+    }
+
+    /**
+     * Build the cart response from a store snapshot.
+     * Product, category and stock details for all lines come from one query.
+     */
+    private CartResponse toResponse(CartStore.Snapshot snapshot) {
+        Map<Long, CartItemResponse> details = productService.getCartLineDetails(snapshot.quantities().keySet())
+                .stream()
+                .collect(Collectors.toMap(CartItemResponse::getProductId, Function.identity()));
+
+        List<CartItemResponse> items = new ArrayList<>();
+        snapshot.quantities().forEach((productId, quantity) -> {
+            CartItemResponse line = details.get(productId);
+            if (line != null) {
+                items.add(line.withQuantity(quantity));
+            }
+        });
+
+        boolean allAvailable = items.stream().allMatch(CartItemResponse::getAvailable);
+        return new CartResponse(snapshot.cartId(), items, snapshot.subtotal(), snapshot.itemCount(), allAvailable);
+    }
+
+    /**
+     * Build a Cart entity view from a store snapshot (used by checkout), loading all products with one query.
+     */
+    private Cart toCart(CartStore.Snapshot snapshot) {
+        Cart cart = new Cart();
+        cart.setId(snapshot.cartId());
+        cart.setSubtotal(snapshot.subtotal());
+        cart.setItemCount(snapshot.itemCount());
+
+        Map<Long, Product> products = productService.getProductsByIds(snapshot.quantities().keySet()).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        snapshot.quantities().forEach((productId, quantity) -> {
+            Product product = products.get(productId);
+            if (product != null) {
+                cart.getItems().add(new CartItem(cart, product, quantity));
+            }
+        });
+        return cart;
+    }
 }
@@ -0,0 +1,591 @@
+package com.store.main.service;
+
+import com.store.main.exception.ResourceNotFoundException;
+import com.store.main.model.Cart;
+import com.store.main.repository.CartRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * In-process write-behind store for active shopping carts.
+ *
+ * Carts are held in memory keyed by user ID (product ID to quantity and unit price) in a
+ * size-bounded LRU map, together with a running subtotal that every change adjusts by
+ * its delta. Mutations are applied in memory and written to carts/cart_items later,
+ * in batches, by a scheduled flush. Checkout forces a synchronous flush.
+ *
+ * Durability (app.cart.store.durability):
+ * - WRITE_BEHIND (default): a mutation is acknowledged before it reaches the database.
+ *   If the JVM crashes, cart changes made since the last flush are lost - at most
+ *   app.cart.store.flushIntervalMs worth. A graceful shutdown flushes everything.
+ * - WRITE_THROUGH: every mutation is flushed before it is acknowledged, so nothing is
+ *   lost on a crash; reads are still served from memory.
+ *
+ * A cart that cannot be written (e.g. a constraint violation) stays dirty and is retried
+ * on its own; it never holds back other carts in its batch, and an eviction triggered by
+ * another user's request never fails that request. Lines whose product has been deleted
+ * are dropped before writing.
+ *
+ * The store is local to one JVM. Running several instances requires sticky routing
+ * per user, otherwise instances will overwrite each other's cart contents.
+ */
+@Component
+@Slf4j
+public class CartStore {
+
+    public enum Durability {
+        WRITE_BEHIND,
+        WRITE_THROUGH
+    }
+
+    /**
+     * Immutable view of a cart: product ID to quantity in insertion order,
+     * plus the running subtotal and number of lines.
+     */
+    public record Snapshot(Long cartId, Map<Long, Integer> quantities, BigDecimal subtotal, int itemCount) {
+    }
+
+    /**
+     * A cart line with the unit price used for the running subtotal.
+     */
+    private record Line(int quantity, BigDecimal unitPrice) {
+        BigDecimal total() {
+            return unitPrice.multiply(BigDecimal.valueOf(quantity));
+        }
+    }
+
+    /**
+     * Mutable working copy handed to update(); keeps the subtotal in step with every change.
+     */
+    public static final class Editor {
+        private final Map<Long, Line> lines;
+        private BigDecimal subtotal;
+
+        private Editor(Map<Long, Line> lines, BigDecimal subtotal) {
+            this.lines = new LinkedHashMap<>(lines);
+            this.subtotal = subtotal;
+        }
+
+        public boolean contains(Long productId) {
+            return lines.containsKey(productId);
+        }
+
+        public int quantity(Long productId) {
+            Line line = lines.get(productId);
+            return line == null ? 0 : line.quantity();
+        }
+
+        public void set(Long productId, int quantity, BigDecimal unitPrice) {
+            Line line = new Line(quantity, unitPrice);
+            Line old = lines.put(productId, line);
+            subtotal = subtotal.add(line.total());
+            if (old != null) {
+                subtotal = subtotal.subtract(old.total());
+            }
+        }
+
+        public boolean remove(Long productId) {
+            Line old = lines.remove(productId);
+            if (old == null) {
+                return false;
+            }
+            subtotal = subtotal.subtract(old.total());
+            return true;
+        }
+    }
+
+    private static final String UPSERT_ITEM_SQL =
+            "INSERT INTO cart_items (id, cart_id, product_id, quantity) " +
+            "VALUES (nextval('cart_items_id_seq'), ?, ?, ?) " +
+            "ON CONFLICT (cart_id, product_id) DO UPDATE SET quantity = EXCLUDED.quantity";
+
+    private static final String DELETE_ITEM_SQL =
+            "DELETE FROM cart_items WHERE cart_id = ? AND product_id = ?";
+
+    private static final String UPDATE_TOTALS_SQL =
+            "UPDATE carts SET subtotal = ?, item_count = ?, updated_at = CURRENT_TIMESTAMP WHERE id = ?";
+
+    private static final String EXISTING_PRODUCTS_SQL =
+            "SELECT id FROM products WHERE id IN (:ids)";
+
+    private final CartRepository cartRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.cart.store.durability:WRITE_BEHIND}")
+    private Durability durability;
+
+    @Value("${app.cart.store.maxCarts:10000}")
+    private int maxCarts;
+
+    @Value("${app.cart.store.flushBatchSize:100}")
+    private int flushBatchSize;
+
+    // Access-ordered so the first entry is always the least recently used cart
+    private final LinkedHashMap<Long, CartEntry> entries = new LinkedHashMap<>(256, 0.75f, true);
+
+    public CartStore(CartRepository cartRepository,
+                     JdbcTemplate jdbcTemplate,
+                     NamedParameterJdbcTemplate namedJdbcTemplate,
+                     PlatformTransactionManager transactionManager) {
+        this.cartRepository = cartRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Get the user's cart, loading (or creating) it on first access.
+     */
+    public Snapshot get(Long userId) {
+        CartEntry entry = entry(userId);
+        synchronized (entry) {
+            return entry.snapshot();
+        }
+    }
+
+    /**
+     * Apply a mutation to the user's cart.
+     * The mutation may throw to reject the change; the cart is then left untouched.
+     * @param userId the user ID
+     * @param mutation edits a working copy of the cart lines
+     * @return the cart after the mutation
+     */
+    public Snapshot update(Long userId, Consumer<Editor> mutation) {
+        while (true) {
+            CartEntry entry = entry(userId);
+            Snapshot snapshot;
+            synchronized (entry) {
+                if (entry.evicted) {
+                    // Lost a race with eviction; retry against a freshly loaded entry
+                    continue;
+                }
+                Editor editor = new Editor(entry.lines, entry.subtotal);
+                mutation.accept(editor);
+                entry.lines = editor.lines;
+                entry.subtotal = editor.subtotal;
+                entry.dirty = true;
+                snapshot = entry.snapshot();
+            }
+            if (durability == Durability.WRITE_THROUGH) {
+                flushEntries(List.of(entry), true);
+            }
+            return snapshot;
+        }
+    }
+
+    /**
+     * Synchronously write the user's cart to the database.
+     * Joins the caller's transaction if there is one.
+     */
+    public void flush(Long userId) {
+        CartEntry entry;
+        synchronized (entries) {
+            entry = entries.get(userId);
+        }
+        if (entry != null && entry.dirty) {
+            flushEntries(List.of(entry), true);
+        }
+    }
+
+    /**
+     * Apply a product price change to every cart held in memory.
+     * Subtotals are adjusted by the price difference of the affected lines only.
+     */
+    public void repriceProduct(Long productId, BigDecimal newPrice) {
+        List<CartEntry> candidates;
+        synchronized (entries) {
+            candidates = new ArrayList<>(entries.values());
+        }
+        for (CartEntry entry : candidates) {
+            synchronized (entry) {
+                Line line = entry.lines.get(productId);
+                if (line == null || line.unitPrice().compareTo(newPrice) == 0) {
+                    continue;
+                }
+                Editor editor = new Editor(entry.lines, entry.subtotal);
+                editor.set(productId, line.quantity(), newPrice);
+                entry.lines = editor.lines;
+                entry.subtotal = editor.subtotal;
+                entry.dirty = true;
+            }
+        }
+    }
+
+    /**
+     * Apply a product price change to the carts in memory once the current
+     * transaction commits, so a rolled-back price change never reaches them.
+     */
+    public void repriceProductAfterCommit(Long productId, BigDecimal newPrice) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    repriceProduct(productId, newPrice);
+                }
+            });
+        } else {
+            repriceProduct(productId, newPrice);
+        }
+    }
+
+    /**
+     * Drop the user's cart from memory once the current transaction commits,
+     * so the next access reloads it from the database.
+     * Used after the cart rows were changed directly (e.g. cleared at checkout).
+     */
+    public void invalidateAfterCommit(Long userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate(userId);
+                }
+            });
+        } else {
+            invalidate(userId);
+        }
+    }
+
+    /**
+     * IDs of the carts currently held in memory.
+     */
+    public Set<Long> residentCartIds() {
+        synchronized (entries) {
+            Set<Long> cartIds = new HashSet<>();
+            entries.values().forEach(entry -> cartIds.add(entry.cartId));
+            return cartIds;
+        }
+    }
+
+    /**
+     * Drop carts whose rows were deleted (e.g. purged as abandoned) from memory,
+     * so the next access creates a fresh cart instead of flushing into a missing row.
+     */
+    public void evictCarts(Collection<Long> cartIds) {
+        Set<Long> doomed = new HashSet<>(cartIds);
+        synchronized (entries) {
+            Iterator<CartEntry> it = entries.values().iterator();
+            while (it.hasNext()) {
+                CartEntry entry = it.next();
+                if (doomed.contains(entry.cartId)) {
+                    it.remove();
+                    synchronized (entry) {
+                        entry.evicted = true;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Periodically write dirty carts to the database in batches.
+     */
+    @Scheduled(fixedDelayString = "${app.cart.store.flushIntervalMs:1000}")
+    public void flushDirty() {
+        List<CartEntry> dirty = new ArrayList<>();
+        synchronized (entries) {
+            for (CartEntry entry : entries.values()) {
+                if (entry.dirty) {
+                    dirty.add(entry);
+                }
+            }
+        }
+        for (int from = 0; from < dirty.size(); from += flushBatchSize) {
+            List<CartEntry> batch = dirty.subList(from, Math.min(from + flushBatchSize, dirty.size()));
+            try {
+                flushEntries(batch, false);
+            } catch (RuntimeException e) {
+                log.warn("Cart flush of {} carts failed, retrying cart by cart: {}", batch.size(), e.getMessage());
+                flushEachOf(batch);
+            }
+        }
+    }
+
+    /**
+     * Flush carts one transaction each, so a cart that cannot be written
+     * stays dirty without holding back the others.
+     */
+    private void flushEachOf(List<CartEntry> batch) {
+        for (CartEntry entry : batch) {
+            if (!entry.dirty) {
+                continue;
+            }
+            try {
+                flushEntries(List.of(entry), false);
+            } catch (RuntimeException e) {
+                log.error("Cart flush of cart {} failed, will retry: {}", entry.cartId, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Flush everything on graceful shutdown.
+     */
+    @PreDestroy
+    public void flushAll() {
+        flushDirty();
+    }
+
+    private void invalidate(Long userId) {
+        synchronized (entries) {
+            CartEntry entry = entries.remove(userId);
+            if (entry != null) {
+                synchronized (entry) {
+                    entry.evicted = true;
+                }
+            }
+        }
+    }
+
+    private CartEntry entry(Long userId) {
+        synchronized (entries) {
+            CartEntry entry = entries.get(userId);
+            if (entry != null) {
+                return entry;
+            }
+        }
+
+        CartEntry loaded = load(userId);
+        CartEntry result;
+        synchronized (entries) {
+            CartEntry existing = entries.putIfAbsent(userId, loaded);
+            result = existing != null ? existing : loaded;
+        }
+        evictIfNeeded();
+        return result;
+    }
+
+    private CartEntry load(Long userId) {
+        Cart cart = cartRepository.findByUserIdWithItems(userId)
+                .orElseGet(() -> transactionTemplate.execute(status -> {
+                    cartRepository.insertIfAbsent(userId);
+                    return cartRepository.findByUserIdWithItems(userId)
+                            .orElseThrow(() -> new ResourceNotFoundException("Cart", "user_id", userId));
+                }));
+
+        Map<Long, Line> lines = new LinkedHashMap<>();
+        cart.getItems().forEach(item -> lines.put(item.getProduct().getId(),
+                new Line(item.getQuantity(), item.getProduct().getPrice())));
+        return new CartEntry(cart.getId(), lines, cart.getSubtotal());
+    }
+
+    private void evictIfNeeded() {
+        while (true) {
+            CartEntry eldest;
+            synchronized (entries) {
+                if (entries.size() <= maxCarts) {
+                    return;
+                }
+                Iterator<Map.Entry<Long, CartEntry>> it = entries.entrySet().iterator();
+                Map.Entry<Long, CartEntry> first = it.next();
+                eldest = first.getValue();
+                synchronized (eldest) {
+                    if (!eldest.dirty) {
+                        it.remove();
+                        eldest.evicted = true;
+                        continue;
+                    }
+                }
+            }
+            // Dirty carts are written out before they may leave memory. This runs on
+            // another user's request, so never join its transaction or fail it: if the
+            // cart cannot be written now, leave it (and the overshoot) to the scheduled flush.
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                return;
+            }
+            try {
+                flushEntries(List.of(eldest), true);
+            } catch (RuntimeException e) {
+                log.error("Cart flush of cart {} before eviction failed, keeping it: {}",
+                        eldest.cartId, e.getMessage());
+                return;
+            }
+        }
+    }
+
+    /**
+     * Write the given carts in one transaction using JDBC batches.
+     * @param batch carts to flush
+     * @param wait whether to wait for a flush already running on the same cart
+     */
+    private void flushEntries(List<CartEntry> batch, boolean wait) {
+        List<CartEntry> locked = new ArrayList<>();
+        try {
+            for (CartEntry entry : batch) {
+                if (wait) {
+                    entry.flushLock.lock();
+                    locked.add(entry);
+                } else if (entry.flushLock.tryLock()) {
+                    locked.add(entry);
+                }
+            }
+            if (!locked.isEmpty()) {
+                writeBatch(locked);
+            }
+        } finally {
+            locked.forEach(entry -> entry.flushLock.unlock());
+        }
+    }
+
+    private void writeBatch(List<CartEntry> batch) {
+        dropDeletedProducts(batch);
+
+        Map<CartEntry, Map<Long, Line>> written = new HashMap<>();
+        Map<CartEntry, Map<Long, Line>> previous = new HashMap<>();
+        List<Object[]> upserts = new ArrayList<>();
+        List<Object[]> deletes = new ArrayList<>();
+        List<Object[]> totals = new ArrayList<>();
+
+        for (CartEntry entry : batch) {
+            Map<Long, Line> current;
+            Map<Long, Line> persisted;
+            synchronized (entry) {
+                current = entry.lines;
+                persisted = entry.persisted;
+                totals.add(new Object[]{entry.subtotal, current.size(), entry.cartId});
+            }
+            current.forEach((productId, line) -> {
+                Line old = persisted.get(productId);
+                if (old == null || old.quantity() != line.quantity()) {
+                    upserts.add(new Object[]{entry.cartId, productId, line.quantity()});
+                }
+            });
+            persisted.keySet().forEach(productId -> {
+                if (!current.containsKey(productId)) {
+                    deletes.add(new Object[]{entry.cartId, productId});
+                }
+            });
+            written.put(entry, current);
+            previous.put(entry, persisted);
+        }
+
+        boolean joined = TransactionSynchronizationManager.isActualTransactionActive();
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!upserts.isEmpty()) {
+                jdbcTemplate.batchUpdate(UPSERT_ITEM_SQL, upserts);
+            }
+            if (!deletes.isEmpty()) {
+                jdbcTemplate.batchUpdate(DELETE_ITEM_SQL, deletes);
+            }
+            jdbcTemplate.batchUpdate(UPDATE_TOTALS_SQL, totals);
+        });
+
+        written.forEach((entry, state) -> {
+            synchronized (entry) {
+                entry.persisted = state;
+                // Mutations that raced with this flush keep the entry dirty
+                entry.dirty = entry.lines != state;
+            }
+        });
+
+        if (joined) {
+            // Our writes belong to the caller's transaction; undo the bookkeeping if it rolls back
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        previous.forEach((entry, state) -> {
+                            synchronized (entry) {
+                                entry.persisted = state;
+                                entry.dirty = true;
+                            }
+                        });
+                    }
+                }
+            });
+        }
+
+        log.debug("Flushed {} carts ({} upserts, {} deletes)", batch.size(), upserts.size(), deletes.size());
+    }
+
+    /**
+     * Remove lines whose product has been deleted; their rows are already gone
+     * (ON DELETE CASCADE) and writing them would violate the foreign key.
+     */
+    private void dropDeletedProducts(List<CartEntry> batch) {
+        Set<Long> productIds = new HashSet<>();
+        for (CartEntry entry : batch) {
+            synchronized (entry) {
+                productIds.addAll(entry.lines.keySet());
+            }
+        }
+        if (productIds.isEmpty()) {
+            return;
+        }
+        Set<Long> existing = new HashSet<>(namedJdbcTemplate.queryForList(
+                EXISTING_PRODUCTS_SQL, Map.of("ids", productIds), Long.class));
+        if (existing.size() == productIds.size()) {
+            return;
+        }
+        for (CartEntry entry : batch) {
+            synchronized (entry) {
+                Editor editor = new Editor(entry.lines, entry.subtotal);
+                for (Long productId : entry.lines.keySet()) {
+                    if (!existing.contains(productId)) {
+                        editor.remove(productId);
+                    }
+                }
+                if (editor.lines.size() != entry.lines.size()) {
+                    log.info("Dropped {} deleted products from cart {}",
+                            entry.lines.size() - editor.lines.size(), entry.cartId);
+                    entry.lines = editor.lines;
+                    entry.subtotal = editor.subtotal;
+                    entry.dirty = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * In-memory state of one cart.
+     * lines and persisted are replaced, never mutated, so they can be read
+     * outside the entry lock once obtained.
+     */
+    private static class CartEntry {
+        private final Long cartId;
+        private final ReentrantLock flushLock = new ReentrantLock();
+        private Map<Long, Line> lines;
+        private Map<Long, Line> persisted;
+        private BigDecimal subtotal;
+        private volatile boolean dirty;
+        private boolean evicted;
+
+        CartEntry(Long cartId, Map<Long, Line> lines, BigDecimal subtotal) {
+            this.cartId = cartId;
+            this.lines = lines;
+            this.persisted = lines;
+            this.subtotal = subtotal;
+        }
+
+        Snapshot snapshot() {
+            Map<Long, Integer> quantities = new LinkedHashMap<>();
+            lines.forEach((productId, line) -> quantities.put(productId, line.quantity()));
+            return new Snapshot(cartId, Collections.unmodifiableMap(quantities), subtotal, lines.size());
+        }
+    }
+}
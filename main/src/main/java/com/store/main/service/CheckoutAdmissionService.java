@@ -0,0 +1,240 @@
+package com.store.main.service;
+
+import com.store.main.exception.InsufficientStockException;
+import com.store.main.exception.TooManyRequestsException;
+import com.store.main.model.Inventory;
+import com.store.main.repository.InventoryRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Admission control in front of checkout (virtual waiting room).
+ *
+ * During limited drops most checkout attempts for a hot product are bound to fail
+ * in InventoryService.removeStock. This service lets them fail before a transaction
+ * and a database connection are taken:
+ * - each product has a cap on concurrent checkouts, derived from the connection pool
+ *   size; callers beyond it are turned away at once (429) instead of parking a request
+ *   thread, and can poll GET /api/orders/checkout/queue/{productId} before retrying
+ * - units held by in-flight checkouts are tracked against the last known stock,
+ *   so once the remaining stock is spoken for new callers are rejected at once
+ *
+ * The stock snapshot is reloaded by a single caller per refresh window.
+ *
+ * State is per JVM instance and created lazily per product, so normal traffic
+ * never reaches the caps. Gates unused for app.checkout.admission.gateIdleMs are
+ * dropped, so the map only holds products checked out recently.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class CheckoutAdmissionService {
+
+    private final InventoryRepository inventoryRepository;
+
+    @Value("${app.checkout.admission.enabled:true}")
+    private boolean enabled;
+
+    // 0 = derive from the connection pool
+    @Value("${app.checkout.admission.maxConcurrentPerProduct:0}")
+    private int configuredMaxConcurrentPerProduct;
+
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+    private int connectionPoolSize;
+
+    @Value("${app.checkout.admission.stockRefreshMs:2000}")
+    private long stockRefreshMs;
+
+    @Value("${app.checkout.admission.gateIdleMs:600000}")
+    private long gateIdleMs;
+
+    private final Map<Long, ProductGate> gates = new ConcurrentHashMap<>();
+
+    private int maxConcurrentPerProduct;
+
+    /**
+     * One hot product may use at most half of the connection pool, so admitted
+     * checkouts do not queue on connections and other endpoints keep theirs.
+     */
+    @PostConstruct
+    void init() {
+        int poolShare = Math.max(1, connectionPoolSize / 2);
+        maxConcurrentPerProduct = configuredMaxConcurrentPerProduct > 0
+                ? Math.min(configuredMaxConcurrentPerProduct, poolShare)
+                : poolShare;
+    }
+
+    /**
+     * Run the checkout only if every product in it is admitted.
+     * Gates are taken in product id order so two carts never deadlock each other.
+     *
+     * @param lines product ID to requested quantity
+     * @param checkout the transactional checkout to run once admitted
+     * @return the checkout result
+     */
+    public <T> T admit(Map<Long, Integer> lines, Supplier<T> checkout) {
+        if (!enabled || lines.isEmpty()) {
+            return checkout.get();
+        }
+
+        List<Admission> admitted = new ArrayList<>();
+        boolean success = false;
+        try {
+            for (Map.Entry<Long, Integer> line : new TreeMap<>(lines).entrySet()) {
+                admitted.add(enter(line.getKey(), line.getValue()));
+            }
+            T result = checkout.get();
+            success = true;
+            return result;
+        } finally {
+            for (Admission admission : admitted) {
+                admission.gate.leave(admission.quantity, success);
+            }
+        }
+    }
+
+    /**
+     * Current waiting room state for a product.
+     * @param productId the product ID
+     * @return map with in-flight checkouts, the per-product cap and whether stock is spoken for
+     */
+    public Map<String, Object> getStatus(Long productId) {
+        ProductGate gate = gates.get(productId);
+        if (gate == null) {
+            return Map.of("productId", productId, "inFlight", 0, "maxConcurrent", maxConcurrentPerProduct,
+                    "soldOut", false);
+        }
+        return Map.of(
+                "productId", productId,
+                "inFlight", maxConcurrentPerProduct - gate.permits.availablePermits(),
+                "maxConcurrent", maxConcurrentPerProduct,
+                "soldOut", gate.unclaimedStock() <= 0);
+    }
+
+    private Admission enter(Long productId, int quantity) {
+        // Touched inside the map's lock, so evictIdleGates() cannot drop a gate being entered
+        ProductGate gate = gates.compute(productId, (id, existing) -> {
+            ProductGate g = existing != null ? existing : new ProductGate(maxConcurrentPerProduct);
+            g.lastUsedAt = System.currentTimeMillis();
+            return g;
+        });
+        refreshStockIfStale(productId, gate);
+
+        // Reject fast once in-flight checkouts already hold the remaining stock
+        if (gate.unclaimedStock() < quantity) {
+            throw new InsufficientStockException("Product " + productId + " is sold out or fully reserved");
+        }
+
+        // Never wait for a slot: a parked request thread is worse than a retry
+        if (!gate.permits.tryAcquire()) {
+            throw new TooManyRequestsException(
+                    "Checkout for product " + productId + " is busy, please retry shortly");
+        }
+
+        // Re-check with the slot held: concurrent checkouts may have taken the last units
+        if (gate.reserved.addAndGet(quantity) > gate.knownStock.get()) {
+            gate.reserved.addAndGet(-quantity);
+            gate.permits.release();
+            throw new InsufficientStockException("Product " + productId + " is sold out or fully reserved");
+        }
+
+        return new Admission(gate, quantity);
+    }
+
+    private void refreshStockIfStale(Long productId, ProductGate gate) {
+        if (!gate.stockLoaded) {
+            // First use: everyone needs the snapshot, so callers wait for the one load
+            synchronized (gate) {
+                if (!gate.stockLoaded) {
+                    loadStock(productId, gate, System.currentTimeMillis());
+                    gate.stockLoaded = true;
+                }
+            }
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long checkedAt = gate.stockCheckedAt.get();
+        // Only the caller that wins the CAS reloads; the others keep using the current snapshot
+        if (now - checkedAt < stockRefreshMs || !gate.stockCheckedAt.compareAndSet(checkedAt, now)) {
+            return;
+        }
+        try {
+            loadStock(productId, gate, now);
+        } catch (RuntimeException e) {
+            // Let the next caller retry instead of waiting a full window
+            gate.stockCheckedAt.compareAndSet(now, checkedAt);
+            throw e;
+        }
+    }
+
+    private void loadStock(Long productId, ProductGate gate, long now) {
+        gate.knownStock.set(inventoryRepository.findByProductId(productId)
+                .map(Inventory::getStockQuantity)
+                .orElse(0));
+        gate.stockCheckedAt.set(now);
+        log.debug("Refreshed admission stock for product {}: {}", productId, gate.knownStock);
+    }
+
+    /**
+     * Drop gates of products nobody has checked out for a while.
+     */
+    @Scheduled(fixedDelayString = "${app.checkout.admission.gateEvictMs:60000}")
+    public void evictIdleGates() {
+        long idleBefore = System.currentTimeMillis() - gateIdleMs;
+        for (Long productId : gates.keySet()) {
+            gates.computeIfPresent(productId, (id, gate) ->
+                    gate.isIdle(idleBefore, maxConcurrentPerProduct) ? null : gate);
+        }
+    }
+
+    private record Admission(ProductGate gate, int quantity) {
+    }
+
+    /**
+     * Per-product admission state.
+     */
+    private static class ProductGate {
+        private final Semaphore permits;
+        private final AtomicInteger reserved = new AtomicInteger();
+        private final AtomicInteger knownStock = new AtomicInteger();
+        private final AtomicLong stockCheckedAt = new AtomicLong();
+        private volatile boolean stockLoaded;
+        private volatile long lastUsedAt;
+
+        ProductGate(int maxConcurrent) {
+            this.permits = new Semaphore(maxConcurrent);
+        }
+
+        int unclaimedStock() {
+            return knownStock.get() - reserved.get();
+        }
+
+        boolean isIdle(long idleBefore, int maxConcurrent) {
+            return lastUsedAt < idleBefore && reserved.get() == 0
+                    && permits.availablePermits() == maxConcurrent;
+        }
+
+        void leave(int quantity, boolean purchased) {
+            reserved.addAndGet(-quantity);
+            if (purchased) {
+                // Keep the snapshot close to the database until the next refresh
+                knownStock.addAndGet(-quantity);
+            }
+            permits.release();
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.store.main.service;
+
+import com.store.main.dto.response.DashboardResponse;
+import com.store.main.dto.response.DashboardResponse.Figure;
+import com.store.main.model.enums.OrderStatus;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Service for the admin dashboard figures.
+ *
+ * The figures are computed by a background task every app.dashboard.refreshMs and kept
+ * in memory; requests only read the last snapshot. The independent aggregate queries of
+ * a refresh run in parallel on a small dedicated pool (each holds one pooled connection
+ * for one short query). A figure whose query fails keeps its previous value and time.
+ *
+ * Today's orders and revenue come from the sales rollups (one row), with the rollup
+ * row's update time as their time.
+ *
+ * Orders by status adds the live orders to a cached count of orders_archive. Archived
+ * rows never change, so the archive is only recounted after an archival run moved
+ * orders (archiveChanged()).
+ */
+@Service
+@Slf4j
+public class DashboardService {
+
+    private static final String ORDERS_BY_STATUS_SQL =
+            "SELECT status, COUNT(*) AS orders FROM orders GROUP BY status";
+
+    private static final String ARCHIVED_ORDERS_BY_STATUS_SQL =
+            "SELECT status, COUNT(*) AS orders FROM orders_archive GROUP BY status";
+
+    private static final String TODAY_SALES_SQL =
+            "SELECT orders - cancelled_orders AS orders, revenue - cancelled_revenue AS revenue, updated_at " +
+            "FROM sales_daily WHERE sales_date = :today";
+
+    private static final String TOTAL_PRODUCTS_SQL = "SELECT COUNT(*) FROM products";
+
+    private static final String LOW_STOCK_SQL =
+            "SELECT COUNT(*) FROM inventory WHERE stock_quantity <= :threshold";
+
+    private static final String NEW_USERS_SQL =
+            "SELECT COUNT(*) FILTER (WHERE created_at >= CURRENT_DATE) AS today, COUNT(*) AS last_7_days " +
+            "FROM users WHERE created_at >= CURRENT_DATE - 6";
+
+    // Received products the customer has not reviewed
+    private static final String PENDING_REVIEWS_SQL =
+            "SELECT COUNT(*) FROM user_purchased_products upp " +
+            "WHERE NOT EXISTS (SELECT 1 FROM reviews r WHERE r.user_id = upp.user_id AND r.product_id = upp.product_id)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ExecutorService executor;
+    private volatile DashboardResponse snapshot;
+    private final AtomicLong archiveVersion = new AtomicLong();
+    private volatile ArchivedCounts archivedCounts;
+
+    @Value("${app.dashboard.lowStockThreshold:5}")
+    private int lowStockThreshold;
+
+    public DashboardService(NamedParameterJdbcTemplate jdbcTemplate,
+                            @Value("${app.dashboard.parallelism:4}") int parallelism) {
+        this.jdbcTemplate = jdbcTemplate;
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "dashboard-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Get the latest dashboard snapshot, computing it on first use.
+     */
+    public DashboardResponse getDashboard() {
+        DashboardResponse current = snapshot;
+        return current != null ? current : refresh();
+    }
+
+    /**
+     * Scheduled refresh of all figures.
+     */
+    @Scheduled(fixedDelayString = "${app.dashboard.refreshMs:30000}")
+    public void scheduledRefresh() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            log.error("Dashboard refresh failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Recompute all figures, running the queries in parallel.
+     */
+    public synchronized DashboardResponse refresh() {
+        long started = System.currentTimeMillis();
+        DashboardResponse previous = snapshot != null ? snapshot : new DashboardResponse();
+
+        CompletableFuture<Figure<Map<OrderStatus, Long>>> ordersByStatus =
+                compute("orders by status", this::ordersByStatus, previous.getOrdersByStatus());
+        CompletableFuture<SalesToday> todaySales =
+                compute("today's sales", this::todaySales,
+                        new SalesToday(previous.getOrdersToday(), previous.getRevenueToday()));
+        CompletableFuture<Figure<Long>> totalProducts =
+                compute("total products", () -> count(TOTAL_PRODUCTS_SQL, new MapSqlParameterSource()),
+                        previous.getTotalProducts());
+        CompletableFuture<Figure<Long>> lowStock =
+                compute("low stock", () -> count(LOW_STOCK_SQL,
+                        new MapSqlParameterSource("threshold", lowStockThreshold)), previous.getLowStockProducts());
+        CompletableFuture<NewUsers> newUsers =
+                compute("new users", this::newUsers,
+                        new NewUsers(previous.getNewUsersToday(), previous.getNewUsersLast7Days()));
+        CompletableFuture<Figure<Long>> pendingReviews =
+                compute("pending reviews", () -> count(PENDING_REVIEWS_SQL, new MapSqlParameterSource()),
+                        previous.getPendingReviews());
+
+        CompletableFuture.allOf(ordersByStatus, todaySales, totalProducts, lowStock, newUsers, pendingReviews).join();
+
+        DashboardResponse response = new DashboardResponse(
+                ordersByStatus.join(),
+                todaySales.join().orders(),
+                todaySales.join().revenue(),
+                totalProducts.join(),
+                lowStock.join(),
+                newUsers.join().today(),
+                newUsers.join().last7Days(),
+                pendingReviews.join());
+        snapshot = response;
+        log.debug("Dashboard refreshed in {} ms", System.currentTimeMillis() - started);
+        return response;
+    }
+
+    /**
+     * Called after orders were moved to the archive; the next refresh recounts it.
+     */
+    public void archiveChanged() {
+        archiveVersion.incrementAndGet();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> CompletableFuture<T> compute(String name, Supplier<T> query, T fallback) {
+        return CompletableFuture.supplyAsync(query, executor).exceptionally(e -> {
+            log.warn("Dashboard figure '{}' failed, keeping previous value: {}", name, e.getMessage());
+            return fallback;
+        });
+    }
+
+    private Figure<Map<OrderStatus, Long>> ordersByStatus() {
+        Map<OrderStatus, Long> counts = new EnumMap<>(OrderStatus.class);
+        for (OrderStatus status : OrderStatus.values()) {
+            counts.put(status, 0L);
+        }
+        jdbcTemplate.query(ORDERS_BY_STATUS_SQL, rs -> {
+            counts.merge(OrderStatus.valueOf(rs.getString("status")), rs.getLong("orders"), Long::sum);
+        });
+        archivedOrdersByStatus().forEach((status, orders) -> counts.merge(status, orders, Long::sum));
+        return new Figure<>(counts, LocalDateTime.now());
+    }
+
+    private Map<OrderStatus, Long> archivedOrdersByStatus() {
+        ArchivedCounts cached = archivedCounts;
+        long version = archiveVersion.get();
+        if (cached != null && cached.version() == version) {
+            return cached.counts();
+        }
+        // An archival run finishing during this count bumps the version again, so it is recounted next time
+        Map<OrderStatus, Long> counts = new EnumMap<>(OrderStatus.class);
+        jdbcTemplate.query(ARCHIVED_ORDERS_BY_STATUS_SQL, rs -> {
+            counts.put(OrderStatus.valueOf(rs.getString("status")), rs.getLong("orders"));
+        });
+        archivedCounts = new ArchivedCounts(version, counts);
+        return counts;
+    }
+
+    private SalesToday todaySales() {
+        LocalDateTime now = LocalDateTime.now();
+        // Rollup days are UTC dates (see SalesRollupService), whatever the session time zone
+        MapSqlParameterSource params = new MapSqlParameterSource("today", Date.valueOf(LocalDate.now(ZoneOffset.UTC)));
+        return jdbcTemplate.query(TODAY_SALES_SQL, params, (rs, rowNum) -> {
+            LocalDateTime asOf = rs.getTimestamp("updated_at").toLocalDateTime();
+            return new SalesToday(new Figure<>(rs.getLong("orders"), asOf),
+                    new Figure<>(rs.getBigDecimal("revenue"), asOf));
+        }).stream().findFirst()
+                // No orders yet today
+                .orElse(new SalesToday(new Figure<>(0L, now), new Figure<>(BigDecimal.ZERO, now)));
+    }
+
+    private NewUsers newUsers() {
+        LocalDateTime now = LocalDateTime.now();
+        return jdbcTemplate.queryForObject(NEW_USERS_SQL, new MapSqlParameterSource(), (rs, rowNum) ->
+                new NewUsers(new Figure<>(rs.getLong("today"), now), new Figure<>(rs.getLong("last_7_days"), now)));
+    }
+
+    private Figure<Long> count(String sql, MapSqlParameterSource params) {
+        Long count = jdbcTemplate.queryForObject(sql, params, Long.class);
+        return new Figure<>(count != null ? count : 0L, LocalDateTime.now());
+    }
+
+    private record SalesToday(Figure<Long> orders, Figure<BigDecimal> revenue) {
+    }
+
+    private record NewUsers(Figure<Long> today, Figure<Long> last7Days) {
+    }
+
+    private record ArchivedCounts(long version, Map<OrderStatus, Long> counts) {
+    }
+}
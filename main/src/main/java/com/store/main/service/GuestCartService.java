@@ -0,0 +1,218 @@
+package com.store.main.service;
+
+import com.store.main.dto.request.CartBatchRequest;
+import com.store.main.dto.response.GuestCartResponse;
+import com.store.main.exception.BadRequestException;
+import com.store.main.exception.ResourceNotFoundException;
+import com.store.main.model.Product;
+import io.jsonwebtoken.io.Decoders;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Service for anonymous (guest) carts.
+ *
+ * A guest cart is never stored on the server. Its contents (product ID and quantity
+ * per line) travel in a compact HMAC-signed token that the client keeps and sends back;
+ * every request re-prices the lines from the products table without writing anything.
+ * At login or registration the token is merged into the user's persistent cart.
+ *
+ * Token format: base64url("productId:quantity,...") + "." + base64url(HMAC-SHA256)
+ *
+ * The signing key is derived as HMAC-SHA256(secret, "guest-cart-v1"), where the secret
+ * is app.guestCartSecret or, if that is unset, app.jwtSecret. So guest cart tokens are
+ * never signed with the JWT key itself.
+ */
+@Service
+@RequiredArgsConstructor
+public class GuestCartService {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final String KEY_CONTEXT = "guest-cart-v1";
+    private static final int MAX_LINES = 50;
+    private static final int MAX_QUANTITY = 999;
+
+    private final ProductService productService;
+    private final InventoryService inventoryService;
+    private final CartService cartService;
+
+    @Value("${app.guestCartSecret:}")
+    private String guestCartSecret;
+
+    @Value("${app.jwtSecret}")
+    private String jwtSecret;
+
+    private SecretKeySpec signingKey;
+
+    @PostConstruct
+    void init() {
+        String secret = guestCartSecret != null && !guestCartSecret.isBlank() ? guestCartSecret : jwtSecret;
+        signingKey = new SecretKeySpec(hmac(new SecretKeySpec(Decoders.BASE64.decode(secret), HMAC_ALGORITHM),
+                KEY_CONTEXT), HMAC_ALGORITHM);
+    }
+
+    /**
+     * Price the guest cart carried by a token.
+     * @param token the guest cart token, or null for an empty cart
+     */
+    public GuestCartResponse getCart(String token) {
+        Map<Long, Integer> lines = decode(token);
+        return price(lines);
+    }
+
+    /**
+     * Apply add / set-quantity / remove operations and return the re-signed cart.
+     * Stock is checked against current inventory; nothing is written to the database.
+     */
+    public GuestCartResponse applyBatch(String token, CartBatchRequest request) {
+        Map<Long, Integer> lines = decode(token);
+
+        List<Long> productIds = request.getOperations().stream()
+                .map(CartBatchRequest.Operation::getProductId)
+                .distinct()
+                .toList();
+        Map<Long, Integer> stock = inventoryService.getAvailableStock(productIds);
+
+        for (CartBatchRequest.Operation op : request.getOperations()) {
+            Long productId = op.getProductId();
+            if (op.getType() == CartBatchRequest.OperationType.REMOVE) {
+                lines.remove(productId);
+                continue;
+            }
+            if (op.getQuantity() == null || op.getQuantity() <= 0) {
+                throw new BadRequestException("Quantity must be positive");
+            }
+            if (!stock.containsKey(productId)) {
+                throw new ResourceNotFoundException("Product", "id", productId);
+            }
+            int newQuantity = op.getType() == CartBatchRequest.OperationType.ADD
+                    ? lines.getOrDefault(productId, 0) + op.getQuantity()
+                    : op.getQuantity();
+            if (stock.get(productId) < newQuantity) {
+                throw new BadRequestException("Insufficient stock for product " + productId +
+                    ". Available: " + stock.get(productId));
+            }
+            lines.put(productId, newQuantity);
+        }
+
+        validate(lines);
+        return price(lines);
+    }
+
+    /**
+     * Merge a guest cart token into a user's persistent cart in one bulk operation.
+     * Invalid or empty tokens are ignored so they never block a login.
+     */
+    public void mergeIntoUserCart(Long userId, String token) {
+        if (token == null || token.isBlank()) {
+            return;
+        }
+        Map<Long, Integer> lines;
+        try {
+            lines = decode(token);
+        } catch (BadRequestException e) {
+            return;
+        }
+        cartService.mergeLines(userId, lines);
+    }
+
+    private GuestCartResponse price(Map<Long, Integer> lines) {
+        Map<Long, Product> products = productService.getProductsByIds(lines.keySet()).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        // Drop lines whose product no longer exists
+        lines.keySet().retainAll(products.keySet());
+
+        List<GuestCartResponse.Line> items = new ArrayList<>();
+        BigDecimal total = BigDecimal.ZERO;
+        for (Map.Entry<Long, Integer> line : lines.entrySet()) {
+            Product product = products.get(line.getKey());
+            BigDecimal lineTotal = product.getPrice().multiply(BigDecimal.valueOf(line.getValue()));
+            items.add(new GuestCartResponse.Line(product.getId(), product.getName(), product.getImageUrl(),
+                    product.getPrice(), line.getValue(), lineTotal));
+            total = total.add(lineTotal);
+        }
+
+        return new GuestCartResponse(encode(lines), items, total, items.size());
+    }
+
+    private void validate(Map<Long, Integer> lines) {
+        if (lines.size() > MAX_LINES) {
+            throw new BadRequestException("Guest cart cannot hold more than " + MAX_LINES + " products");
+        }
+        if (lines.values().stream().anyMatch(q -> q <= 0 || q > MAX_QUANTITY)) {
+            throw new BadRequestException("Quantity must be between 1 and " + MAX_QUANTITY);
+        }
+    }
+
+    private String encode(Map<Long, Integer> lines) {
+        String payload = lines.entrySet().stream()
+                .map(line -> line.getKey() + ":" + line.getValue())
+                .collect(Collectors.joining(","));
+        String body = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+        return body + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(sign(body));
+    }
+
+    private Map<Long, Integer> decode(String token) {
+        Map<Long, Integer> lines = new LinkedHashMap<>();
+        if (token == null || token.isBlank()) {
+            return lines;
+        }
+
+        try {
+            int dot = token.lastIndexOf('.');
+            if (dot <= 0) {
+                throw new BadRequestException("Invalid guest cart token");
+            }
+            String body = token.substring(0, dot);
+            byte[] signature = Base64.getUrlDecoder().decode(token.substring(dot + 1));
+            if (!MessageDigest.isEqual(sign(body), signature)) {
+                throw new BadRequestException("Invalid guest cart token");
+            }
+
+            String payload = new String(Base64.getUrlDecoder().decode(body), StandardCharsets.UTF_8);
+            if (!payload.isEmpty()) {
+                for (String line : payload.split(",")) {
+                    String[] parts = line.split(":");
+                    lines.put(Long.parseLong(parts[0]), Integer.parseInt(parts[1]));
+                }
+            }
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            throw new BadRequestException("Invalid guest cart token");
+        }
+
+        validate(lines);
+        return lines;
+    }
+
+    private byte[] sign(String body) {
+        return hmac(signingKey, body);
+    }
+
+    private static byte[] hmac(SecretKeySpec key, String data) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot sign guest cart", e);
+        }
+    }
+}
@@ -10,6 +10,10 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.Map;
+import java.util.stream.Collectors;
+
 /**
  * Service for managing product inventory.
  * Handles stock tracking and updates.
@@ -59,6 +63,16 @@ public class InventoryService {
         return inventoryRepository.save(inventory);
     }
 
+    /**
+     * Return all items of the given orders to stock in one statement.
+     */
+    @Transactional
+    public void restockOrders(Collection<Long> orderIds) {
+        if (!orderIds.isEmpty()) {
+            inventoryRepository.restockForOrders(orderIds);
+        }
+    }
+
     /**
      * Remove stock from inventory.
      * Used during order processing.
@@ -82,6 +96,25 @@ public class InventoryService {
         return inventoryRepository.save(inventory);
     }
 
+    /**
+     * Get the stock quantity for a product with a single lookup.
+     * Returns 0 if the product has no inventory record.
+     */
+    public int getAvailableStock(Long productId) {
+        return inventoryRepository.findByProductId(productId)
+                .map(Inventory::getStockQuantity)
+                .orElse(0);
+    }
+
+    /**
+     * Get stock quantities for several products with a single query.
+     * Products without an inventory record are absent from the map.
+     */
+    public Map<Long, Integer> getAvailableStock(Collection<Long> productIds) {
+        return inventoryRepository.findByProductIdIn(productIds).stream()
+                .collect(Collectors.toMap(inv -> inv.getProduct().getId(), Inventory::getStockQuantity));
+    }
+
     /**
      * Check if sufficient stock is available.
      */
@@ -0,0 +1,189 @@
+package com.store.main.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Scheduled archival of closed orders.
+ *
+ * DELIVERED and CANCELLED orders older than app.order.archive.maxAgeDays are moved,
+ * with their items, from orders / order_items to orders_archive / order_items_archive,
+ * so the live tables and their indexes only hold recent and open orders. Both statuses
+ * are terminal, so archived rows never change again.
+ *
+ * Each batch is its own short transaction that locks only the orders it moves
+ * (FOR UPDATE SKIP LOCKED): copy orders, copy items, delete items, delete orders.
+ * Customer history and order lookups read both tables (see OrderHistoryRepository);
+ * admin search and status changes only see live orders.
+ *
+ * Each run logs the index size of the live tables before and after. B-tree pages
+ * freed by the deletes are reused by new rows rather than returned, so the one-off
+ * size drop after the first large run needs a REINDEX (see order_archive.sql).
+ */
+@Service
+@Slf4j
+public class OrderArchiveService {
+
+    /**
+     * Rows moved by one archive run, with the live tables' index size around it.
+     */
+    public record ArchiveResult(int orders, int orderItems, int batches, long elapsedMs,
+                                long indexBytesBefore, long indexBytesAfter) {
+    }
+
+    private static final String CUTOFF_SQL =
+            "SELECT CURRENT_TIMESTAMP - make_interval(days => :days)";
+
+    private static final String CANDIDATES_SQL =
+            "SELECT id FROM orders WHERE status IN ('DELIVERED', 'CANCELLED') AND created_at < :cutoff " +
+            "ORDER BY created_at, id LIMIT :limit FOR UPDATE SKIP LOCKED";
+
+    private static final String COPY_ORDERS_SQL =
+            "INSERT INTO orders_archive (id, user_id, shipping_address, total_price, status, created_at, archived_at) " +
+            "SELECT id, user_id, shipping_address, total_price, status, created_at, CURRENT_TIMESTAMP " +
+            "FROM orders WHERE id IN (:ids)";
+
+    private static final String COPY_ITEMS_SQL =
+            "INSERT INTO order_items_archive (id, order_id, product_id, quantity, price_at_purchase) " +
+            "SELECT id, order_id, product_id, quantity, price_at_purchase " +
+            "FROM order_items WHERE order_id IN (:ids)";
+
+    private static final String DELETE_ITEMS_SQL =
+            "DELETE FROM order_items WHERE order_id IN (:ids)";
+
+    private static final String DELETE_ORDERS_SQL =
+            "DELETE FROM orders WHERE id IN (:ids)";
+
+    private static final String INDEX_SIZE_SQL =
+            "SELECT pg_indexes_size('orders') + pg_indexes_size('order_items')";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final DashboardService dashboardService;
+
+    @Value("${app.order.archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.order.archive.maxAgeDays:180}")
+    private int maxAgeDays;
+
+    @Value("${app.order.archive.batchSize:500}")
+    private int batchSize;
+
+    @Value("${app.order.archive.maxBatchesPerRun:200}")
+    private int maxBatchesPerRun;
+
+    @Value("${app.order.archive.pauseMs:50}")
+    private long pauseMs;
+
+    public OrderArchiveService(NamedParameterJdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager,
+                               DashboardService dashboardService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.dashboardService = dashboardService;
+    }
+
+    /**
+     * Scheduled entry point; runs off-peak by default.
+     */
+    @Scheduled(cron = "${app.order.archive.cron:0 0 4 * * *}")
+    public void scheduledArchive() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            archiveClosedOrders();
+        } catch (RuntimeException e) {
+            log.error("Order archival failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Move closed orders older than the configured age to the archive tables.
+     * @return number of order and order item rows moved
+     */
+    public ArchiveResult archiveClosedOrders() {
+        long started = System.currentTimeMillis();
+        long indexBytesBefore = hotIndexBytes();
+        Timestamp cutoff = jdbcTemplate.queryForObject(CUTOFF_SQL,
+                new MapSqlParameterSource("days", maxAgeDays), Timestamp.class);
+
+        int orders = 0;
+        int items = 0;
+        int batches = 0;
+        try {
+            while (batches < maxBatchesPerRun) {
+                Batch batch = moveBatch(cutoff);
+                batches++;
+                orders += batch.orders();
+                items += batch.items();
+                if (batch.orders() < batchSize) {
+                    break;
+                }
+                pause();
+            }
+        } finally {
+            if (orders > 0) {
+                // The dashboard caches archive counts between runs
+                dashboardService.archiveChanged();
+            }
+        }
+
+        ArchiveResult result = new ArchiveResult(orders, items, batches, System.currentTimeMillis() - started,
+                indexBytesBefore, hotIndexBytes());
+        log.info("Archived {} closed orders and {} order items older than {} days in {} batches ({} ms); " +
+                        "live order index size {} -> {} bytes",
+                result.orders(), result.orderItems(), maxAgeDays, result.batches(), result.elapsedMs(),
+                result.indexBytesBefore(), result.indexBytesAfter());
+        return result;
+    }
+
+    /**
+     * Combined size of all indexes on orders and order_items.
+     */
+    public long hotIndexBytes() {
+        Long bytes = jdbcTemplate.getJdbcTemplate().queryForObject(INDEX_SIZE_SQL, Long.class);
+        return bytes != null ? bytes : 0;
+    }
+
+    private Batch moveBatch(Timestamp cutoff) {
+        return transactionTemplate.execute(status -> {
+            List<Long> ids = jdbcTemplate.queryForList(CANDIDATES_SQL,
+                    new MapSqlParameterSource("cutoff", cutoff).addValue("limit", batchSize), Long.class);
+            if (ids.isEmpty()) {
+                return new Batch(0, 0);
+            }
+
+            MapSqlParameterSource idParams = new MapSqlParameterSource("ids", ids);
+            int orders = jdbcTemplate.update(COPY_ORDERS_SQL, idParams);
+            int items = jdbcTemplate.update(COPY_ITEMS_SQL, idParams);
+            jdbcTemplate.update(DELETE_ITEMS_SQL, idParams);
+            jdbcTemplate.update(DELETE_ORDERS_SQL, idParams);
+            return new Batch(orders, items);
+        });
+    }
+
+    private void pause() {
+        if (pauseMs <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(pauseMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record Batch(int orders, int items) {
+    }
+}
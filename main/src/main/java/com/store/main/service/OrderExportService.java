@@ -0,0 +1,323 @@
+package com.store.main.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.store.main.exception.BadRequestException;
+import com.store.main.exception.TooManyRequestsException;
+import com.store.main.model.enums.OrderStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streaming export of orders and their items for finance.
+ *
+ * Rows are read from a forward-only JDBC cursor (read-only transaction, bounded fetch
+ * size) and written straight to the response, so memory use does not grow with the
+ * number of orders. Only the current order's items are held at a time (for NDJSON).
+ *
+ * Archived orders (see OrderArchiveService) are included; the filters are pushed into
+ * both branches of the live / archive UNION ALL.
+ *
+ * Each export holds one pooled connection for its whole duration, so the number of
+ * concurrent exports is capped (app.export.maxConcurrent). A slot is taken before the
+ * response starts and released exactly once, by export() or by the caller if the export
+ * never runs.
+ *
+ * CSV cells that a spreadsheet would treat as a formula (starting with =, +, -, @, tab
+ * or CR) are prefixed with ' so customer-entered text cannot run in an admin's sheet.
+ */
+@Service
+@Slf4j
+public class OrderExportService {
+
+    public enum Format {
+        CSV,
+        NDJSON
+    }
+
+    private static final String EXPORT_SQL =
+            "SELECT o.id AS order_id, o.created_at, o.status, o.total_price, o.shipping_address, " +
+            "u.id AS user_id, u.username, u.email, " +
+            "oi.id AS item_id, oi.product_id, p.name AS product_name, oi.quantity, oi.price_at_purchase " +
+            "FROM (SELECT id, user_id, shipping_address, total_price, status, created_at FROM orders " +
+            "      UNION ALL " +
+            "      SELECT id, user_id, shipping_address, total_price, status, created_at FROM orders_archive) o " +
+            "JOIN users u ON u.id = o.user_id " +
+            "LEFT JOIN (SELECT id, order_id, product_id, quantity, price_at_purchase FROM order_items " +
+            "           UNION ALL " +
+            "           SELECT id, order_id, product_id, quantity, price_at_purchase FROM order_items_archive) oi " +
+            "       ON oi.order_id = o.id " +
+            "LEFT JOIN products p ON p.id = oi.product_id " +
+            "WHERE 1 = 1";
+
+    private static final String CSV_HEADER =
+            "order_id,created_at,status,total_price,shipping_address,user_id,username,email," +
+            "item_id,product_id,product_name,quantity,price_at_purchase";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Semaphore exportSlots;
+
+    public OrderExportService(DataSource dataSource,
+                              PlatformTransactionManager transactionManager,
+                              ObjectMapper objectMapper,
+                              @Value("${app.export.fetchSize:1000}") int fetchSize,
+                              @Value("${app.export.maxConcurrent:2}") int maxConcurrent) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.exportSlots = new Semaphore(maxConcurrent);
+    }
+
+    /**
+     * A reserved export slot. Releasing it more than once has no further effect.
+     */
+    public final class ExportSlot {
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private ExportSlot() {
+        }
+
+        public void release() {
+            if (released.compareAndSet(false, true)) {
+                exportSlots.release();
+            }
+        }
+    }
+
+    /**
+     * Reserve an export slot before the response starts streaming.
+     * Pass it to export(), which releases it; release it directly if export() never runs.
+     */
+    public ExportSlot acquireSlot() {
+        if (!exportSlots.tryAcquire()) {
+            throw new TooManyRequestsException("Too many exports running, please retry shortly");
+        }
+        return new ExportSlot();
+    }
+
+    /**
+     * Write all orders matching the filters to the stream, then release the export slot.
+     * @param slot the slot reserved with acquireSlot()
+     * @param format CSV (one line per order item) or NDJSON (one object per order)
+     * @param status optional status filter
+     * @param from optional first day included
+     * @param to optional last day included
+     * @param gzip whether to gzip the output
+     * @param out the response stream
+     */
+    public void export(ExportSlot slot, Format format, OrderStatus status, LocalDate from, LocalDate to,
+                       boolean gzip, OutputStream out) throws IOException {
+        try {
+            OutputStream target = gzip ? new GZIPOutputStream(out, 64 * 1024) : out;
+            Writer writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8), 64 * 1024);
+            long started = System.currentTimeMillis();
+
+            RowWriter rowWriter = format == Format.CSV ? new CsvWriter(writer) : new NdjsonWriter(writer);
+            StringBuilder sql = new StringBuilder(EXPORT_SQL);
+            List<Object> args = new ArrayList<>();
+            if (status != null) {
+                sql.append(" AND o.status = ?");
+                args.add(status.name());
+            }
+            if (from != null) {
+                sql.append(" AND o.created_at >= ?");
+                args.add(Timestamp.valueOf(from.atStartOfDay()));
+            }
+            if (to != null) {
+                sql.append(" AND o.created_at < ?");
+                args.add(Timestamp.valueOf(to.plusDays(1).atStartOfDay()));
+            }
+            sql.append(" ORDER BY o.id, oi.id");
+
+            try {
+                transactionTemplate.executeWithoutResult(tx -> jdbcTemplate.query(sql.toString(),
+                        (RowCallbackHandler) rowWriter::row, args.toArray()));
+                rowWriter.finish();
+            } catch (UncheckedIOException e) {
+                // Client went away; the cursor and transaction are already closed
+                throw e.getCause();
+            }
+
+            writer.flush();
+            if (target instanceof GZIPOutputStream gzipStream) {
+                gzipStream.finish();
+            }
+            log.info("Exported {} orders as {} in {} ms", rowWriter.orders(), format,
+                    System.currentTimeMillis() - started);
+        } finally {
+            slot.release();
+        }
+    }
+
+    /**
+     * Validate export filters before streaming starts, so errors are still proper JSON responses.
+     */
+    public void validate(LocalDate from, LocalDate to) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new BadRequestException("'from' date must not be after 'to' date");
+        }
+    }
+
+    private abstract static class RowWriter {
+        protected final Writer writer;
+        protected long orders;
+        protected Long currentOrderId;
+
+        RowWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        void row(ResultSet rs) throws SQLException {
+            try {
+                long orderId = rs.getLong("order_id");
+                boolean newOrder = currentOrderId == null || currentOrderId != orderId;
+                if (newOrder) {
+                    orders++;
+                }
+                write(rs, newOrder);
+                currentOrderId = orderId;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        abstract void write(ResultSet rs, boolean newOrder) throws SQLException, IOException;
+
+        void finish() throws IOException {
+        }
+
+        long orders() {
+            return orders;
+        }
+    }
+
+    /**
+     * One CSV line per order item; order columns repeat on each of its lines.
+     */
+    private static class CsvWriter extends RowWriter {
+
+        CsvWriter(Writer writer) throws IOException {
+            super(writer);
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        @Override
+        void write(ResultSet rs, boolean newOrder) throws SQLException, IOException {
+            writer.write(String.join(",",
+                    rs.getString("order_id"),
+                    csv(rs.getTimestamp("created_at").toLocalDateTime().toString()),
+                    csv(rs.getString("status")),
+                    rs.getBigDecimal("total_price").toPlainString(),
+                    csv(rs.getString("shipping_address")),
+                    rs.getString("user_id"),
+                    csv(rs.getString("username")),
+                    csv(rs.getString("email")),
+                    nullToEmpty(rs.getString("item_id")),
+                    nullToEmpty(rs.getString("product_id")),
+                    csv(rs.getString("product_name")),
+                    nullToEmpty(rs.getString("quantity")),
+                    rs.getBigDecimal("price_at_purchase") != null
+                            ? rs.getBigDecimal("price_at_purchase").toPlainString() : ""));
+            writer.write('\n');
+        }
+
+        private static String csv(String value) {
+            if (value == null) {
+                return "";
+            }
+            if (!value.isEmpty() && "=+-@\t\r".indexOf(value.charAt(0)) >= 0) {
+                // CSV injection guard: make spreadsheets read it as text, not a formula
+                value = "'" + value;
+            }
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                    || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+                return "\"" + value.replace("\"", "\"\"") + "\"";
+            }
+            return value;
+        }
+
+        private static String nullToEmpty(String value) {
+            return value != null ? value : "";
+        }
+    }
+
+    /**
+     * One JSON object per order with its items nested. Rows arrive ordered by order ID,
+     * so only the current order is buffered.
+     */
+    private class NdjsonWriter extends RowWriter {
+        private Map<String, Object> current;
+        private List<Map<String, Object>> items;
+
+        NdjsonWriter(Writer writer) {
+            super(writer);
+        }
+
+        @Override
+        void write(ResultSet rs, boolean newOrder) throws SQLException, IOException {
+            if (newOrder) {
+                finish();
+                current = new LinkedHashMap<>();
+                current.put("id", rs.getLong("order_id"));
+                current.put("createdAt", rs.getTimestamp("created_at").toLocalDateTime().toString());
+                current.put("status", rs.getString("status"));
+                current.put("totalPrice", rs.getBigDecimal("total_price"));
+                current.put("shippingAddress", rs.getString("shipping_address"));
+                current.put("userId", rs.getLong("user_id"));
+                current.put("username", rs.getString("username"));
+                current.put("email", rs.getString("email"));
+                items = new ArrayList<>();
+                current.put("items", items);
+            }
+
+            long itemId = rs.getLong("item_id");
+            if (!rs.wasNull()) {
+                Map<String, Object> item = new LinkedHashMap<>();
+                item.put("id", itemId);
+                item.put("productId", rs.getLong("product_id"));
+                item.put("productName", rs.getString("product_name"));
+                item.put("quantity", rs.getInt("quantity"));
+                item.put("priceAtPurchase", rs.getBigDecimal("price_at_purchase"));
+                items.add(item);
+            }
+        }
+
+        @Override
+        void finish() throws IOException {
+            if (current != null) {
+                writer.write(objectMapper.writeValueAsString(current));
+                writer.write('\n');
+                current = null;
+            }
+        }
+    }
+}
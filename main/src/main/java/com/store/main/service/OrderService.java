@@ -1,24 +1,36 @@
 package com.store.main.service;
 
 import com.store.main.dto.request.CheckoutRequest;
+import com.store.main.dto.request.OrderSearchCriteria;
+import com.store.main.dto.response.OrderResponse;
+import com.store.main.dto.response.OrderSummaryResponse;
 import com.store.main.exception.BadRequestException;
 import com.store.main.exception.ResourceNotFoundException;
 import com.store.main.model.*;
 import com.store.main.model.enums.OrderStatus;
+import com.store.main.model.enums.SalesEventType;
 import com.store.main.model.enums.VoucherType;
 import com.store.main.repository.*;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Service for managing orders.
  * Handles checkout process and order management with transactional integrity.
+ * Customer operations take the user ID from the authenticated principal, so they
+ * do not look the user up.
  */
 @Service
 @RequiredArgsConstructor
@@ -31,6 +43,8 @@ public class OrderService {
     private final NotificationRepository notificationRepository;
     private final CartService cartService;
     private final InventoryService inventoryService;
+    private final OrderStatusService orderStatusService;
+    private final SalesRollupService salesRollupService;
 
     /**
      * Process checkout from cart to create an order.
@@ -43,13 +57,12 @@ public class OrderService {
      * 6. Creates notification
      */
     @Transactional
-    public Order checkout(String username, CheckoutRequest request) {
-        // Get user
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new ResourceNotFoundException("User", "username", username));
+    public Order checkout(Long userId, CheckoutRequest request) {
+        // Reference only, the order and notification just need the user's ID
+        User user = userRepository.getReferenceById(userId);
 
-        // Get cart and validate it's not empty
-        Cart cart = cartService.getCart(username);
+        // Get cart (flushed to the database first) and validate it's not empty
+        Cart cart = cartService.getCartForCheckout(userId);
         if (cart.getItems().isEmpty()) {
             throw new BadRequestException("Cart is empty");
         }
@@ -123,7 +136,10 @@ public class OrderService {
         }
 
         // Clear the cart
-        cartService.clearCart(username);
+        cartService.clearCart(userId);
+
+        // Queue the order for the sales rollups
+        salesRollupService.record(SalesEventType.PLACED, List.of(savedOrder.getId()));
 
         // Create notification for the user
         Notification notification = new Notification();
@@ -137,30 +153,26 @@ public class OrderService {
     }
 
     /**
-     * Get all orders for a user.
+     * Get a page of the user's orders with their items, newest first.
+     * Uses three queries regardless of page size: the order page, its count,
+     * and one batched query for all items with their product summaries.
+     * Archived orders are included (see OrderHistoryRepository).
      */
-    public Page<Order> getUserOrders(String username, Pageable pageable) {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new ResourceNotFoundException("User", "username", username));
-        return orderRepository.findByUserOrderByCreatedAtDesc(user, pageable);
+    public Page<OrderResponse> getUserOrders(Long userId, Pageable pageable) {
+        Page<OrderResponse> orders = orderRepository.findHistoryByUserId(userId,
+                PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()));
+        attachItems(orders.getContent());
+        return orders;
     }
 
     /**
-     * Get a specific order by ID.
-     * Validates that the order belongs to the user.
+     * Get a specific order with its items, whether live or archived.
+     * Orders of other users are reported as not found.
      */
-    public Order getOrderById(String username, Long orderId) {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new ResourceNotFoundException("User", "username", username));
-
-        Order order = orderRepository.findById(orderId)
+    public OrderResponse getOrderById(Long userId, Long orderId) {
+        OrderResponse order = orderRepository.findHistoryByIdAndUserId(orderId, userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Order", "id", orderId));
-
-        // Ensure order belongs to user
-        if (!order.getUser().getId().equals(user.getId())) {
-            throw new BadRequestException("Access denied to this order");
-        }
-
+        attachItems(List.of(order));
         return order;
     }
 
@@ -171,17 +183,51 @@ public class OrderService {
         return orderRepository.findAll(pageable);
     }
 
+    /**
+     * Search orders with optional filters (admin function).
+     * The customer filter is resolved to a user ID first so the search can use
+     * the (user_id, created_at) index; an unknown customer yields an empty page.
+     */
+    public Page<OrderSummaryResponse> searchOrders(OrderSearchCriteria criteria, Pageable pageable) {
+        if (criteria.getFrom() != null && criteria.getTo() != null && criteria.getFrom().isAfter(criteria.getTo())) {
+            throw new BadRequestException("'from' date must not be after 'to' date");
+        }
+        if (criteria.getMinTotal() != null && criteria.getMaxTotal() != null
+                && criteria.getMinTotal().compareTo(criteria.getMaxTotal()) > 0) {
+            throw new BadRequestException("minTotal must not be greater than maxTotal");
+        }
+
+        Long userId = null;
+        String customer = criteria.getCustomer();
+        if (customer != null && !customer.isBlank()) {
+            Optional<User> user = customer.contains("@")
+                    ? userRepository.findByEmail(customer.trim())
+                    : userRepository.findByUsername(customer.trim());
+            if (user.isEmpty()) {
+                return Page.empty(pageable);
+            }
+            userId = user.get().getId();
+        }
+
+        return orderRepository.searchOrders(criteria, userId, pageable);
+    }
+
     /**
      * Update order status (admin function).
+     * The change is a compare-and-set against the allowed previous statuses,
+     * so it cannot overwrite a concurrent cancellation (or vice versa).
      */
     @Transactional
     public Order updateOrderStatus(Long orderId, OrderStatus status) {
+        if (!orderStatusService.transition(orderId, status)) {
+            Order order = orderRepository.findById(orderId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Order", "id", orderId));
+            throw new BadRequestException("Cannot change order from " + order.getStatus() + " to " + status);
+        }
+
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Order", "id", orderId));
 
-        order.setStatus(status);
-        Order savedOrder = orderRepository.save(order);
-
         // Create notification for status change
         Notification notification = new Notification();
         notification.setUser(order.getUser());
@@ -190,45 +236,42 @@ public class OrderService {
         notification.setIsRead(false);
         notificationRepository.save(notification);
 
-        return savedOrder;
+        return order;
     }
 
     /**
      * Cancel an order.
-     * Restores inventory if order is in PENDING or PROCESSING status.
+     * Only PENDING or PROCESSING orders of the user can be cancelled; the status check,
+     * ownership check and update are one conditional statement, and inventory is
+     * restored only by the call that won.
      */
     @Transactional
-    public Order cancelOrder(String username, Long orderId) {
-        // Fetch order with items eagerly loaded
-        Order order = orderRepository.findByIdWithItems(orderId)
-                .orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + orderId));
-
-        // Verify order belongs to user
-        if (!order.getUser().getUsername().equals(username)) {
-            throw new ResourceNotFoundException("Order not found with id: " + orderId);
-        }
-
-        // Only allow cancellation of PENDING or PROCESSING orders
-        if (order.getStatus() != OrderStatus.PENDING && order.getStatus() != OrderStatus.PROCESSING) {
+    public Order cancelOrder(Long userId, Long orderId) {
+        if (!orderStatusService.transitionForUser(orderId, userId, OrderStatus.CANCELLED)) {
+            Order order = orderRepository.findById(orderId)
+                    .filter(o -> o.getUser().getId().equals(userId))
+                    .orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + orderId));
             throw new BadRequestException("Cannot cancel order in " + order.getStatus() + " status");
         }
 
-        // Restore inventory
-        for (OrderItem item : order.getItems()) {
-            inventoryService.addStock(item.getProduct().getId(), item.getQuantity());
-        }
-
-        // Update status
-        order.setStatus(OrderStatus.CANCELLED);
-        Order savedOrder = orderRepository.save(order);
-
         // Create notification
         Notification notification = new Notification();
-        notification.setUser(order.getUser());
+        notification.setUser(userRepository.getReferenceById(userId));
         notification.setMessage(String.format("Order #%d has been cancelled", orderId));
         notification.setIsRead(false);
         notificationRepository.save(notification);
 
-        return savedOrder;
+        return orderRepository.findById(orderId)
+                .orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + orderId));
+    }
+
+    private void attachItems(List<OrderResponse> orders) {
+        if (orders.isEmpty()) {
+            return;
+        }
+        Map<Long, OrderResponse> byId = orders.stream()
+                .collect(Collectors.toMap(OrderResponse::getId, Function.identity()));
+        orderRepository.findHistoryItemsByOrderIds(byId.keySet())
+                .forEach(item -> byId.get(item.getOrderId()).getItems().add(item));
     }
 }
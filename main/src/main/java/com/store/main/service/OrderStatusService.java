@@ -0,0 +1,187 @@
+package com.store.main.service;
+
+import com.store.main.dto.request.BulkOrderStatusRequest;
+import com.store.main.dto.response.BulkOrderStatusResponse;
+import com.store.main.model.Notification;
+import com.store.main.model.enums.OrderStatus;
+import com.store.main.model.enums.SalesEventType;
+import com.store.main.repository.NotificationRepository;
+import com.store.main.repository.OrderRepository;
+import com.store.main.repository.UserPurchasedProductRepository;
+import com.store.main.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service for order status transitions.
+ *
+ * A transition is a single conditional UPDATE: it only touches orders whose current
+ * status is an allowed predecessor of the target (see OrderStatus.allowedPrevious),
+ * and RETURNING tells which orders actually moved. Concurrent transitions on the
+ * same order therefore cannot both win, without row locks or re-reads.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class OrderStatusService {
+
+    private static final String TRANSITION_SQL =
+            "UPDATE orders SET status = :target WHERE id IN (:ids) AND status IN (:sources) " +
+            "RETURNING id, user_id";
+
+    private static final String CURRENT_STATUS_SQL =
+            "SELECT id, status FROM orders WHERE id IN (:ids)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final OrderRepository orderRepository;
+    private final NotificationRepository notificationRepository;
+    private final UserRepository userRepository;
+    private final UserPurchasedProductRepository userPurchasedProductRepository;
+    private final InventoryService inventoryService;
+    private final SalesRollupService salesRollupService;
+
+    /**
+     * Move one order to the target status if its current status allows it.
+     * Orders cancelled here are restocked in the same transaction, the products of
+     * delivered orders become reviewable, and cancellations and deliveries are queued
+     * for the sales rollups.
+     * @return true if this call won the transition
+     */
+    @Transactional
+    public boolean transition(Long orderId, OrderStatus target) {
+        if (target.allowedPrevious().isEmpty()) {
+            return false;
+        }
+        boolean won = orderRepository.compareAndSetStatus(orderId, target, target.allowedPrevious()) == 1;
+        if (won) {
+            afterTransition(List.of(orderId), target);
+        }
+        return won;
+    }
+
+    /**
+     * Like transition(), but only for an order owned by the given user.
+     * @return true if this call won the transition
+     */
+    @Transactional
+    public boolean transitionForUser(Long orderId, Long userId, OrderStatus target) {
+        if (target.allowedPrevious().isEmpty()) {
+            return false;
+        }
+        boolean won = orderRepository.compareAndSetStatusForUser(
+                orderId, userId, target, target.allowedPrevious()) == 1;
+        if (won) {
+            afterTransition(List.of(orderId), target);
+        }
+        return won;
+    }
+
+    /**
+     * Move many orders to new statuses.
+     * Runs one UPDATE per distinct target status, restocks orders that were cancelled,
+     * and inserts all notifications as one batch. Orders whose transition is not
+     * allowed (or that do not exist) are reported as failed; the others still apply.
+     * @param request order ID and target status pairs; for duplicate IDs the last one wins
+     * @return per-order results in request order
+     */
+    @Transactional
+    public BulkOrderStatusResponse bulkUpdateStatus(BulkOrderStatusRequest request) {
+        Map<Long, OrderStatus> requested = new LinkedHashMap<>();
+        request.getUpdates().forEach(update -> requested.put(update.getOrderId(), update.getStatus()));
+
+        Map<OrderStatus, List<Long>> byTarget = new EnumMap<>(OrderStatus.class);
+        requested.forEach((orderId, status) -> byTarget.computeIfAbsent(status, s -> new ArrayList<>()).add(orderId));
+
+        // Order ID -> user ID of every order that moved
+        Map<Long, Long> moved = new HashMap<>();
+        byTarget.forEach((target, orderIds) -> {
+            Map<Long, Long> won = transition(orderIds, target);
+            afterTransition(won.keySet(), target);
+            moved.putAll(won);
+        });
+
+        List<Notification> notifications = new ArrayList<>();
+        moved.forEach((orderId, userId) -> notifications.add(new Notification(
+                userRepository.getReferenceById(userId),
+                String.format("Order #%d status updated to: %s", orderId, requested.get(orderId).name()))));
+        notificationRepository.saveAll(notifications);
+
+        Map<Long, OrderStatus> current = currentStatuses(requested.keySet().stream()
+                .filter(orderId -> !moved.containsKey(orderId))
+                .toList());
+
+        List<BulkOrderStatusResponse.Result> results = new ArrayList<>();
+        requested.forEach((orderId, target) -> {
+            if (moved.containsKey(orderId)) {
+                results.add(new BulkOrderStatusResponse.Result(orderId, target, true, target, null));
+            } else if (!current.containsKey(orderId)) {
+                results.add(new BulkOrderStatusResponse.Result(orderId, target, false, null, "Order not found"));
+            } else {
+                OrderStatus status = current.get(orderId);
+                results.add(new BulkOrderStatusResponse.Result(orderId, target, false, status,
+                        "Cannot change order from " + status + " to " + target));
+            }
+        });
+
+        log.info("Bulk status update: {} of {} orders moved", moved.size(), requested.size());
+        return new BulkOrderStatusResponse(moved.size(), requested.size() - moved.size(), results);
+    }
+
+    /**
+     * Apply one target status to a set of orders with a single conditional UPDATE.
+     * @return order ID to user ID for the orders that moved
+     */
+    private Map<Long, Long> transition(List<Long> orderIds, OrderStatus target) {
+        Map<Long, Long> won = new HashMap<>();
+        if (orderIds.isEmpty() || target.allowedPrevious().isEmpty()) {
+            return won;
+        }
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("target", target.name())
+                .addValue("ids", orderIds)
+                .addValue("sources", target.allowedPrevious().stream().map(Enum::name).toList());
+        jdbcTemplate.query(TRANSITION_SQL, params,
+                rs -> { won.put(rs.getLong("id"), rs.getLong("user_id")); });
+        return won;
+    }
+
+    /**
+     * Side effects of orders that moved: restock cancelled orders and queue
+     * cancellations and deliveries for the sales rollups.
+     */
+    private void afterTransition(Collection<Long> orderIds, OrderStatus target) {
+        if (orderIds.isEmpty()) {
+            return;
+        }
+        if (target == OrderStatus.CANCELLED) {
+            inventoryService.restockOrders(orderIds);
+            salesRollupService.record(SalesEventType.CANCELLED, orderIds);
+        } else if (target == OrderStatus.DELIVERED) {
+            userPurchasedProductRepository.recordDeliveredOrders(orderIds);
+            salesRollupService.record(SalesEventType.DELIVERED, orderIds);
+        }
+    }
+
+    private Map<Long, OrderStatus> currentStatuses(List<Long> orderIds) {
+        Map<Long, OrderStatus> statuses = new HashMap<>();
+        if (orderIds.isEmpty()) {
+            return statuses;
+        }
+        jdbcTemplate.query(CURRENT_STATUS_SQL, new MapSqlParameterSource("ids", orderIds),
+                rs -> { statuses.put(rs.getLong("id"), OrderStatus.valueOf(rs.getString("status"))); });
+        return statuses;
+    }
+}
@@ -0,0 +1,158 @@
+package com.store.main.service;
+
+import com.store.main.dto.response.ProductRatingResponse;
+import com.store.main.model.ProductRatingStats;
+import com.store.main.repository.ProductRatingStatsRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Service for product rating statistics.
+ *
+ * product_rating_stats holds each product's review count, rating sum and star
+ * histogram, so ratings are read with a primary key lookup instead of aggregating
+ * the reviews. Creating or deleting a review applies its rating with one atomic
+ * upsert in the same transaction.
+ *
+ * rebuild() recomputes every row from the reviews table and reports how many
+ * rows had drifted. It holds a SHARE lock on reviews while it runs, so review
+ * writes wait for it instead of racing with the recomputation.
+ */
+@Service
+@Slf4j
+public class ProductRatingService {
+
+    /**
+     * Outcome of a rebuild: rows corrected or added, and rows removed.
+     */
+    public record RebuildResult(int corrected, int removed, long elapsedMs) {
+    }
+
+    private static final String LOCK_REVIEWS_SQL = "LOCK TABLE reviews IN SHARE MODE";
+
+    private static final String REBUILD_SQL =
+            "WITH fresh AS (" +
+            "    SELECT product_id, COUNT(*) AS review_count, SUM(rating) AS rating_sum, " +
+            "           COUNT(*) FILTER (WHERE rating = 1) AS stars_1, " +
+            "           COUNT(*) FILTER (WHERE rating = 2) AS stars_2, " +
+            "           COUNT(*) FILTER (WHERE rating = 3) AS stars_3, " +
+            "           COUNT(*) FILTER (WHERE rating = 4) AS stars_4, " +
+            "           COUNT(*) FILTER (WHERE rating = 5) AS stars_5 " +
+            "    FROM reviews GROUP BY product_id), " +
+            "upserted AS (" +
+            "    INSERT INTO product_rating_stats AS s " +
+            "    (product_id, review_count, rating_sum, stars_1, stars_2, stars_3, stars_4, stars_5, updated_at) " +
+            "    SELECT product_id, review_count, rating_sum, stars_1, stars_2, stars_3, stars_4, stars_5, " +
+            "           CURRENT_TIMESTAMP FROM fresh " +
+            "    ON CONFLICT (product_id) DO UPDATE SET " +
+            "    review_count = EXCLUDED.review_count, rating_sum = EXCLUDED.rating_sum, " +
+            "    stars_1 = EXCLUDED.stars_1, stars_2 = EXCLUDED.stars_2, stars_3 = EXCLUDED.stars_3, " +
+            "    stars_4 = EXCLUDED.stars_4, stars_5 = EXCLUDED.stars_5, updated_at = EXCLUDED.updated_at " +
+            "    WHERE (s.review_count, s.rating_sum, s.stars_1, s.stars_2, s.stars_3, s.stars_4, s.stars_5) " +
+            "          IS DISTINCT FROM (EXCLUDED.review_count, EXCLUDED.rating_sum, EXCLUDED.stars_1, " +
+            "          EXCLUDED.stars_2, EXCLUDED.stars_3, EXCLUDED.stars_4, EXCLUDED.stars_5) " +
+            "    RETURNING 1), " +
+            "removed AS (" +
+            "    DELETE FROM product_rating_stats s " +
+            "    WHERE NOT EXISTS (SELECT 1 FROM reviews r WHERE r.product_id = s.product_id) " +
+            "    RETURNING 1) " +
+            "SELECT (SELECT COUNT(*) FROM upserted) AS corrected, (SELECT COUNT(*) FROM removed) AS removed";
+
+    private final ProductRatingStatsRepository productRatingStatsRepository;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.review.ratingStats.rebuild.enabled:true}")
+    private boolean rebuildEnabled;
+
+    public ProductRatingService(ProductRatingStatsRepository productRatingStatsRepository,
+                                NamedParameterJdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager) {
+        this.productRatingStatsRepository = productRatingStatsRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Get a product's average rating, review count and star histogram.
+     */
+    public ProductRatingResponse getRating(Long productId) {
+        return ProductRatingResponse.fromStats(productId,
+                productRatingStatsRepository.findById(productId).orElse(null));
+    }
+
+    /**
+     * Get the rating statistics of several products with one query.
+     * @return product ID to statistics, for the products that have reviews
+     */
+    public Map<Long, ProductRatingStats> getStats(Collection<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return Map.of();
+        }
+        return productRatingStatsRepository.findByProductIdIn(productIds).stream()
+                .collect(Collectors.toMap(ProductRatingStats::getProductId, Function.identity()));
+    }
+
+    /**
+     * Count a new review's rating. Runs in the caller's transaction.
+     */
+    @Transactional
+    public void addRating(Long productId, int rating) {
+        productRatingStatsRepository.applyRating(productId, rating, 1);
+    }
+
+    /**
+     * Remove a deleted review's rating. Runs in the caller's transaction.
+     */
+    @Transactional
+    public void removeRating(Long productId, int rating) {
+        productRatingStatsRepository.applyRating(productId, rating, -1);
+    }
+
+    /**
+     * Scheduled rebuild; corrects any drift (e.g. reviews changed directly in the database).
+     */
+    @Scheduled(cron = "${app.review.ratingStats.rebuild.cron:0 0 5 * * *}")
+    public void scheduledRebuild() {
+        if (!rebuildEnabled) {
+            return;
+        }
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.error("Rating statistics rebuild failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Recompute all rating statistics from the reviews table in one transaction.
+     */
+    public RebuildResult rebuild() {
+        long started = System.currentTimeMillis();
+        RebuildResult result = transactionTemplate.execute(status -> {
+            jdbcTemplate.getJdbcTemplate().execute(LOCK_REVIEWS_SQL);
+            return jdbcTemplate.queryForObject(REBUILD_SQL, new MapSqlParameterSource(), (rs, rowNum) ->
+                    new RebuildResult(rs.getInt("corrected"), rs.getInt("removed"),
+                            System.currentTimeMillis() - started));
+        });
+        if (result.corrected() > 0 || result.removed() > 0) {
+            log.warn("Rating statistics rebuild corrected {} products and removed {} ({} ms)",
+                    result.corrected(), result.removed(), result.elapsedMs());
+        } else {
+            log.info("Rating statistics rebuild found no drift ({} ms)", result.elapsedMs());
+        }
+        return result;
+    }
+}
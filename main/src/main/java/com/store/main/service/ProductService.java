@@ -1,10 +1,14 @@
 package com.store.main.service;
 
 import com.store.main.dto.request.ProductRequest;
+import com.store.main.dto.response.CartItemResponse;
+import com.store.main.dto.response.ProductResponse;
 import com.store.main.exception.ResourceNotFoundException;
 import com.store.main.model.Category;
 import com.store.main.model.Inventory;
 import com.store.main.model.Product;
+import com.store.main.model.ProductRatingStats;
+import com.store.main.repository.CartRepository;
 import com.store.main.repository.InventoryRepository;
 import com.store.main.repository.ProductRepository;
 import lombok.RequiredArgsConstructor;
@@ -14,6 +18,9 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Service for managing products.
@@ -25,7 +32,10 @@ public class ProductService {
 
     private final ProductRepository productRepository;
     private final InventoryRepository inventoryRepository;
+    private final CartRepository cartRepository;
+    private final CartStore cartStore;
     private final CategoryService categoryService;
+    private final ProductRatingService productRatingService;
 
     /**
      * Get all products with pagination.
@@ -42,6 +52,41 @@ public class ProductService {
                 .orElseThrow(() -> new ResourceNotFoundException("Product", "id", id));
     }
 
+    /**
+     * Get a product by ID as a response with its average rating and review count.
+     */
+    public ProductResponse getProductResponse(Long id) {
+        Product product = getProductById(id);
+        return ProductResponse.fromProduct(product, productRatingService.getStats(List.of(id)).get(id));
+    }
+
+    /**
+     * Map a page of products to responses with their average rating and review count.
+     * The ratings of the whole page are read with one query.
+     */
+    public Page<ProductResponse> toResponses(Page<Product> products) {
+        List<Long> ids = products.getContent().stream().map(Product::getId).toList();
+        Map<Long, ProductRatingStats> ratings = productRatingService.getStats(ids);
+        return products.map(product -> ProductResponse.fromProduct(product, ratings.get(product.getId())));
+    }
+
+    /**
+     * Get several products by ID with a single query.
+     */
+    public List<Product> getProductsByIds(Collection<Long> ids) {
+        return productRepository.findAllById(ids);
+    }
+
+    /**
+     * Get product, category and stock details for cart lines with a single query.
+     */
+    public List<CartItemResponse> getCartLineDetails(Collection<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return List.of();
+        }
+        return productRepository.findCartLineDetails(productIds);
+    }
+
     /**
      * Search products by name, category, and price range.
      */
@@ -101,6 +146,7 @@ public class ProductService {
     public Product updateProduct(Long id, ProductRequest request) {
         Product product = getProductById(id);
         Category category = categoryService.getCategoryById(request.getCategoryId());
+        boolean priceChanged = product.getPrice().compareTo(request.getPrice()) != 0;
 
         product.setName(request.getName());
         product.setDescription(request.getDescription());
@@ -108,7 +154,16 @@ public class ProductService {
         product.setImageUrl(request.getImageUrl());
         product.setCategory(category);
 
-        return productRepository.save(product);
+        Product savedProduct = productRepository.save(product);
+
+        // Re-validate running cart totals against the new price
+        if (priceChanged) {
+            productRepository.flush();
+            cartRepository.recalculateTotalsForProduct(id);
+            cartStore.repriceProductAfterCommit(id, request.getPrice());
+        }
+
+        return savedProduct;
     }
 
     /**
@@ -0,0 +1,169 @@
+package com.store.main.service;
+
+import com.store.main.dto.response.ReviewHelpfulResponse;
+import com.store.main.exception.BadRequestException;
+import com.store.main.exception.ResourceNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Service for "was this review helpful" votes.
+ *
+ * review_helpful_votes holds one row per user and review, which makes voting
+ * idempotent. A vote that changes that table adds +1 / -1 to one of
+ * app.review.helpful.shards counter rows of the review, chosen at random, instead
+ * of updating the review row, so votes on a popular review do not queue on one
+ * row lock. Every app.review.helpful.mergeIntervalMs the shards are added into
+ * reviews.helpful_count and deleted, in batches that skip shards being written.
+ *
+ * Sorting by helpfulness reads reviews.helpful_count through
+ * idx_reviews_product_helpful_desc, so it lags votes by at most one merge interval.
+ */
+@Service
+@Slf4j
+public class ReviewHelpfulnessService {
+
+    private static final String REVIEW_AUTHOR_SQL =
+            "SELECT user_id FROM reviews WHERE id = :reviewId";
+
+    private static final String INSERT_VOTE_SQL =
+            "INSERT INTO review_helpful_votes (review_id, user_id, created_at) " +
+            "VALUES (:reviewId, :userId, CURRENT_TIMESTAMP) " +
+            "ON CONFLICT (review_id, user_id) DO NOTHING";
+
+    private static final String DELETE_VOTE_SQL =
+            "DELETE FROM review_helpful_votes WHERE review_id = :reviewId AND user_id = :userId";
+
+    private static final String ADD_TO_SHARD_SQL =
+            "INSERT INTO review_helpful_counter_shards AS c (review_id, shard, delta) " +
+            "VALUES (:reviewId, :shard, :delta) " +
+            "ON CONFLICT (review_id, shard) DO UPDATE SET delta = c.delta + EXCLUDED.delta";
+
+    private static final String CURRENT_COUNT_SQL =
+            "SELECT r.helpful_count + COALESCE((SELECT SUM(c.delta) FROM review_helpful_counter_shards c " +
+            "                                   WHERE c.review_id = r.id), 0) " +
+            "FROM reviews r WHERE r.id = :reviewId";
+
+    private static final String MERGE_SQL =
+            "WITH taken AS (" +
+            "    DELETE FROM review_helpful_counter_shards " +
+            "    WHERE (review_id, shard) IN (SELECT review_id, shard FROM review_helpful_counter_shards " +
+            "                                 LIMIT :limit FOR UPDATE SKIP LOCKED) " +
+            "    RETURNING review_id, delta), " +
+            "summed AS (SELECT review_id, SUM(delta) AS delta FROM taken GROUP BY review_id), " +
+            "merged AS (" +
+            "    UPDATE reviews r SET helpful_count = r.helpful_count + s.delta " +
+            "    FROM summed s WHERE r.id = s.review_id AND s.delta <> 0 " +
+            "    RETURNING 1) " +
+            "SELECT (SELECT COUNT(*) FROM taken) AS shards, (SELECT COUNT(*) FROM merged) AS reviews";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.review.helpful.shards:8}")
+    private int shards;
+
+    @Value("${app.review.helpful.mergeBatchSize:1000}")
+    private int mergeBatchSize;
+
+    @Value("${app.review.helpful.enabled:true}")
+    private boolean mergeEnabled;
+
+    public ReviewHelpfulnessService(NamedParameterJdbcTemplate jdbcTemplate,
+                                    PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Record that the user found a review helpful. Voting twice has no further effect.
+     */
+    @Transactional
+    public ReviewHelpfulResponse vote(Long userId, Long reviewId) {
+        checkVoter(userId, reviewId);
+        MapSqlParameterSource params = new MapSqlParameterSource("reviewId", reviewId).addValue("userId", userId);
+        if (jdbcTemplate.update(INSERT_VOTE_SQL, params) == 1) {
+            addToShard(reviewId, 1);
+        }
+        return new ReviewHelpfulResponse(reviewId, currentCount(reviewId), true);
+    }
+
+    /**
+     * Withdraw the user's helpful vote on a review, if any.
+     */
+    @Transactional
+    public ReviewHelpfulResponse unvote(Long userId, Long reviewId) {
+        checkVoter(userId, reviewId);
+        MapSqlParameterSource params = new MapSqlParameterSource("reviewId", reviewId).addValue("userId", userId);
+        if (jdbcTemplate.update(DELETE_VOTE_SQL, params) == 1) {
+            addToShard(reviewId, -1);
+        }
+        return new ReviewHelpfulResponse(reviewId, currentCount(reviewId), false);
+    }
+
+    /**
+     * Scheduled merge of the counter shards into the reviews.
+     */
+    @Scheduled(fixedDelayString = "${app.review.helpful.mergeIntervalMs:10000}")
+    public void scheduledMerge() {
+        if (!mergeEnabled) {
+            return;
+        }
+        try {
+            mergeCounters();
+        } catch (RuntimeException e) {
+            log.error("Helpful vote merge failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Add all pending counter shards into reviews.helpful_count, one batch per transaction.
+     * @return number of shard rows merged
+     */
+    public int mergeCounters() {
+        int merged = 0;
+        Integer batch;
+        do {
+            batch = transactionTemplate.execute(status -> jdbcTemplate.queryForObject(MERGE_SQL,
+                    new MapSqlParameterSource("limit", mergeBatchSize), (rs, rowNum) -> rs.getInt("shards")));
+            merged += batch != null ? batch : 0;
+        } while (batch != null && batch == mergeBatchSize);
+        if (merged > 0) {
+            log.debug("Merged {} helpful vote counter shards", merged);
+        }
+        return merged;
+    }
+
+    private void checkVoter(Long userId, Long reviewId) {
+        List<Long> authors = jdbcTemplate.queryForList(REVIEW_AUTHOR_SQL,
+                new MapSqlParameterSource("reviewId", reviewId), Long.class);
+        if (authors.isEmpty()) {
+            throw new ResourceNotFoundException("Review", "id", reviewId);
+        }
+        if (authors.get(0).equals(userId)) {
+            throw new BadRequestException("You cannot vote on your own review");
+        }
+    }
+
+    private void addToShard(Long reviewId, int delta) {
+        jdbcTemplate.update(ADD_TO_SHARD_SQL, new MapSqlParameterSource("reviewId", reviewId)
+                .addValue("shard", ThreadLocalRandom.current().nextInt(shards))
+                .addValue("delta", delta));
+    }
+
+    private Long currentCount(Long reviewId) {
+        Long count = jdbcTemplate.queryForObject(CURRENT_COUNT_SQL,
+                new MapSqlParameterSource("reviewId", reviewId), Long.class);
+        return count != null ? count : 0L;
+    }
+}
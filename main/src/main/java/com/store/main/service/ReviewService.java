@@ -1,16 +1,18 @@
 package com.store.main.service;
 
 import com.store.main.dto.request.ReviewRequest;
+import com.store.main.dto.response.ProductRatingResponse;
+import com.store.main.dto.response.ReviewFeedResponse;
+import com.store.main.dto.response.ReviewResponse;
 import com.store.main.exception.BadRequestException;
 import com.store.main.exception.ResourceNotFoundException;
-import com.store.main.model.Order;
 import com.store.main.model.Product;
 import com.store.main.model.Review;
-import com.store.main.model.User;
-import com.store.main.model.enums.OrderStatus;
-import com.store.main.repository.OrderRepository;
+import com.store.main.model.UserPurchasedProduct;
 import com.store.main.repository.ProductRepository;
+import com.store.main.repository.ReviewFeedRepository;
 import com.store.main.repository.ReviewRepository;
+import com.store.main.repository.UserPurchasedProductRepository;
 import com.store.main.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -18,6 +20,12 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+
 /**
  * Service for managing product reviews.
  * Implements purchase verification to ensure only verified buyers can review.
@@ -26,25 +34,26 @@ import org.springframework.transaction.annotation.Transactional;
 @RequiredArgsConstructor
 public class ReviewService {
 
+    private static final int MAX_FEED_PAGE_SIZE = 50;
+
     private final ReviewRepository reviewRepository;
     private final UserRepository userRepository;
     private final ProductRepository productRepository;
-    private final OrderRepository orderRepository;
+    private final UserPurchasedProductRepository userPurchasedProductRepository;
+    private final ProductRatingService productRatingService;
 
     /**
      * Create a review for a product.
-     * Verifies that the user has purchased and received the product.
+     * Verifies that the user has purchased and received the product,
+     * and counts the rating in the product's rating statistics.
      */
     @Transactional
-    public Review createReview(String username, ReviewRequest request) {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new ResourceNotFoundException("User", "username", username));
-
+    public Review createReview(Long userId, ReviewRequest request) {
         Product product = productRepository.findById(request.getProductId())
                 .orElseThrow(() -> new ResourceNotFoundException("Product", "id", request.getProductId()));
 
-        // Verify purchase: Check if user has a SHIPPED/DELIVERED order containing this product
-        boolean hasPurchased = verifyPurchase(user, product);
+        // Verify purchase: Check if user has a DELIVERED order containing this product
+        boolean hasPurchased = verifyPurchase(userId, product.getId());
 
         if (!hasPurchased) {
             throw new BadRequestException(
@@ -52,7 +61,7 @@ public class ReviewService {
         }
 
         // Check if user already reviewed this product
-        if (reviewRepository.existsByUserAndProduct(user, product)) {
+        if (reviewRepository.existsByUserIdAndProductId(userId, product.getId())) {
             throw new BadRequestException("You have already reviewed this product");
         }
 
@@ -63,76 +72,122 @@ public class ReviewService {
 
         // Create review
         Review review = new Review();
-        review.setUser(user);
+        review.setUser(userRepository.getReferenceById(userId));
         review.setProduct(product);
         review.setRating(request.getRating());
         review.setComment(request.getComment());
         review.setIsVerifiedPurchase(true);  // Mark as verified since purchase was verified
 
-        return reviewRepository.save(review);
+        Review saved = reviewRepository.save(review);
+        productRatingService.addRating(product.getId(), saved.getRating());
+        return saved;
     }
 
     /**
      * Verify that the user has purchased and received the product.
-     * Only orders with status SHIPPED or DELIVERED count as verified purchases.
+     * Products of DELIVERED orders (including archived ones) are recorded in
+     * user_purchased_products, so this is a primary key lookup.
+     */
+    private boolean verifyPurchase(Long userId, Long productId) {
+        return userPurchasedProductRepository.existsById(new UserPurchasedProduct.Key(userId, productId));
+    }
+
+    /**
+     * Get all reviews for a product, newest first, with author names.
      */
-    private boolean verifyPurchase(User user, Product product) {
-        Page<Order> userOrders = orderRepository.findByUserOrderByCreatedAtDesc(
-            user,
-            Pageable.unpaged()
-        );
-
-        return userOrders.stream()
-            .filter(order -> order.getStatus() == OrderStatus.SHIPPED ||
-                           order.getStatus() == OrderStatus.DELIVERED)
-            .flatMap(order -> order.getItems().stream())
-            .anyMatch(orderItem -> orderItem.getProduct().getId().equals(product.getId()));
+    public Page<ReviewResponse> getProductReviews(Long productId, Pageable pageable) {
+        ensureProductExists(productId);
+        return reviewRepository.findResponsesByProductId(productId, pageable);
     }
 
     /**
-     * Get all reviews for a product.
+     * Get one page of a product's review feed, newest first, with author names.
+     * @param productId the product ID
+     * @param cursor nextCursor of the previous page, or null for the first page
+     * @param size page size (1-50)
+     * @param rating optional star rating filter (1-5)
+     * @param sort newest first, or most helpful first
      */
-    public Page<Review> getProductReviews(Long productId, Pageable pageable) {
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new ResourceNotFoundException("Product", "id", productId));
+    public ReviewFeedResponse getReviewFeed(Long productId, String cursor, int size, Integer rating,
+                                            ReviewFeedRepository.Sort sort) {
+        if (size < 1 || size > MAX_FEED_PAGE_SIZE) {
+            throw new BadRequestException("Page size must be between 1 and " + MAX_FEED_PAGE_SIZE);
+        }
+        if (rating != null && (rating < 1 || rating > 5)) {
+            throw new BadRequestException("Rating must be between 1 and 5");
+        }
+        ensureProductExists(productId);
+
+        ReviewFeedRepository.Position after = cursor != null && !cursor.isBlank() ? decodeCursor(cursor) : null;
 
-        return reviewRepository.findByProductOrderByCreatedAtDesc(product, pageable);
+        // Read one extra row to know whether there is a next page
+        List<ReviewResponse> rows = reviewRepository.findFeed(productId, rating, sort, after, size + 1);
+        if (rows.size() <= size) {
+            return new ReviewFeedResponse(rows, null);
+        }
+        List<ReviewResponse> page = rows.subList(0, size);
+        ReviewResponse last = page.get(size - 1);
+        return new ReviewFeedResponse(List.copyOf(page), encodeCursor(last));
     }
 
     /**
      * Get all reviews by a user.
      */
-    public Page<Review> getUserReviews(String username, Pageable pageable) {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new ResourceNotFoundException("User", "username", username));
-
-        return reviewRepository.findByUserOrderByCreatedAtDesc(user, pageable);
+    public Page<Review> getUserReviews(Long userId, Pageable pageable) {
+        return reviewRepository.findByUserIdOrderByCreatedAtDesc(userId, pageable);
     }
 
     /**
      * Delete a review.
      * Only the review author can delete their own review.
+     * The rating is removed from the product's rating statistics.
      */
     @Transactional
-    public void deleteReview(String username, Long reviewId) {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new ResourceNotFoundException("User", "username", username));
-
+    public void deleteReview(Long userId, Long reviewId) {
         Review review = reviewRepository.findById(reviewId)
                 .orElseThrow(() -> new ResourceNotFoundException("Review", "id", reviewId));
 
         // Ensure user owns the review
-        if (!review.getUser().getId().equals(user.getId())) {
+        if (!review.getUser().getId().equals(userId)) {
             throw new BadRequestException("You can only delete your own reviews");
         }
 
         reviewRepository.delete(review);
+        productRatingService.removeRating(review.getProduct().getId(), review.getRating());
+    }
+
+    /**
+     * Get a product's average rating, review count and star histogram.
+     */
+    public ProductRatingResponse getRating(Long productId) {
+        return productRatingService.getRating(productId);
+    }
+
+    private void ensureProductExists(Long productId) {
+        if (!productRepository.existsById(productId)) {
+            throw new ResourceNotFoundException("Product", "id", productId);
+        }
     }
 
     /**
-     * Calculate average rating for a product.
+     * Encode the position of a feed page's last review as an opaque cursor.
+     * It carries both sort keys, so it works for either feed order.
      */
-    public Double getAverageRating(Long productId) {
-        return reviewRepository.findAverageRatingByProductId(productId);
+    private static String encodeCursor(ReviewResponse last) {
+        String raw = last.getCreatedAt() + "|" + last.getHelpfulCount() + "|" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static ReviewFeedRepository.Position decodeCursor(String cursor) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            if (parts.length == 3) {
+                return new ReviewFeedRepository.Position(LocalDateTime.parse(parts[0]),
+                        Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+            }
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            // Fall through
+        }
+        throw new BadRequestException("Invalid cursor");
     }
 }
@@ -0,0 +1,82 @@
+package com.store.main.service;
+
+import com.store.main.dto.response.SalesBreakdownResponse;
+import com.store.main.exception.BadRequestException;
+import com.store.main.model.SalesDaily;
+import com.store.main.repository.SalesDailyCategoryRepository;
+import com.store.main.repository.SalesDailyProductRepository;
+import com.store.main.repository.SalesDailyRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Service for revenue analytics read from the daily sales rollups.
+ * A query reads one row per day (or per day and product / category sold) of the
+ * range, never the orders themselves. Figures lag live orders by a few seconds.
+ */
+@Service
+@RequiredArgsConstructor
+public class SalesReportService {
+
+    private static final int DEFAULT_RANGE_DAYS = 30;
+    private static final int MAX_RANGE_DAYS = 366;
+    private static final int MAX_LIMIT = 100;
+
+    private final SalesDailyRepository salesDailyRepository;
+    private final SalesDailyProductRepository salesDailyProductRepository;
+    private final SalesDailyCategoryRepository salesDailyCategoryRepository;
+
+    /**
+     * Get store-wide sales per day; days without orders are omitted.
+     * @param from first day included (default: 30 days before to)
+     * @param to last day included (default: today, UTC)
+     */
+    public List<SalesDaily> getDailySales(LocalDate from, LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now(ZoneOffset.UTC);
+        LocalDate start = from != null ? from : end.minusDays(DEFAULT_RANGE_DAYS - 1L);
+        validateRange(start, end);
+        return salesDailyRepository.findBySalesDateBetweenOrderBySalesDate(start, end);
+    }
+
+    /**
+     * Get the best-selling products of a date range by net revenue.
+     */
+    public List<SalesBreakdownResponse> getProductSales(LocalDate from, LocalDate to, int limit) {
+        LocalDate end = to != null ? to : LocalDate.now(ZoneOffset.UTC);
+        LocalDate start = from != null ? from : end.minusDays(DEFAULT_RANGE_DAYS - 1L);
+        validateRange(start, end);
+        return salesDailyProductRepository.sumByProduct(start, end, PageRequest.of(0, validateLimit(limit)));
+    }
+
+    /**
+     * Get sales per category of a date range by net revenue.
+     */
+    public List<SalesBreakdownResponse> getCategorySales(LocalDate from, LocalDate to, int limit) {
+        LocalDate end = to != null ? to : LocalDate.now(ZoneOffset.UTC);
+        LocalDate start = from != null ? from : end.minusDays(DEFAULT_RANGE_DAYS - 1L);
+        validateRange(start, end);
+        return salesDailyCategoryRepository.sumByCategory(start, end, PageRequest.of(0, validateLimit(limit)));
+    }
+
+    private void validateRange(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new BadRequestException("'from' date must not be after 'to' date");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS) {
+            throw new BadRequestException("Date range must not exceed " + MAX_RANGE_DAYS + " days");
+        }
+    }
+
+    private int validateLimit(int limit) {
+        if (limit <= 0 || limit > MAX_LIMIT) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        return limit;
+    }
+}
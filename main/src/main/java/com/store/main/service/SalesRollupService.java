@@ -0,0 +1,508 @@
+package com.store.main.service;
+
+import com.store.main.exception.BadRequestException;
+import com.store.main.model.SalesRollupEvent;
+import com.store.main.model.enums.SalesEventType;
+import com.store.main.repository.SalesRollupEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.TreeSet;
+
+/**
+ * Maintains the daily sales rollups (sales_daily, sales_daily_product, sales_daily_category).
+ *
+ * Order changes only append a row to sales_rollup_events (record()). The insert joins
+ * the order change's own transaction, so an event exists exactly when the change
+ * commits; it must not run in a separate (REQUIRES_NEW) transaction. A background task
+ * folds pending events into the rollups every few seconds with one upsert per table
+ * and event type, adding to the placed, cancelled_ or delivered_ columns of the day
+ * the order was placed. Checkouts therefore never wait on the shared per-day rows.
+ *
+ * rebuild() recomputes a date range from orders and the order archive (backfill), and
+ * check() compares the rollups with a recomputation and can repair differing days.
+ * Folding and rebuilding take the same transaction-scoped advisory lock so they never
+ * interleave. Days are UTC calendar days of orders.created_at.
+ */
+@Service
+@Slf4j
+public class SalesRollupService {
+
+    /**
+     * Rows written by a rebuild of a date range.
+     */
+    public record RebuildResult(LocalDate from, LocalDate to, int dailyRows, int productRows,
+                                int categoryRows, long elapsedMs) {
+    }
+
+    /**
+     * Days in a range whose rollups differ from a recomputation, and the days repaired.
+     */
+    public record ConsistencyReport(LocalDate from, LocalDate to, List<LocalDate> mismatchedDates,
+                                    List<LocalDate> repairedDates) {
+    }
+
+    private static final long ROLLUP_LOCK_KEY = 0x53414c4553L;
+
+    private static final String[] ORDER_METRICS = {"orders", "units", "revenue", "discounts"};
+    private static final String[] LINE_METRICS = {"orders", "units", "revenue"};
+
+    private static final Map<String, String> DAILY_AGGREGATES = Map.of(
+            "orders", "COUNT(*)",
+            "units", "SUM(r.units)",
+            "revenue", "SUM(r.total_price)",
+            "discounts", "SUM(r.gross - r.total_price)");
+
+    private static final Map<String, String> LINE_AGGREGATES = Map.of(
+            "orders", "COUNT(*)",
+            "units", "SUM(oi.quantity)",
+            "revenue", "SUM(oi.quantity * oi.price_at_purchase)");
+
+    private static final String TRY_LOCK_SQL = "SELECT pg_try_advisory_xact_lock(:key)";
+
+    private static final String LOCK_SQL = "SELECT 1 FROM pg_advisory_xact_lock(:key)";
+
+    private static final String TAKE_EVENTS_SQL =
+            "DELETE FROM sales_rollup_events WHERE id IN (" +
+            "SELECT id FROM sales_rollup_events ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED) " +
+            "RETURNING order_id, type";
+
+    // Incremental deltas for a set of new or changed orders (always live orders)
+
+    private static final String DAILY_DELTA_FROM =
+            "FROM (SELECT CAST(o.created_at AS DATE) AS sales_date, o.total_price, " +
+            "      SUM(oi.quantity) AS units, SUM(oi.quantity * oi.price_at_purchase) AS gross " +
+            "      FROM orders o JOIN order_items oi ON oi.order_id = o.id " +
+            "      WHERE o.id IN (:ids) GROUP BY o.id, o.created_at, o.total_price) r " +
+            "GROUP BY r.sales_date ORDER BY r.sales_date";
+
+    private static final String PRODUCT_DELTA_FROM =
+            "FROM orders o JOIN order_items oi ON oi.order_id = o.id " +
+            "JOIN products p ON p.id = oi.product_id " +
+            "WHERE o.id IN (:ids) " +
+            "GROUP BY CAST(o.created_at AS DATE), oi.product_id, p.category_id ORDER BY 1, 2";
+
+    // Categories follow the category recorded on the product rollup row, so a product
+    // moved to another category later does not split one day's figures
+    private static final String CATEGORY_DELTA_FROM =
+            "FROM orders o JOIN order_items oi ON oi.order_id = o.id " +
+            "JOIN sales_daily_product s ON s.sales_date = CAST(o.created_at AS DATE) AND s.product_id = oi.product_id " +
+            "WHERE o.id IN (:ids) " +
+            "GROUP BY CAST(o.created_at AS DATE), s.category_id ORDER BY 1, 2";
+
+    // Full recomputation of a date range from live and archived orders
+
+    private static final String RANGE_ORDERS =
+            "(SELECT id, status, created_at, total_price FROM orders " +
+            " WHERE created_at >= :from AND created_at < :until " +
+            " UNION ALL " +
+            " SELECT id, status, created_at, total_price FROM orders_archive " +
+            " WHERE created_at >= :from AND created_at < :until)";
+
+    private static final String ALL_ITEMS =
+            "(SELECT order_id, product_id, quantity, price_at_purchase FROM order_items " +
+            " UNION ALL " +
+            " SELECT order_id, product_id, quantity, price_at_purchase FROM order_items_archive)";
+
+    private static final String DAILY_RANGE_FROM =
+            "FROM (SELECT o.id, o.status, CAST(o.created_at AS DATE) AS sales_date, o.total_price, " +
+            "      SUM(oi.quantity) AS units, SUM(oi.quantity * oi.price_at_purchase) AS gross " +
+            "      FROM " + RANGE_ORDERS + " o JOIN " + ALL_ITEMS + " oi ON oi.order_id = o.id " +
+            "      GROUP BY o.id, o.status, o.created_at, o.total_price) r " +
+            "GROUP BY r.sales_date";
+
+    private static final String PRODUCT_RANGE_FROM =
+            "FROM " + RANGE_ORDERS + " o JOIN " + ALL_ITEMS + " oi ON oi.order_id = o.id " +
+            "JOIN products p ON p.id = oi.product_id " +
+            "GROUP BY CAST(o.created_at AS DATE), oi.product_id, p.category_id";
+
+    private static final String DAILY_COLUMNS = metricColumns(ORDER_METRICS);
+    private static final String LINE_COLUMNS = metricColumns(LINE_METRICS);
+
+    private static final String RECOMPUTE_DAILY_SQL = recomputeSql(
+            "r.sales_date AS sales_date", ORDER_METRICS, DAILY_AGGREGATES, "r.status", DAILY_RANGE_FROM);
+
+    private static final String RECOMPUTE_PRODUCT_SQL = recomputeSql(
+            "CAST(o.created_at AS DATE) AS sales_date, oi.product_id AS product_id, p.category_id AS category_id",
+            LINE_METRICS, LINE_AGGREGATES, "o.status", PRODUCT_RANGE_FROM);
+
+    private static final String RECOMPUTE_CATEGORY_SQL =
+            "SELECT sales_date, category_id, " + sumColumns(LINE_METRICS) + " FROM sales_daily_product " +
+            "WHERE sales_date BETWEEN :fromDate AND :toDate GROUP BY sales_date, category_id";
+
+    private static final String DELETE_RANGE_SQL =
+            "DELETE FROM %s WHERE sales_date BETWEEN :fromDate AND :toDate";
+
+    // Events of orders in the range are reflected by the recomputation itself; deleting
+    // them in the same statement (one snapshot) keeps them from being counted twice
+    private static final String REBUILD_DAILY_AND_PRODUCTS_SQL =
+            "WITH consumed AS (DELETE FROM sales_rollup_events WHERE order_id IN " +
+            "      (SELECT id FROM orders WHERE created_at >= :from AND created_at < :until) RETURNING 1), " +
+            "daily AS (INSERT INTO sales_daily (sales_date, " + DAILY_COLUMNS + ", updated_at) " +
+            "      SELECT r.*, CURRENT_TIMESTAMP FROM (" + RECOMPUTE_DAILY_SQL + ") r RETURNING 1), " +
+            "products AS (INSERT INTO sales_daily_product (sales_date, product_id, category_id, " +
+            LINE_COLUMNS + ", updated_at) " +
+            "      SELECT r.*, CURRENT_TIMESTAMP FROM (" + RECOMPUTE_PRODUCT_SQL + ") r RETURNING 1) " +
+            "SELECT (SELECT COUNT(*) FROM daily) AS daily_rows, (SELECT COUNT(*) FROM products) AS product_rows, " +
+            "(SELECT COUNT(*) FROM consumed) AS consumed_events";
+
+    private static final String REBUILD_CATEGORIES_SQL =
+            "INSERT INTO sales_daily_category (sales_date, category_id, " + LINE_COLUMNS + ", updated_at) " +
+            "SELECT r.*, CURRENT_TIMESTAMP FROM (" + RECOMPUTE_CATEGORY_SQL + ") r";
+
+    // Days with unfolded events are skipped: their rollups are expected to lag
+    private static final String PENDING_DATES_FILTER =
+            " AND COALESCE(r.sales_date, s.sales_date) NOT IN (" +
+            "SELECT CAST(o.created_at AS DATE) FROM sales_rollup_events e JOIN orders o ON o.id = e.order_id)";
+
+    private static final String CHECK_DAILY_SQL =
+            "SELECT DISTINCT COALESCE(r.sales_date, s.sales_date) AS sales_date " +
+            "FROM (" + RECOMPUTE_DAILY_SQL + ") r " +
+            "FULL JOIN (SELECT * FROM sales_daily WHERE sales_date BETWEEN :fromDate AND :toDate) s " +
+            "ON s.sales_date = r.sales_date " +
+            "WHERE " + distinctRows(ORDER_METRICS) + PENDING_DATES_FILTER;
+
+    private static final String CHECK_PRODUCT_SQL =
+            "SELECT DISTINCT COALESCE(r.sales_date, s.sales_date) AS sales_date " +
+            "FROM (" + RECOMPUTE_PRODUCT_SQL + ") r " +
+            "FULL JOIN (SELECT * FROM sales_daily_product WHERE sales_date BETWEEN :fromDate AND :toDate) s " +
+            "ON s.sales_date = r.sales_date AND s.product_id = r.product_id " +
+            "WHERE " + distinctRows(LINE_METRICS) + PENDING_DATES_FILTER;
+
+    private static final String CHECK_CATEGORY_SQL =
+            "SELECT DISTINCT COALESCE(r.sales_date, s.sales_date) AS sales_date " +
+            "FROM (" + RECOMPUTE_CATEGORY_SQL + ") r " +
+            "FULL JOIN (SELECT * FROM sales_daily_category WHERE sales_date BETWEEN :fromDate AND :toDate) s " +
+            "ON s.sales_date = r.sales_date AND s.category_id = r.category_id " +
+            "WHERE " + distinctRows(LINE_METRICS) + PENDING_DATES_FILTER;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SalesRollupEventRepository eventRepository;
+    private final Map<SalesEventType, List<String>> deltaSql = new EnumMap<>(SalesEventType.class);
+
+    @Value("${app.sales.rollup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.sales.rollup.foldBatchSize:1000}")
+    private int foldBatchSize;
+
+    @Value("${app.sales.rollup.rebuildChunkDays:31}")
+    private int rebuildChunkDays;
+
+    @Value("${app.sales.rollup.check.days:7}")
+    private int checkDays;
+
+    @Value("${app.sales.rollup.check.repair:true}")
+    private boolean repairOnCheck;
+
+    public SalesRollupService(NamedParameterJdbcTemplate jdbcTemplate,
+                              PlatformTransactionManager transactionManager,
+                              SalesRollupEventRepository eventRepository) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventRepository = eventRepository;
+
+        for (SalesEventType type : SalesEventType.values()) {
+            deltaSql.put(type, List.of(
+                    upsertSql("sales_daily", "sales_date", "sales_date", "r.sales_date",
+                            ORDER_METRICS, DAILY_AGGREGATES, type, DAILY_DELTA_FROM),
+                    upsertSql("sales_daily_product", "sales_date, product_id, category_id", "sales_date, product_id",
+                            "CAST(o.created_at AS DATE), oi.product_id, p.category_id",
+                            LINE_METRICS, LINE_AGGREGATES, type, PRODUCT_DELTA_FROM),
+                    upsertSql("sales_daily_category", "sales_date, category_id", "sales_date, category_id",
+                            "CAST(o.created_at AS DATE), s.category_id",
+                            LINE_METRICS, LINE_AGGREGATES, type, CATEGORY_DELTA_FROM)));
+        }
+    }
+
+    /**
+     * Record order events in the caller's transaction; they reach the rollups
+     * within app.sales.rollup.foldIntervalMs after commit.
+     * @param type what happened to the orders
+     * @param orderIds the orders it happened to
+     */
+    @Transactional
+    public void record(SalesEventType type, Collection<Long> orderIds) {
+        if (orderIds.isEmpty()) {
+            return;
+        }
+        eventRepository.saveAll(orderIds.stream()
+                .map(orderId -> new SalesRollupEvent(orderId, type))
+                .toList());
+    }
+
+    /**
+     * Scheduled entry point for folding pending events.
+     */
+    @Scheduled(fixedDelayString = "${app.sales.rollup.foldIntervalMs:5000}")
+    public void scheduledFold() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            foldPending();
+        } catch (RuntimeException e) {
+            log.error("Sales rollup fold failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Fold pending events into the rollups until none are left (or another
+     * instance or a rebuild holds the rollup lock).
+     * @return number of events folded
+     */
+    public int foldPending() {
+        int folded = 0;
+        int batch;
+        do {
+            batch = foldBatch();
+            folded += batch;
+        } while (batch == foldBatchSize);
+        if (folded > 0) {
+            log.debug("Folded {} sales events into the rollups", folded);
+        }
+        return folded;
+    }
+
+    /**
+     * Recompute the rollups of a date range from orders and the order archive.
+     * Used to backfill history and to repair days reported by check().
+     * Runs in chunks of app.sales.rollup.rebuildChunkDays, one transaction each.
+     */
+    public RebuildResult rebuild(LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        long started = System.currentTimeMillis();
+        int dailyRows = 0;
+        int productRows = 0;
+        int categoryRows = 0;
+
+        LocalDate chunkStart = from;
+        while (!chunkStart.isAfter(to)) {
+            LocalDate chunkEnd = chunkStart.plusDays(rebuildChunkDays - 1L);
+            if (chunkEnd.isAfter(to)) {
+                chunkEnd = to;
+            }
+            ChunkRows rows = rebuildChunk(chunkStart, chunkEnd);
+            dailyRows += rows.daily();
+            productRows += rows.products();
+            categoryRows += rows.categories();
+            chunkStart = chunkEnd.plusDays(1);
+        }
+
+        RebuildResult result = new RebuildResult(from, to, dailyRows, productRows, categoryRows,
+                System.currentTimeMillis() - started);
+        log.info("Rebuilt sales rollups {}..{}: {} daily, {} product, {} category rows ({} ms)",
+                from, to, dailyRows, productRows, categoryRows, result.elapsedMs());
+        return result;
+    }
+
+    /**
+     * Scheduled consistency check of the most recent app.sales.rollup.check.days days.
+     */
+    @Scheduled(cron = "${app.sales.rollup.check.cron:0 30 4 * * *}")
+    public void scheduledCheck() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            LocalDate today = LocalDate.now(ZoneOffset.UTC);
+            check(today.minusDays(checkDays), today, repairOnCheck);
+        } catch (RuntimeException e) {
+            log.error("Sales rollup check failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Compare the rollups of a date range with a recomputation from the orders.
+     * Pending events are folded first; days that still have unfolded events are skipped.
+     * @param repair rebuild each mismatched day
+     */
+    public ConsistencyReport check(LocalDate from, LocalDate to, boolean repair) {
+        validateRange(from, to);
+        foldPending();
+
+        MapSqlParameterSource params = rangeParams(from, to);
+        TreeSet<LocalDate> mismatched = new TreeSet<>();
+        for (String sql : List.of(CHECK_DAILY_SQL, CHECK_PRODUCT_SQL, CHECK_CATEGORY_SQL)) {
+            jdbcTemplate.query(sql, params, rs -> { mismatched.add(rs.getDate("sales_date").toLocalDate()); });
+        }
+
+        List<LocalDate> repaired = new ArrayList<>();
+        if (repair) {
+            for (LocalDate date : mismatched) {
+                rebuildChunk(date, date);
+                repaired.add(date);
+            }
+        }
+
+        if (mismatched.isEmpty()) {
+            log.info("Sales rollups {}..{} are consistent", from, to);
+        } else {
+            log.warn("Sales rollups {}..{} differ from orders on {}{}", from, to, mismatched,
+                    repair ? " (rebuilt)" : "");
+        }
+        return new ConsistencyReport(from, to, List.copyOf(mismatched), repaired);
+    }
+
+    private int foldBatch() {
+        Integer folded = transactionTemplate.execute(status -> {
+            Boolean locked = jdbcTemplate.queryForObject(TRY_LOCK_SQL,
+                    new MapSqlParameterSource("key", ROLLUP_LOCK_KEY), Boolean.class);
+            if (!Boolean.TRUE.equals(locked)) {
+                return 0;
+            }
+
+            Map<SalesEventType, List<Long>> byType = new EnumMap<>(SalesEventType.class);
+            jdbcTemplate.query(TAKE_EVENTS_SQL, new MapSqlParameterSource("limit", foldBatchSize), rs -> {
+                byType.computeIfAbsent(SalesEventType.valueOf(rs.getString("type")), type -> new ArrayList<>())
+                        .add(rs.getLong("order_id"));
+            });
+
+            // EnumMap order applies PLACED before CANCELLED / DELIVERED of the same batch
+            int events = 0;
+            for (Map.Entry<SalesEventType, List<Long>> entry : byType.entrySet()) {
+                MapSqlParameterSource ids = new MapSqlParameterSource("ids", entry.getValue());
+                for (String sql : deltaSql.get(entry.getKey())) {
+                    jdbcTemplate.update(sql, ids);
+                }
+                events += entry.getValue().size();
+            }
+            return events;
+        });
+        return folded != null ? folded : 0;
+    }
+
+    private ChunkRows rebuildChunk(LocalDate from, LocalDate to) {
+        return transactionTemplate.execute(status -> {
+            MapSqlParameterSource params = rangeParams(from, to).addValue("key", ROLLUP_LOCK_KEY);
+            jdbcTemplate.queryForObject(LOCK_SQL, params, Integer.class);
+
+            for (String table : List.of("sales_daily_category", "sales_daily_product", "sales_daily")) {
+                jdbcTemplate.update(String.format(DELETE_RANGE_SQL, table), params);
+            }
+            Map<String, Object> counts = jdbcTemplate.queryForMap(REBUILD_DAILY_AND_PRODUCTS_SQL, params);
+            int categoryRows = jdbcTemplate.update(REBUILD_CATEGORIES_SQL, params);
+            return new ChunkRows(((Number) counts.get("daily_rows")).intValue(),
+                    ((Number) counts.get("product_rows")).intValue(), categoryRows);
+        });
+    }
+
+    private MapSqlParameterSource rangeParams(LocalDate from, LocalDate to) {
+        return new MapSqlParameterSource()
+                .addValue("from", Timestamp.valueOf(from.atStartOfDay()))
+                .addValue("until", Timestamp.valueOf(to.plusDays(1).atStartOfDay()))
+                .addValue("fromDate", Date.valueOf(from))
+                .addValue("toDate", Date.valueOf(to));
+    }
+
+    private void validateRange(LocalDate from, LocalDate to) {
+        if (from == null || to == null) {
+            throw new BadRequestException("'from' and 'to' dates are required");
+        }
+        if (from.isAfter(to)) {
+            throw new BadRequestException("'from' date must not be after 'to' date");
+        }
+    }
+
+    /**
+     * All metric columns in table order: placed, cancelled_, delivered_.
+     */
+    private static String metricColumns(String[] metrics) {
+        StringJoiner columns = new StringJoiner(", ");
+        for (SalesEventType type : SalesEventType.values()) {
+            for (String metric : metrics) {
+                columns.add(type.columnPrefix() + metric);
+            }
+        }
+        return columns.toString();
+    }
+
+    private static String sumColumns(String[] metrics) {
+        StringJoiner sums = new StringJoiner(", ");
+        for (SalesEventType type : SalesEventType.values()) {
+            for (String metric : metrics) {
+                String column = type.columnPrefix() + metric;
+                sums.add("SUM(" + column + ") AS " + column);
+            }
+        }
+        return sums.toString();
+    }
+
+    private static String distinctRows(String[] metrics) {
+        StringJoiner recomputed = new StringJoiner(", ", "(", ")");
+        StringJoiner stored = new StringJoiner(", ", "(", ")");
+        for (SalesEventType type : SalesEventType.values()) {
+            for (String metric : metrics) {
+                recomputed.add("r." + type.columnPrefix() + metric);
+                stored.add("s." + type.columnPrefix() + metric);
+            }
+        }
+        return recomputed + " IS DISTINCT FROM " + stored;
+    }
+
+    /**
+     * INSERT ... SELECT ... ON CONFLICT that adds one event type's aggregates to a rollup table.
+     * The columns of the other event types are inserted as 0 and left alone on conflict.
+     */
+    private static String upsertSql(String table, String keyColumns, String conflictColumns, String keySelect,
+                                    String[] metrics, Map<String, String> aggregates, SalesEventType type,
+                                    String from) {
+        StringJoiner values = new StringJoiner(", ");
+        for (SalesEventType columnType : SalesEventType.values()) {
+            for (String metric : metrics) {
+                values.add(columnType == type ? aggregates.get(metric) : "0");
+            }
+        }
+        StringJoiner updates = new StringJoiner(", ");
+        for (String metric : metrics) {
+            String column = type.columnPrefix() + metric;
+            updates.add(column + " = " + table + "." + column + " + EXCLUDED." + column);
+        }
+        return "INSERT INTO " + table + " (" + keyColumns + ", " + metricColumns(metrics) + ", updated_at) " +
+               "SELECT " + keySelect + ", " + values + ", CURRENT_TIMESTAMP " + from + " " +
+               "ON CONFLICT (" + conflictColumns + ") DO UPDATE SET " + updates +
+               ", updated_at = EXCLUDED.updated_at";
+    }
+
+    /**
+     * SELECT of the key columns and every metric column for a range; cancelled_ and
+     * delivered_ columns aggregate only orders currently in that status.
+     */
+    private static String recomputeSql(String keySelect, String[] metrics, Map<String, String> aggregates,
+                                       String statusColumn, String from) {
+        StringJoiner select = new StringJoiner(", ");
+        select.add(keySelect);
+        for (SalesEventType type : SalesEventType.values()) {
+            for (String metric : metrics) {
+                String aggregate = aggregates.get(metric);
+                if (type != SalesEventType.PLACED) {
+                    aggregate = "COALESCE(" + aggregate + " FILTER (WHERE " + statusColumn + " = '" +
+                            type.name() + "'), 0)";
+                }
+                select.add(aggregate + " AS " + type.columnPrefix() + metric);
+            }
+        }
+        return "SELECT " + select + " " + from;
+    }
+
+    private record ChunkRows(int daily, int products, int categories) {
+    }
+}